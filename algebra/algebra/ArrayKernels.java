@@ -0,0 +1,150 @@
+package algebra;
+
+/**
+ * Element-wise and reduction loops over ranges of primitive arrays, shared by
+ * {@link NumericArrays}, {@link LinearAlgebra} and {@link RealMatrix}.
+ * <p>
+ * This is the class of the base layer of the library jar, which runs on any
+ * JVM and always uses {@link ScalarArrayKernels}. The jar is a multi-release
+ * jar: on Java 21 and later the JVM loads instead the {@code ArrayKernels} of
+ * {@code META-INF/versions/21}, which sends the same calls to the Vector API
+ * ({@code jdk.incubator.vector}) when that module has been added to the JVM. Both
+ * classes must keep the same methods.
+ * </p>
+ * <p>
+ * Every method works on the indices {@code [from, to)} and does not check its
+ * arguments. {@code dest} may be one of the operands.
+ * </p>
+ */
+final class ArrayKernels {
+
+	private ArrayKernels() {
+	}
+
+	/**
+	 * Whether the operations run on the Vector API.
+	 */
+	static final boolean VECTORIZED = false;
+
+	/**
+	 * {@code dest[i] = x[i] + y[i]}
+	 */
+	static void add(double[] x, double[] y, double[] dest, int from, int to) {
+		ScalarArrayKernels.add(x, y, dest, from, to);
+	}
+
+	static void add(float[] x, float[] y, float[] dest, int from, int to) {
+		ScalarArrayKernels.add(x, y, dest, from, to);
+	}
+
+	static void add(int[] x, int[] y, int[] dest, int from, int to) {
+		ScalarArrayKernels.add(x, y, dest, from, to);
+	}
+
+	/**
+	 * {@code dest[i] = x[i] - y[i]}
+	 */
+	static void subtract(double[] x, double[] y, double[] dest, int from, int to) {
+		ScalarArrayKernels.subtract(x, y, dest, from, to);
+	}
+
+	static void subtract(float[] x, float[] y, float[] dest, int from, int to) {
+		ScalarArrayKernels.subtract(x, y, dest, from, to);
+	}
+
+	static void subtract(int[] x, int[] y, int[] dest, int from, int to) {
+		ScalarArrayKernels.subtract(x, y, dest, from, to);
+	}
+
+	/**
+	 * {@code dest[i] = alpha * x[i]}
+	 */
+	static void scale(double alpha, double[] x, double[] dest, int from, int to) {
+		ScalarArrayKernels.scale(alpha, x, dest, from, to);
+	}
+
+	static void scale(float alpha, float[] x, float[] dest, int from, int to) {
+		ScalarArrayKernels.scale(alpha, x, dest, from, to);
+	}
+
+	static void scale(int alpha, int[] x, int[] dest, int from, int to) {
+		ScalarArrayKernels.scale(alpha, x, dest, from, to);
+	}
+
+	/**
+	 * {@code y[i] += alpha * x[i]}
+	 */
+	static void axpy(double alpha, double[] x, double[] y, int from, int to) {
+		ScalarArrayKernels.axpy(alpha, x, y, from, to);
+	}
+
+	static void axpy(float alpha, float[] x, float[] y, int from, int to) {
+		ScalarArrayKernels.axpy(alpha, x, y, from, to);
+	}
+
+	static void axpy(int alpha, int[] x, int[] y, int from, int to) {
+		ScalarArrayKernels.axpy(alpha, x, y, from, to);
+	}
+
+	/**
+	 * Sum of {@code x[i] * y[i]}. The products of floats are computed in float and
+	 * added in double, the products of ints overflow as int arithmetic does.
+	 */
+	static double dot(double[] x, double[] y, int from, int to) {
+		return ScalarArrayKernels.dot(x, y, from, to);
+	}
+
+	static double dot(float[] x, float[] y, int from, int to) {
+		return ScalarArrayKernels.dot(x, y, from, to);
+	}
+
+	static int dot(int[] x, int[] y, int from, int to) {
+		return ScalarArrayKernels.dot(x, y, from, to);
+	}
+
+	/**
+	 * Sum of {@code x[i]}, added in double.
+	 */
+	static double sum(double[] x, int from, int to) {
+		return ScalarArrayKernels.sum(x, from, to);
+	}
+
+	static double sum(float[] x, int from, int to) {
+		return ScalarArrayKernels.sum(x, from, to);
+	}
+
+	static double sum(int[] x, int from, int to) {
+		return ScalarArrayKernels.sum(x, from, to);
+	}
+
+	/**
+	 * Sum of {@code x[i] * x[i]}, computed in double.
+	 */
+	static double sumOfSquares(double[] x, int from, int to) {
+		return ScalarArrayKernels.sumOfSquares(x, from, to);
+	}
+
+	static double sumOfSquares(float[] x, int from, int to) {
+		return ScalarArrayKernels.sumOfSquares(x, from, to);
+	}
+
+	static double sumOfSquares(int[] x, int from, int to) {
+		return ScalarArrayKernels.sumOfSquares(x, from, to);
+	}
+
+	/**
+	 * {@code y[i] = alpha * x[i] + beta * y[i]}
+	 */
+	static void axpby(double alpha, double[] x, double beta, double[] y, int from, int to) {
+		ScalarArrayKernels.axpby(alpha, x, beta, y, from, to);
+	}
+
+	/**
+	 * {@code y[i] += alpha * x[i]}, returning the sum of the squares of the new
+	 * {@code y[i]}.
+	 */
+	static double axpySumOfSquares(double alpha, double[] x, double[] y, int from, int to) {
+		return ScalarArrayKernels.axpySumOfSquares(alpha, x, y, from, to);
+	}
+
+}
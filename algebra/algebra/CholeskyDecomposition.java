@@ -0,0 +1,326 @@
+package algebra;
+
+import java.util.Arrays;
+import exceptions.IncompatibleLengthsException;
+import exceptions.MatrixDimensionException;
+import exceptions.NonPositiveDefiniteMatrixException;
+import exceptions.NonSquareMatrixException;
+
+/**
+ * Cholesky decomposition of a symmetric positive definite matrix.
+ * <p>
+ * For a symmetric positive definite matrix {@code A} it computes the lower
+ * triangular matrix {@code L}, with a positive diagonal, such that
+ * {@code A = L x L^T}. It takes half the operations of the
+ * {@link LUDecomposition} and needs no pivoting. The whole matrix is first
+ * checked to be symmetric, within a tolerance relative to its largest diagonal
+ * number; the factorization itself then reads only the lower triangle of
+ * {@code A}, and {@code L} overwrites it in a single copy of the matrix, which
+ * is never modified.
+ * </p>
+ * <p>
+ * The factorization goes by blocks of {@link #BLOCK} columns. Every block is
+ * first updated with all the columns before it, which is where almost all the
+ * work is, as {@code 4 x 4} tiles of dot products between rows; then its
+ * diagonal block is factored column by column, and every row below it is
+ * solved against that block in a single pass.
+ * </p>
+ * <p>
+ * It fails, with a {@link NonPositiveDefiniteMatrixException}, as soon as a
+ * pivot is not positive, which makes it the cheapest way to tell whether a
+ * matrix is positive definite; see {@link #isPositiveDefinite(RealMatrix)}.
+ * </p>
+ */
+public final class CholeskyDecomposition {
+
+	// columns factored together, whose slices of the rows stay in cache
+	private static final int BLOCK = 32;
+
+	// right hand sides are substituted by blocks of this many columns, so the
+	// slice of the solution being updated stays in cache
+	private static final int RHS_BLOCK = 128;
+
+	private final double[][] l;
+	private final int size;
+
+	/**
+	 * Computes the Cholesky decomposition of the given matrix.
+	 *
+	 * @param mat the matrix to decompose
+	 * @throws NonSquareMatrixException           if the given matrix is not square
+	 * @throws NonPositiveDefiniteMatrixException if the given matrix is not
+	 *                                            symmetric or not positive
+	 *                                            definite
+	 */
+	public CholeskyDecomposition(RealMatrix mat) {
+		if (!mat.isSquare())
+			throw new NonSquareMatrixException(mat.rowSize(), mat.columnSize());
+		size = mat.rowSize();
+		l = copy(mat);
+		double scale = diagonalScale(l, size);
+		if (!isSymmetric(l, size, scale * Utils.UMBRAL_TOLERANCE))
+			throw new NonPositiveDefiniteMatrixException("Matrix is not symmetric");
+		int failed = factor(l, size, scale * Utils.UMBRAL_ZERO);
+		if (failed >= 0)
+			throw new NonPositiveDefiniteMatrixException(failed, l[failed][failed]);
+		for (int i = 0; i < size; i++)
+			Arrays.fill(l[i], i + 1, size, 0);
+	}
+
+	/**
+	 * Returns {@code true} if the given matrix is symmetric and positive definite,
+	 * attempting its Cholesky decomposition, which stops at the first pivot that
+	 * is not positive.
+	 *
+	 * @param mat the matrix to test
+	 * @return whether the matrix is symmetric positive definite
+	 */
+	public static boolean isPositiveDefinite(RealMatrix mat) {
+		if (!mat.isSquare())
+			return false;
+		int n = mat.rowSize();
+		double[][] a = copy(mat);
+		double scale = diagonalScale(a, n);
+		return isSymmetric(a, n, scale * Utils.UMBRAL_TOLERANCE) && factor(a, n, scale * Utils.UMBRAL_ZERO) < 0;
+	}
+
+	private static double[][] copy(RealMatrix mat) {
+		int n = mat.rowSize();
+		double[][] a = new double[n][];
+		for (int i = 0; i < n; i++)
+			a[i] = Arrays.copyOf(mat.rowReference(i), n);
+		return a;
+	}
+
+	/**
+	 * Returns the largest number of the diagonal, which bounds every number of a
+	 * positive definite matrix. Differences between symmetric numbers and pivots
+	 * are compared relative to it.
+	 */
+	private static double diagonalScale(double[][] a, int n) {
+		double scale = 0;
+		for (int i = 0; i < n; i++)
+			scale = Math.max(scale, Math.abs(a[i][i]));
+		return scale;
+	}
+
+	/**
+	 * Returns whether {@code a[i][j]} and {@code a[j][i]} differ by no more than
+	 * {@code tolerance} for every {@code i} and {@code j}.
+	 */
+	private static boolean isSymmetric(double[][] a, int n, double tolerance) {
+		for (int i = 1; i < n; i++) {
+			double[] row = a[i];
+			for (int j = 0; j < i; j++)
+				if (!(Math.abs(row[j] - a[j][i]) <= tolerance))
+					return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Overwrites the lower triangle of {@code a} with {@code L}. The upper triangle
+	 * is left with garbage.
+	 *
+	 * @return the index of the first pivot not above {@code tolerance}, or
+	 *         {@code -1} if the matrix is positive definite
+	 */
+	private static int factor(double[][] a, int n, double tolerance) {
+		for (int jb = 0; jb < n; jb += BLOCK) {
+			int jEnd = Math.min(jb + BLOCK, n);
+			if (jb > 0)
+				updateBlock(a, n, jb, jEnd);
+			// diagonal block
+			for (int j = jb; j < jEnd; j++) {
+				double[] rowJ = a[j];
+				double d = rowJ[j] - ArrayKernels.dot(rowJ, rowJ, jb, j);
+				if (!(d > tolerance)) {
+					rowJ[j] = d;
+					return j;
+				}
+				double ljj = rowJ[j] = Math.sqrt(d);
+				for (int i = j + 1; i < jEnd; i++) {
+					double[] rowI = a[i];
+					rowI[j] = (rowI[j] - ArrayKernels.dot(rowI, rowJ, jb, j)) / ljj;
+				}
+			}
+			// rows below it, each one solved against the diagonal block at once
+			for (int i = jEnd; i < n; i++) {
+				double[] rowI = a[i];
+				for (int j = jb; j < jEnd; j++) {
+					double[] rowJ = a[j];
+					rowI[j] = (rowI[j] - ArrayKernels.dot(rowI, rowJ, jb, j)) / rowJ[j];
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Subtracts from the columns {@code [jb, jEnd)} of the rows below {@code jb}
+	 * their products with the columns already factored,
+	 * {@code a[i][j] -= dot(a[i], a[j], 0, jb)}.
+	 */
+	private static void updateBlock(double[][] a, int n, int jb, int jEnd) {
+		// by slices of the factored columns, so the slice of the block stays in cache
+		for (int kb = 0; kb < jb; kb += SyrkKernel.KB) {
+			int kEnd = Math.min(kb + SyrkKernel.KB, jb);
+			int i = jb;
+			for (; i + 4 <= n; i += 4) {
+				int last = Math.min(jEnd, i + 4), j = jb;
+				for (; j + 4 <= last; j += 4)
+					SyrkKernel.dotTile(a, a, i, j, kb, kEnd, -1);
+				for (int r = i; r < i + 4; r++)
+					for (int q = j; q < Math.min(last, r + 1); q++)
+						a[r][q] -= ArrayKernels.dot(a[r], a[q], kb, kEnd);
+			}
+			for (; i < n; i++)
+				for (int j = jb; j < Math.min(jEnd, i + 1); j++)
+					a[i][j] -= ArrayKernels.dot(a[i], a[j], kb, kEnd);
+		}
+	}
+
+	/**
+	 * Returns the number of rows (and columns) of the decomposed matrix.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the lower triangular factor {@code L}.
+	 */
+	public RealMatrix getL() {
+		double[][] res = new double[size][];
+		for (int i = 0; i < size; i++)
+			res[i] = l[i].clone();
+		return new RealMatrix(res, false, false);
+	}
+
+	/**
+	 * Returns the determinant of the decomposed matrix, the square of the product
+	 * of the diagonal of {@code L}. For large matrices it easily overflows; see
+	 * {@link #logDeterminant()}.
+	 *
+	 * @return the determinant of the decomposed matrix
+	 */
+	public double determinant() {
+		double det = 1;
+		for (int i = 0; i < size; i++)
+			det *= l[i][i];
+		return det * det;
+	}
+
+	/**
+	 * Returns the natural logarithm of the determinant of the decomposed matrix,
+	 * twice the sum of the logarithms of the diagonal of {@code L}, which does not
+	 * overflow.
+	 *
+	 * @return the logarithm of the determinant of the decomposed matrix
+	 */
+	public double logDeterminant() {
+		double sum = 0;
+		for (int i = 0; i < size; i++)
+			sum += Math.log(l[i][i]);
+		return 2 * sum;
+	}
+
+	/**
+	 * Solves {@code A x = b}, where {@code A} is the decomposed matrix, as
+	 * {@code L y = b} and then {@code L^T x = y}.
+	 *
+	 * @param b the right hand side
+	 * @return the solution {@code x}
+	 * @throws IncompatibleLengthsException if the length of {@code b} is not the
+	 *                                      size of the matrix
+	 */
+	public double[] solve(double[] b) {
+		if (b.length != size)
+			throw new IncompatibleLengthsException(b.length, size);
+		double[] x = b.clone();
+		// L y = b
+		for (int i = 0; i < size; i++) {
+			double[] row = l[i];
+			x[i] = (x[i] - ArrayKernels.dot(row, x, 0, i)) / row[i];
+		}
+		// L^T x = y, by columns of L^T, which are the rows of L
+		for (int i = size - 1; i >= 0; i--) {
+			double[] row = l[i];
+			double xi = x[i] /= row[i];
+			if (xi != 0)
+				ArrayKernels.axpy(-xi, row, x, 0, i);
+		}
+		return x;
+	}
+
+	/**
+	 * Solves {@code A X = B}, where {@code A} is the decomposed matrix, for all the
+	 * columns of {@code B} at once, by blocks of columns like
+	 * {@link LUDecomposition#solve(RealMatrix)}.
+	 *
+	 * @param b the right hand sides, one per column
+	 * @return the solution {@code X}, with the same dimension as {@code b}
+	 * @throws MatrixDimensionException if the number of rows of {@code b} is not
+	 *                                  the size of the matrix
+	 */
+	public RealMatrix solve(RealMatrix b) {
+		if (b.rowSize() != size)
+			throw new MatrixDimensionException(
+					"Matrix " + b.rowSize() + "x" + b.columnSize() + " given for a system of size " + size);
+		int columns = b.columnSize();
+		double[][] x = new double[size][];
+		for (int i = 0; i < size; i++)
+			x[i] = Arrays.copyOf(b.rowReference(i), columns);
+		substituteInPlace(x, columns);
+		return new RealMatrix(x, false, false);
+	}
+
+	/**
+	 * Returns the inverse of the decomposed matrix, which is symmetric positive
+	 * definite as well.
+	 *
+	 * @return the inverse of the decomposed matrix
+	 */
+	public RealMatrix inverse() {
+		double[][] x = new double[size][size];
+		for (int i = 0; i < size; i++)
+			x[i][i] = 1;
+		substituteInPlace(x, size);
+		return new RealMatrix(x, false, false);
+	}
+
+	private void substituteInPlace(double[][] x, int columns) {
+		for (int from = 0; from < columns; from += RHS_BLOCK)
+			substituteInPlace(x, from, Math.min(columns, from + RHS_BLOCK));
+	}
+
+	/**
+	 * Substitutes the columns {@code [from, to)} of {@code x}. Every step updates
+	 * all of them at once, one row slice of {@code x} against another.
+	 */
+	private void substituteInPlace(double[][] x, int from, int to) {
+		// L Y = B
+		for (int i = 0; i < size; i++) {
+			double[] row = l[i], xi = x[i];
+			for (int j = 0; j < i; j++) {
+				double lij = row[j];
+				if (lij == 0)
+					continue;
+				ArrayKernels.axpy(-lij, x[j], xi, from, to);
+			}
+			ArrayKernels.scale(1 / row[i], xi, xi, from, to);
+		}
+		// L^T X = Y
+		for (int i = size - 1; i >= 0; i--) {
+			double[] row = l[i], xi = x[i];
+			ArrayKernels.scale(1 / row[i], xi, xi, from, to);
+			for (int k = 0; k < i; k++) {
+				double lik = row[k];
+				if (lik == 0)
+					continue;
+				ArrayKernels.axpy(-lik, xi, x[k], from, to);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,159 @@
+package algebra;
+
+import java.util.Arrays;
+
+/**
+ * Sparse matrix in coordinate (COO) layout: a list of
+ * {@code (row, column, number)} entries in the order they were added.
+ * <p>
+ * Entries are appended in constant amortized time with
+ * {@link #addEntry(int, int, double)}, which makes this layout the one to build
+ * a sparse matrix with (from the edges of a graph, for instance). Entries with
+ * the same row and column add up. Convert it with {@link #toCsr()} for repeated
+ * products and lookups, which here cost a pass over all the entries.
+ * </p>
+ */
+public class CooMatrix extends SparseMatrix {
+
+	private int[] rowIndices;
+	private int[] columnIndices;
+	private double[] values;
+	private int size;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	public CooMatrix(int rows, int columns) {
+		this(rows, columns, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty matrix (all zeros) with room for the given number of
+	 * entries.
+	 */
+	public CooMatrix(int rows, int columns, int initialCapacity) {
+		super(rows, columns);
+		if (initialCapacity < 0)
+			throw new IllegalArgumentException();
+		rowIndices = new int[initialCapacity];
+		columnIndices = new int[initialCapacity];
+		values = new double[initialCapacity];
+	}
+
+	/**
+	 * Creates a matrix holding the non zero numbers of the given one, row after
+	 * row.
+	 *
+	 * @param m the matrix to convert
+	 */
+	public CooMatrix(RealMatrix m) {
+		this(m.rowSize(), m.columnSize());
+		for (int i = 0; i < m.rowSize(); i++) {
+			double[] row = m.rowReference(i);
+			for (int j = 0; j < m.columnSize(); j++)
+				if (row[j] != 0)
+					append(i, j, row[j]);
+		}
+	}
+
+	/**
+	 * Wraps the given arrays without copying them.
+	 */
+	CooMatrix(int[] rowIndices, int[] columnIndices, double[] values, int size, int rows, int columns) {
+		super(rows, columns);
+		this.rowIndices = rowIndices;
+		this.columnIndices = columnIndices;
+		this.values = values;
+		this.size = size;
+	}
+
+	/**
+	 * Adds {@code number} to the number at the given position.
+	 *
+	 * @param indexRow    row of the entry
+	 * @param indexColumn column of the entry
+	 * @param number      number to add
+	 * @throws IndexOutOfBoundsException if the position is out of this matrix
+	 */
+	public void addEntry(int indexRow, int indexColumn, double number) {
+		checkIndexForNumber(indexRow, indexColumn);
+		if (number != 0)
+			append(indexRow, indexColumn, number);
+	}
+
+	private void append(int indexRow, int indexColumn, double number) {
+		if (size == values.length) {
+			int newCapacity = Math.max(DEFAULT_CAPACITY, size + (size >> 1));
+			rowIndices = Arrays.copyOf(rowIndices, newCapacity);
+			columnIndices = Arrays.copyOf(columnIndices, newCapacity);
+			values = Arrays.copyOf(values, newCapacity);
+		}
+		rowIndices[size] = indexRow;
+		columnIndices[size] = indexColumn;
+		values[size++] = number;
+	}
+
+	/**
+	 * Returns the number of entries added to this matrix, counting the ones with
+	 * the same row and column separately.
+	 */
+	public int nonZeros() {
+		return size;
+	}
+
+	public double getNumber(int indexRow, int indexColumn) {
+		checkIndexForNumber(indexRow, indexColumn);
+		double sum = 0;
+		for (int k = 0; k < size; k++)
+			if (rowIndices[k] == indexRow && columnIndices[k] == indexColumn)
+				sum += values[k];
+		return sum;
+	}
+
+	public CsrMatrix toCsr() {
+		return CsrMatrix.fromEntries(rowSize(), columnSize(), rowIndices, columnIndices, values, size);
+	}
+
+	public CscMatrix toCsc() {
+		return toCsr().toCsc();
+	}
+
+	/**
+	 * Returns a copy of this matrix.
+	 */
+	public CooMatrix toCoo() {
+		return new CooMatrix(Arrays.copyOf(rowIndices, size), Arrays.copyOf(columnIndices, size),
+				Arrays.copyOf(values, size), size, rowSize(), columnSize());
+	}
+
+	public CooMatrix transpose() {
+		return new CooMatrix(Arrays.copyOf(columnIndices, size), Arrays.copyOf(rowIndices, size),
+				Arrays.copyOf(values, size), size, columnSize(), rowSize());
+	}
+
+	public CooMatrix subMatrix(int indexRow, int indexColumn) {
+		checkSubMatrix(indexRow, indexColumn);
+		CooMatrix m = new CooMatrix(rowSize() - 1, columnSize() - 1, size);
+		for (int k = 0; k < size; k++) {
+			int i = rowIndices[k], j = columnIndices[k];
+			if (i != indexRow && j != indexColumn)
+				m.append(i < indexRow ? i : i - 1, j < indexColumn ? j : j - 1, values[k]);
+		}
+		return m;
+	}
+
+	void scatter(double alpha, double[][] rows) {
+		for (int k = 0; k < size; k++)
+			rows[rowIndices[k]][columnIndices[k]] += alpha * values[k];
+	}
+
+	void multiplyAdd(double[] x, double[] y) {
+		for (int k = 0; k < size; k++)
+			y[rowIndices[k]] += values[k] * x[columnIndices[k]];
+	}
+
+	void multiplyAdd(double[][] b, double[][] c, int n) {
+		for (int k = 0; k < size; k++)
+			ArrayKernels.axpy(values[k], b[columnIndices[k]], c[rowIndices[k]], 0, n);
+	}
+
+}
@@ -0,0 +1,190 @@
+package algebra;
+
+import java.util.Arrays;
+
+/**
+ * Sparse matrix in compressed sparse column (CSC) layout: the row indices and
+ * the numbers of the entries of column {@code j} are found in
+ * {@code rowIndices} and {@code values} between {@code columnPointers[j]}
+ * (inclusive) and {@code columnPointers[j + 1]} (exclusive), ordered by row.
+ * <p>
+ * It is the {@link CsrMatrix} layout of the transpose: columns are contiguous,
+ * so reading a column is cheap, and products scatter every column of the
+ * matrix scaled by the matching number of the right hand side. Instances are
+ * immutable; build them entry by entry with a {@link CooMatrix}.
+ * </p>
+ */
+public class CscMatrix extends SparseMatrix {
+
+	private final int[] columnPointers;
+	private final int[] rowIndices;
+	private final double[] values;
+
+	/**
+	 * Creates a matrix from its CSC arrays, which are copied. Entries of the same
+	 * column may come in any order; entries with the same row and column are
+	 * added up, and zeros are not stored.
+	 *
+	 * @param rows           number of rows
+	 * @param columns        number of columns
+	 * @param columnPointers {@code columns + 1} non decreasing offsets, starting
+	 *                       at 0
+	 * @param rowIndices     row of every entry
+	 * @param values         number of every entry
+	 * @throws IllegalArgumentException  if the arrays do not describe a matrix of
+	 *                                   the given dimension
+	 * @throws IndexOutOfBoundsException if a row index is out of range
+	 */
+	public CscMatrix(int rows, int columns, int[] columnPointers, int[] rowIndices, double[] values) {
+		super(rows, columns);
+		if (columnPointers.length != columns + 1 || columnPointers[0] != 0 || rowIndices.length != values.length
+				|| columnPointers[columns] != values.length)
+			throw new IllegalArgumentException("Invalid CSC arrays");
+		for (int j = 0; j < columns; j++)
+			if (columnPointers[j] > columnPointers[j + 1])
+				throw new IllegalArgumentException("Invalid CSC arrays");
+		for (int r : rowIndices)
+			Utils.checkIndex(r, rows - 1);
+		CscMatrix m = CsrMatrix
+				.fromEntries(rows, columns, rowIndices, expand(columnPointers, values.length), values, values.length)
+				.toCsc();
+		this.columnPointers = m.columnPointers;
+		this.rowIndices = m.rowIndices;
+		this.values = m.values;
+	}
+
+	/**
+	 * Creates a matrix holding the non zero numbers of the given one.
+	 *
+	 * @param m the matrix to convert
+	 */
+	public CscMatrix(RealMatrix m) {
+		super(m.rowSize(), m.columnSize());
+		int r = m.rowSize(), c = m.columnSize();
+		columnPointers = new int[c + 1];
+		for (int i = 0; i < r; i++) {
+			double[] row = m.rowReference(i);
+			for (int j = 0; j < c; j++)
+				if (row[j] != 0)
+					columnPointers[j + 1]++;
+		}
+		for (int j = 0; j < c; j++)
+			columnPointers[j + 1] += columnPointers[j];
+		rowIndices = new int[columnPointers[c]];
+		values = new double[columnPointers[c]];
+		int[] next = Arrays.copyOf(columnPointers, c);
+		for (int i = 0; i < r; i++) {
+			double[] row = m.rowReference(i);
+			for (int j = 0; j < c; j++) {
+				if (row[j] != 0) {
+					int k = next[j]++;
+					rowIndices[k] = i;
+					values[k] = row[j];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Wraps the given arrays without copying them. They must already be in
+	 * canonical form: rows increasing within every column, no zeros, and exactly
+	 * {@code columnPointers[columns]} entries.
+	 */
+	CscMatrix(int[] columnPointers, int[] rowIndices, double[] values, int rows, int columns) {
+		super(rows, columns);
+		this.columnPointers = columnPointers;
+		this.rowIndices = rowIndices;
+		this.values = values;
+	}
+
+	int[] columnPointers() {
+		return columnPointers;
+	}
+
+	int[] rowIndices() {
+		return rowIndices;
+	}
+
+	double[] values() {
+		return values;
+	}
+
+	public int nonZeros() {
+		return values.length;
+	}
+
+	public double getNumber(int indexRow, int indexColumn) {
+		checkIndexForNumber(indexRow, indexColumn);
+		int k = Arrays.binarySearch(rowIndices, columnPointers[indexColumn], columnPointers[indexColumn + 1],
+				indexRow);
+		return k >= 0 ? values[k] : 0;
+	}
+
+	/**
+	 * Returns the given column, with its zeros.
+	 *
+	 * @param index index of the column
+	 * @return a new array holding the column
+	 */
+	public double[] getColumn(int index) {
+		Utils.checkIndex(index, columnSize() - 1);
+		double[] column = new double[rowSize()];
+		for (int k = columnPointers[index]; k < columnPointers[index + 1]; k++)
+			column[rowIndices[k]] = values[k];
+		return column;
+	}
+
+	public CsrMatrix toCsr() {
+		int size = values.length;
+		int[] cols = new int[size];
+		double[] vals = new double[size];
+		int[] pointers = compress(rowSize(), rowIndices, expand(columnPointers, size), values, size, cols, vals);
+		return new CsrMatrix(pointers, cols, vals, rowSize(), columnSize());
+	}
+
+	public CscMatrix toCsc() {
+		return this;
+	}
+
+	public CooMatrix toCoo() {
+		return new CooMatrix(rowIndices.clone(), expand(columnPointers, values.length), values.clone(),
+				values.length, rowSize(), columnSize());
+	}
+
+	/**
+	 * Returns the transpose of this matrix. The CSR arrays of a matrix are the CSC
+	 * arrays of its transpose, so this costs one conversion.
+	 */
+	public CscMatrix transpose() {
+		CsrMatrix m = toCsr();
+		return new CscMatrix(m.rowPointers(), m.columnIndices(), m.values(), columnSize(), rowSize());
+	}
+
+	public CscMatrix subMatrix(int indexRow, int indexColumn) {
+		checkSubMatrix(indexRow, indexColumn);
+		return toCsr().subMatrix(indexRow, indexColumn).toCsc();
+	}
+
+	void scatter(double alpha, double[][] rows) {
+		for (int j = 0; j < columnSize(); j++)
+			for (int k = columnPointers[j]; k < columnPointers[j + 1]; k++)
+				rows[rowIndices[k]][j] += alpha * values[k];
+	}
+
+	void multiplyAdd(double[] x, double[] y) {
+		for (int j = 0; j < columnSize(); j++) {
+			double xj = x[j];
+			for (int k = columnPointers[j]; k < columnPointers[j + 1]; k++)
+				y[rowIndices[k]] += values[k] * xj;
+		}
+	}
+
+	void multiplyAdd(double[][] b, double[][] c, int n) {
+		for (int j = 0; j < columnSize(); j++) {
+			double[] row = b[j];
+			for (int k = columnPointers[j]; k < columnPointers[j + 1]; k++)
+				ArrayKernels.axpy(values[k], row, c[rowIndices[k]], 0, n);
+		}
+	}
+
+}
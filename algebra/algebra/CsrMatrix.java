@@ -0,0 +1,243 @@
+package algebra;
+
+import java.util.Arrays;
+
+/**
+ * Sparse matrix in compressed sparse row (CSR) layout: the column indices and
+ * the numbers of the entries of row {@code i} are found in
+ * {@code columnIndices} and {@code values} between {@code rowPointers[i]}
+ * (inclusive) and {@code rowPointers[i + 1]} (exclusive), ordered by column.
+ * <p>
+ * Rows are contiguous, so products with vectors and dense matrices traverse
+ * the entries once, in order. Instances are immutable; build them entry by entry
+ * with a {@link CooMatrix}.
+ * </p>
+ */
+public class CsrMatrix extends SparseMatrix {
+
+	private final int[] rowPointers;
+	private final int[] columnIndices;
+	private final double[] values;
+
+	/**
+	 * Creates a matrix from its CSR arrays, which are copied. Entries of the same
+	 * row may come in any order; entries with the same row and column are added
+	 * up, and zeros are not stored.
+	 *
+	 * @param rows          number of rows
+	 * @param columns       number of columns
+	 * @param rowPointers   {@code rows + 1} non decreasing offsets, starting at 0
+	 * @param columnIndices column of every entry
+	 * @param values        number of every entry
+	 * @throws IllegalArgumentException  if the arrays do not describe a matrix of
+	 *                                   the given dimension
+	 * @throws IndexOutOfBoundsException if a column index is out of range
+	 */
+	public CsrMatrix(int rows, int columns, int[] rowPointers, int[] columnIndices, double[] values) {
+		super(rows, columns);
+		if (rowPointers.length != rows + 1 || rowPointers[0] != 0 || columnIndices.length != values.length
+				|| rowPointers[rows] != values.length)
+			throw new IllegalArgumentException("Invalid CSR arrays");
+		for (int i = 0; i < rows; i++)
+			if (rowPointers[i] > rowPointers[i + 1])
+				throw new IllegalArgumentException("Invalid CSR arrays");
+		for (int c : columnIndices)
+			Utils.checkIndex(c, columns - 1);
+		CsrMatrix m = fromEntries(rows, columns, expand(rowPointers, values.length), columnIndices, values,
+				values.length);
+		this.rowPointers = m.rowPointers;
+		this.columnIndices = m.columnIndices;
+		this.values = m.values;
+	}
+
+	/**
+	 * Creates a matrix holding the non zero numbers of the given one.
+	 *
+	 * @param m the matrix to convert
+	 */
+	public CsrMatrix(RealMatrix m) {
+		super(m.rowSize(), m.columnSize());
+		int r = m.rowSize(), c = m.columnSize(), size = 0;
+		for (int i = 0; i < r; i++) {
+			double[] row = m.rowReference(i);
+			for (int j = 0; j < c; j++)
+				if (row[j] != 0)
+					size++;
+		}
+		rowPointers = new int[r + 1];
+		columnIndices = new int[size];
+		values = new double[size];
+		for (int i = 0, k = 0; i < r; i++) {
+			double[] row = m.rowReference(i);
+			for (int j = 0; j < c; j++) {
+				if (row[j] != 0) {
+					columnIndices[k] = j;
+					values[k++] = row[j];
+				}
+			}
+			rowPointers[i + 1] = k;
+		}
+	}
+
+	/**
+	 * Wraps the given arrays without copying them. They must already be in
+	 * canonical form: columns increasing within every row, no zeros, and exactly
+	 * {@code rowPointers[rows]} entries.
+	 */
+	CsrMatrix(int[] rowPointers, int[] columnIndices, double[] values, int rows, int columns) {
+		super(rows, columns);
+		this.rowPointers = rowPointers;
+		this.columnIndices = columnIndices;
+		this.values = values;
+	}
+
+	/**
+	 * Builds a matrix from the first {@code size} entries of the given arrays, in
+	 * any order, adding up the ones with the same row and column. The arrays are
+	 * not modified.
+	 */
+	static CsrMatrix fromEntries(int rows, int columns, int[] rowIndices, int[] columnIndices, double[] values,
+			int size) {
+		// grouping by column and then by row leaves the columns of every row sorted
+		int[] byColumnRows = new int[size];
+		double[] byColumnValues = new double[size];
+		int[] columnPointers = compress(columns, columnIndices, rowIndices, values, size, byColumnRows,
+				byColumnValues);
+		int[] cols = new int[size];
+		double[] vals = new double[size];
+		int[] pointers = compress(rows, byColumnRows, expand(columnPointers, size), byColumnValues, size, cols, vals);
+		// duplicates are now next to each other
+		int d = 0;
+		for (int i = 0; i < rows; i++) {
+			int k = pointers[i], end = pointers[i + 1];
+			pointers[i] = d;
+			while (k < end) {
+				int c = cols[k];
+				double sum = vals[k++];
+				while (k < end && cols[k] == c)
+					sum += vals[k++];
+				if (sum != 0) {
+					cols[d] = c;
+					vals[d++] = sum;
+				}
+			}
+		}
+		pointers[rows] = d;
+		if (d < size) {
+			cols = Arrays.copyOf(cols, d);
+			vals = Arrays.copyOf(vals, d);
+		}
+		return new CsrMatrix(pointers, cols, vals, rows, columns);
+	}
+
+	int[] rowPointers() {
+		return rowPointers;
+	}
+
+	int[] columnIndices() {
+		return columnIndices;
+	}
+
+	double[] values() {
+		return values;
+	}
+
+	public int nonZeros() {
+		return values.length;
+	}
+
+	public double getNumber(int indexRow, int indexColumn) {
+		checkIndexForNumber(indexRow, indexColumn);
+		int k = Arrays.binarySearch(columnIndices, rowPointers[indexRow], rowPointers[indexRow + 1], indexColumn);
+		return k >= 0 ? values[k] : 0;
+	}
+
+	/**
+	 * Returns the given row, with its zeros.
+	 *
+	 * @param index index of the row
+	 * @return a new array holding the row
+	 */
+	public double[] getRow(int index) {
+		Utils.checkIndex(index, rowSize() - 1);
+		double[] row = new double[columnSize()];
+		for (int k = rowPointers[index]; k < rowPointers[index + 1]; k++)
+			row[columnIndices[k]] = values[k];
+		return row;
+	}
+
+	public CsrMatrix toCsr() {
+		return this;
+	}
+
+	public CscMatrix toCsc() {
+		int size = values.length;
+		int[] rows = new int[size];
+		double[] vals = new double[size];
+		int[] pointers = compress(columnSize(), columnIndices, expand(rowPointers, size), values, size, rows, vals);
+		return new CscMatrix(pointers, rows, vals, rowSize(), columnSize());
+	}
+
+	public CooMatrix toCoo() {
+		return new CooMatrix(expand(rowPointers, values.length), columnIndices.clone(), values.clone(),
+				values.length, rowSize(), columnSize());
+	}
+
+	/**
+	 * Returns the transpose of this matrix. The CSC arrays of a matrix are the CSR
+	 * arrays of its transpose, so this costs one conversion.
+	 */
+	public CsrMatrix transpose() {
+		CscMatrix m = toCsc();
+		return new CsrMatrix(m.columnPointers(), m.rowIndices(), m.values(), columnSize(), rowSize());
+	}
+
+	public CsrMatrix subMatrix(int indexRow, int indexColumn) {
+		checkSubMatrix(indexRow, indexColumn);
+		int removed = rowPointers[indexRow + 1] - rowPointers[indexRow];
+		int[] pointers = new int[rowSize()];
+		int[] cols = new int[values.length - removed];
+		double[] vals = new double[cols.length];
+		int d = 0;
+		for (int i = 0, a = 0; i < rowSize(); i++) {
+			if (i == indexRow)
+				continue;
+			for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++) {
+				int c = columnIndices[k];
+				if (c == indexColumn)
+					continue;
+				cols[d] = c < indexColumn ? c : c - 1;
+				vals[d++] = values[k];
+			}
+			pointers[++a] = d;
+		}
+		return new CsrMatrix(pointers, Arrays.copyOf(cols, d), Arrays.copyOf(vals, d), rowSize() - 1,
+				columnSize() - 1);
+	}
+
+	void scatter(double alpha, double[][] rows) {
+		for (int i = 0; i < rowSize(); i++) {
+			double[] row = rows[i];
+			for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++)
+				row[columnIndices[k]] += alpha * values[k];
+		}
+	}
+
+	void multiplyAdd(double[] x, double[] y) {
+		for (int i = 0; i < rowSize(); i++) {
+			double sum = 0;
+			for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++)
+				sum += values[k] * x[columnIndices[k]];
+			y[i] += sum;
+		}
+	}
+
+	void multiplyAdd(double[][] b, double[][] c, int n) {
+		for (int i = 0; i < rowSize(); i++) {
+			double[] row = c[i];
+			for (int k = rowPointers[i]; k < rowPointers[i + 1]; k++)
+				ArrayKernels.axpy(values[k], b[columnIndices[k]], row, 0, n);
+		}
+	}
+
+}
@@ -0,0 +1,515 @@
+package algebra;
+
+import java.util.Arrays;
+import matrices.Index2d;
+
+/**
+ * Real matrix whose numbers are stored in a single contiguous {@code double[]},
+ * row after row.
+ * <p>
+ * The number at {@code (i, j)} lives at {@code data[i * leadingDimension + j]},
+ * where the leading dimension is the current column capacity. Unlike
+ * {@link RealMatrix}, rows are not separate objects, so traversals over the
+ * whole matrix walk memory linearly and a matrix of any size costs a single
+ * allocation.
+ * </p>
+ * <p>
+ * Rows and columns can still be added and removed. Spare capacity is kept at the
+ * end of every row and after the last row, and it grows geometrically so that
+ * repeated appends do not reallocate every time.
+ * </p>
+ */
+public class DenseRealMatrix extends doubleMatrices.AbstractRegularDoubleMatrix
+		implements Cloneable, java.io.Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 5839107402186271946L;
+
+	private double[] data;
+
+	private int rowsLength;
+	private int columnsLength;
+
+	private int currentRowCapacity;
+	private int leadingDimension;
+
+	private static int DEFAULT_ROW_CAPACITY = 5;
+	private static int DEFAULT_COLUMN_CAPACITY = 5;
+
+	public DenseRealMatrix() {
+		this(DEFAULT_ROW_CAPACITY, DEFAULT_COLUMN_CAPACITY, false);
+	}
+
+	public DenseRealMatrix(int n) {
+		this(n, n, true);
+	}
+
+	public DenseRealMatrix(int m, int n) {
+		this(m, n, true);
+	}
+
+	public DenseRealMatrix(int initialRowCapacity, int initialColumnCapacity,
+			boolean shouldStartWithCapacityDimension) {
+		if (initialRowCapacity < 0 || initialColumnCapacity < 0)
+			throw new IllegalArgumentException();
+		currentRowCapacity = initialRowCapacity;
+		leadingDimension = initialColumnCapacity;
+		data = new double[length(currentRowCapacity, leadingDimension)];
+		if (shouldStartWithCapacityDimension) {
+			rowsLength = currentRowCapacity;
+			columnsLength = leadingDimension;
+		}
+	}
+
+	public DenseRealMatrix(double[][] data) {
+		int r = data.length;
+		if (r == 0)
+			throw new IllegalArgumentException("Empty matrix");
+		int c = data[0].length;
+		if (c == 0)
+			throw new IllegalArgumentException("Empty row");
+		this.data = new double[length(r, c)];
+		for (int i = 0; i < r; i++) {
+			if (data[i].length != c)
+				throw new IllegalArgumentException("The 2d-array is not regular");
+			System.arraycopy(data[i], 0, this.data, i * c, c);
+		}
+		rowsLength = currentRowCapacity = r;
+		columnsLength = leadingDimension = c;
+	}
+
+	public DenseRealMatrix(RealMatrix m) {
+		int r = m.rowSize(), c = m.columnSize();
+		data = new double[length(r, c)];
+		for (int i = 0; i < r; i++)
+			System.arraycopy(m.rowReference(i), 0, data, i * c, c);
+		rowsLength = currentRowCapacity = r;
+		columnsLength = leadingDimension = c;
+	}
+
+	/**
+	 * Wraps the given array without copying it. The array must hold at least
+	 * {@code r * c} numbers laid out row after row.
+	 */
+	DenseRealMatrix(double[] data, int r, int c) {
+		this.data = data;
+		rowsLength = currentRowCapacity = r;
+		columnsLength = leadingDimension = c;
+	}
+
+	public static DenseRealMatrix random(int s) {
+		return random(s, s);
+	}
+
+	public static DenseRealMatrix random(int r, int c) {
+		return random(r, c, -10, 10);
+	}
+
+	public static DenseRealMatrix random(int r, int c, int min, int max) {
+		if (r <= 0 || c <= 0)
+			throw new IllegalArgumentException("Illegal matrix dimension " + r + "x" + c);
+		return new DenseRealMatrix(NumericArrays.randomDoubleArray(r * c, min, max), r, c);
+	}
+
+	/**
+	 * Returns a {@link RealMatrix} holding the same numbers as this matrix.
+	 *
+	 * @return a new {@link RealMatrix} equal to this matrix
+	 */
+	public RealMatrix toRealMatrix() {
+		return new RealMatrix(data(), false, false);
+	}
+
+	public double[][] data() {
+		int r = rowSize(), c = columnSize();
+		double[][] mat = new double[r][];
+		for (int i = 0; i < r; i++)
+			mat[i] = getRowUnsafe(i);
+		return mat;
+	}
+
+	/**
+	 * Returns the backing array, without copying it. Use together with
+	 * {@link #leadingDimension()} to locate a number.
+	 */
+	double[] rawArray() {
+		return data;
+	}
+
+	int leadingDimension() {
+		return leadingDimension;
+	}
+
+	public int rowSize() {
+		return rowsLength;
+	}
+
+	public int columnSize() {
+		return columnsLength;
+	}
+
+	public int totalSize() {
+		return rowSize() * columnSize();
+	}
+
+	public boolean isSquare() {
+		// 0x0 matrices won't be considerated square
+		return !isEmpty() && rowSize() == columnSize();
+	}
+
+	@Override
+	public Object clone() {
+		try {
+			DenseRealMatrix m = (DenseRealMatrix) super.clone();
+			m.data = data.clone();
+			return m;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof DenseRealMatrix)) {
+			return false;
+		}
+		DenseRealMatrix m = (DenseRealMatrix) o;
+		if (rowsLength != m.rowsLength || columnsLength != m.columnsLength) {
+			return false;
+		}
+		for (int i = 0; i < rowsLength; i++) {
+			int a = i * leadingDimension, b = i * m.leadingDimension;
+			for (int j = 0; j < columnsLength; j++) {
+				if (Double.doubleToLongBits(data[a + j]) != Double.doubleToLongBits(m.data[b + j]))
+					return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 31 * rowsLength + columnsLength;
+		for (int i = 0; i < rowsLength; i++) {
+			int offset = i * leadingDimension;
+			for (int j = 0; j < columnsLength; j++) {
+				long bits = Double.doubleToLongBits(data[offset + j]);
+				hash = 31 * hash + (int) (bits ^ (bits >>> 32));
+			}
+		}
+		return hash;
+	}
+
+	public DenseRealMatrix subMatrix(int indexRow, int indexColumn) {
+		if (isEmpty() || rowSize() == 1 || columnSize() == 1) {
+			throw new IllegalArgumentException();
+		}
+		checkIndexForNumber(indexRow, indexColumn);
+
+		int r = rowsLength - 1, c = columnsLength - 1;
+		double[] mat = new double[r * c];
+		int a = 0;
+		for (int i = 0; i < rowsLength; i++) {
+			if (i == indexRow)
+				continue;
+			int offset = i * leadingDimension;
+			System.arraycopy(data, offset, mat, a, indexColumn);
+			System.arraycopy(data, offset + indexColumn + 1, mat, a + indexColumn, c - indexColumn);
+			a += c;
+		}
+		return new DenseRealMatrix(mat, r, c);
+	}
+
+	public void print() {
+		if (isEmpty()) {
+			System.out.println("[]");
+			return;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < rowSize(); i++) {
+			sb.append(Arrays.toString(getRowUnsafe(i))).append('\n');
+		}
+		System.out.println(sb.deleteCharAt(sb.length() - 1).toString());
+	}
+
+	public Index2d indexOf(double number) {
+		for (int i = 0; i < rowSize(); i++) {
+			int offset = i * leadingDimension;
+			for (int j = 0; j < columnSize(); j++) {
+				if (data[offset + j] == number)
+					return new Index2d(i, j);
+			}
+		}
+		return null;
+	}
+
+	public Index2d lastIndexOf(double number) {
+		for (int i = rowSize() - 1; i >= 0; i--) {
+			int offset = i * leadingDimension;
+			for (int j = columnSize() - 1; j >= 0; j--) {
+				if (data[offset + j] == number)
+					return new Index2d(i, j);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void addRow(int index, double[] row) {
+		super.addRow(index, row);
+		if (isEmpty()) {
+			rowsLength = 0;
+			columnsLength = row.length;
+			index = 0;
+		}
+		ensureCapacity(rowsLength + 1, columnsLength);
+		int ld = leadingDimension;
+		System.arraycopy(data, index * ld, data, (index + 1) * ld, (rowsLength - index) * ld);
+		System.arraycopy(row, 0, data, index * ld, columnsLength);
+		rowsLength++;
+	}
+
+	@Override
+	public void addColumn(int index, double[] column) {
+		super.addColumn(index, column);
+		if (isEmpty()) {
+			rowsLength = column.length;
+			columnsLength = 0;
+			index = 0;
+		}
+		ensureCapacity(rowsLength, columnsLength + 1);
+		int ld = leadingDimension;
+		for (int i = 0; i < rowsLength; i++) {
+			int offset = i * ld;
+			System.arraycopy(data, offset + index, data, offset + index + 1, columnsLength - index);
+			data[offset + index] = column[i];
+		}
+		columnsLength++;
+	}
+
+	/**
+	 * Makes room for at least the given number of rows and columns, keeping the
+	 * current numbers where they are (relative to their row and column).
+	 */
+	private void ensureCapacity(int minRows, int minColumns) {
+		if (minColumns > leadingDimension) {
+			int newRowCapacity = Math.max(minRows, currentRowCapacity);
+			int newLd = grow(leadingDimension, minColumns, newRowCapacity);
+			double[] newData = new double[length(newRowCapacity, newLd)];
+			for (int i = 0; i < rowsLength; i++)
+				System.arraycopy(data, i * leadingDimension, newData, i * newLd, columnsLength);
+			data = newData;
+			leadingDimension = newLd;
+			currentRowCapacity = newRowCapacity;
+		} else if (minRows > currentRowCapacity) {
+			int newRowCapacity = grow(currentRowCapacity, minRows, leadingDimension);
+			data = Arrays.copyOf(data, length(newRowCapacity, leadingDimension));
+			currentRowCapacity = newRowCapacity;
+		}
+	}
+
+	/**
+	 * Returns the length of the array holding {@code rows x columns} numbers.
+	 *
+	 * @throws ArithmeticException if it does not fit in an {@code int}
+	 */
+	private static int length(int rows, int columns) {
+		return Math.multiplyExact(rows, columns);
+	}
+
+	/**
+	 * Returns the new capacity of a dimension that must hold at least
+	 * {@code min}: half as large again as the current one, or less if the array,
+	 * with {@code other} for the other dimension, would no longer fit in an
+	 * {@code int}.
+	 */
+	private static int grow(int current, int min, int other) {
+		long grown = current + (long) (current >> 1);
+		if (other > 0)
+			grown = Math.min(grown, Integer.MAX_VALUE / other);
+		return (int) Math.max(min, grown);
+	}
+
+	public void trimToSize() {
+		if (currentRowCapacity == rowsLength && leadingDimension == columnsLength)
+			return;
+		double[] newData = new double[rowsLength * columnsLength];
+		for (int i = 0; i < rowsLength; i++)
+			System.arraycopy(data, i * leadingDimension, newData, i * columnsLength, columnsLength);
+		data = newData;
+		currentRowCapacity = rowsLength;
+		leadingDimension = columnsLength;
+	}
+
+	public double[] getRow(int index) {
+		checkIndexForRow(index);
+		return getRowUnsafe(index);
+	}
+
+	private double[] getRowUnsafe(int index) {
+		int offset = index * leadingDimension;
+		return Arrays.copyOfRange(data, offset, offset + columnsLength);
+	}
+
+	public double[] getColumn(int index) {
+		checkIndexForColumn(index);
+		double[] column = new double[rowsLength];
+		for (int i = 0, k = index; i < rowsLength; i++, k += leadingDimension)
+			column[i] = data[k];
+		return column;
+	}
+
+	public double getNumber(int indexRow, int indexColumn) {
+		checkIndexForNumber(indexRow, indexColumn);
+		return data[indexRow * leadingDimension + indexColumn];
+	}
+
+	public double setNumber(int indexRow, int indexColumn, double newNumber) {
+		checkIndexForNumber(indexRow, indexColumn);
+		int k = indexRow * leadingDimension + indexColumn;
+		double removedNumber = data[k];
+		data[k] = newNumber;
+		return removedNumber;
+	}
+
+	public double[] setRow(int index, double[] newRow) {
+		checkIndexForRow(index);
+		checkRowCompability(newRow.length);
+		double[] removedRow = getRowUnsafe(index);
+		System.arraycopy(newRow, 0, data, index * leadingDimension, columnsLength);
+		return removedRow;
+	}
+
+	public double[] setColumn(int index, double[] newColumn) {
+		checkIndexForColumn(index);
+		checkColumnCompability(newColumn.length);
+		double[] removedColumn = new double[rowsLength];
+		for (int i = 0, k = index; i < rowsLength; i++, k += leadingDimension) {
+			removedColumn[i] = data[k];
+			data[k] = newColumn[i];
+		}
+		return removedColumn;
+	}
+
+	public double[] removeRow(int index) {
+		checkIndexForRow(index);
+		double[] removedRow = getRowUnsafe(index);
+		int ld = leadingDimension;
+		System.arraycopy(data, (index + 1) * ld, data, index * ld, (rowsLength - index - 1) * ld);
+		rowsLength--;
+		return removedRow;
+	}
+
+	public double[] removeColumn(int index) {
+		double[] removedColumn = getColumn(index);
+		for (int i = 0; i < rowsLength; i++) {
+			int offset = i * leadingDimension;
+			System.arraycopy(data, offset + index + 1, data, offset + index, columnsLength - index - 1);
+		}
+		columnsLength--;
+		return removedColumn;
+	}
+
+	public void swapRows(int indexRow1, int indexRow2) {
+		checkIndexForRow(indexRow1);
+		checkIndexForRow(indexRow2);
+		if (indexRow1 == indexRow2)
+			return;
+		int a = indexRow1 * leadingDimension, b = indexRow2 * leadingDimension;
+		for (int j = 0; j < columnsLength; j++) {
+			double temp = data[a + j];
+			data[a + j] = data[b + j];
+			data[b + j] = temp;
+		}
+	}
+
+	private void checkIndexForRow(int index) {
+		Utils.checkIndex(index, rowSize() - 1);
+	}
+
+	private void checkIndexForColumn(int index) {
+		Utils.checkIndex(index, columnSize() - 1);
+	}
+
+	private void checkIndexForNumber(int indexR, int indexC) {
+		checkIndexForRow(indexR);
+		checkIndexForColumn(indexC);
+	}
+
+	/*
+	 * ------------------------------------------------------------
+	 * --------------------- ALGEBRA METHODS ----------------------
+	 * ------------------------------------------------------------
+	 */
+
+	public void add(DenseRealMatrix m) {
+		Utils.checkMatricesSameDimension(this, m);
+		for (int i = 0; i < rowsLength; i++) {
+			int a = i * leadingDimension, b = i * m.leadingDimension;
+			for (int j = 0; j < columnsLength; j++)
+				data[a + j] += m.data[b + j];
+		}
+	}
+
+	public void subtract(DenseRealMatrix m) {
+		Utils.checkMatricesSameDimension(this, m);
+		for (int i = 0; i < rowsLength; i++) {
+			int a = i * leadingDimension, b = i * m.leadingDimension;
+			for (int j = 0; j < columnsLength; j++)
+				data[a + j] -= m.data[b + j];
+		}
+	}
+
+	public void scalarMultiply(double alpha) {
+		for (int i = 0; i < rowsLength; i++) {
+			int a = i * leadingDimension;
+			for (int j = 0; j < columnsLength; j++)
+				data[a + j] *= alpha;
+		}
+	}
+
+	/**
+	 * Multiplies this matrix by the given one, {@code this = this x m}.
+	 *
+	 * @param m right hand side of the product
+	 * @throws IllegalArgumentException if the number of columns of this matrix is
+	 *                                  not equal to the number of rows of {@code m}
+	 */
+	public void multiply(DenseRealMatrix m) {
+		Utils.checkMatricesCorrectDimensionForMultiplication(this, m);
+		int r1 = rowSize(), c2 = m.columnSize(), common = m.rowSize();
+		double[] c = new double[length(r1, c2)];
+		GemmKernel.multiply(data, leadingDimension, m.data, m.leadingDimension, c, c2, r1, c2, common);
+		data = c;
+		currentRowCapacity = r1;
+		leadingDimension = columnsLength = c2;
+	}
+
+	private static int TRANSPOSE_BLOCK = 32;
+
+	/**
+	 * Returns the transpose of this matrix. The copy is done by square tiles so
+	 * both the reads and the writes stay within a few cache lines.
+	 *
+	 * @return the transpose of this matrix
+	 */
+	public DenseRealMatrix transpose() {
+		int r = rowSize(), c = columnSize(), ld = leadingDimension;
+		double[] t = new double[c * r];
+		for (int ii = 0; ii < r; ii += TRANSPOSE_BLOCK) {
+			int iEnd = Math.min(ii + TRANSPOSE_BLOCK, r);
+			for (int jj = 0; jj < c; jj += TRANSPOSE_BLOCK) {
+				int jEnd = Math.min(jj + TRANSPOSE_BLOCK, c);
+				for (int i = ii; i < iEnd; i++) {
+					int offset = i * ld;
+					for (int j = jj; j < jEnd; j++)
+						t[j * r + i] = data[offset + j];
+				}
+			}
+		}
+		return new DenseRealMatrix(t, c, r);
+	}
+
+}
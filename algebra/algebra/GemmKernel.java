@@ -0,0 +1,455 @@
+package algebra;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Matrix product engine used by {@link RealMatrix}, {@link DenseRealMatrix} and
+ * {@link DenseFloatMatrix}.
+ * <p>
+ * Computes {@code C += A x B} following the usual blocked GEMM scheme: a
+ * {@code KC x NC} panel of {@code B} and a {@code MC x KC} block of {@code A}
+ * are copied ("packed") into contiguous buffers, in the exact order the
+ * micro-kernel reads them, so that the block of {@code A} stays in L2, a sliver
+ * of {@code B} stays in L1 and the micro-kernel only touches memory
+ * sequentially. The micro-kernel accumulates a {@code MR x NR} tile of
+ * {@code C} in local variables (registers) over the whole {@code KC} depth, so
+ * every number loaded is used {@code MR} or {@code NR} times.
+ * </p>
+ * <p>
+ * Products too small to pay back the packing are computed with a plain
+ * {@code i-k-j} loop.
+ * </p>
+ * <p>
+ * {@link #multiplyParallel} splits {@code C} into row and column blocks and
+ * computes them as fork-join tasks; each task packs its own buffers, and since
+ * the blocks of {@code C} are disjoint no synchronization is needed.
+ * </p>
+ */
+final class GemmKernel {
+
+	private GemmKernel() {
+	}
+
+	// micro-tile, 16 accumulators
+	static final int MR = 4;
+	static final int NR = 4;
+
+	// cache blocking: A block of MC x KC (L2), B panel of KC x NC (L3)
+	static final int MC = 64;
+	static final int KC = 256;
+	static final int NC = 512;
+
+	// below this number of multiply-adds packing costs more than it saves
+	private static final long SMALL_PRODUCT = 32L * 32 * 32;
+
+	// below this number of multiply-adds a product (or a block of it) is not split
+	// any further between threads
+	static final long PARALLEL_THRESHOLD = 128L * 128 * 128;
+
+	/**
+	 * Computes {@code c += a x b} for matrices stored as arrays of rows. Rows may
+	 * be longer than the logical number of columns.
+	 *
+	 * @param a rows of the {@code m x k} left operand
+	 * @param b rows of the {@code k x n} right operand
+	 * @param c rows of the {@code m x n} result, accumulated into
+	 * @param m rows of {@code a} and {@code c}
+	 * @param n columns of {@code b} and {@code c}
+	 * @param k columns of {@code a}, rows of {@code b}
+	 */
+	static void multiply(double[][] a, double[][] b, double[][] c, int m, int n, int k) {
+		multiply(a, b, c, 0, m, 0, n, k, null);
+	}
+
+	/**
+	 * Same as {@link #multiply(double[][], double[][], double[][], int, int, int)},
+	 * packing into the given buffers instead of allocating new ones.
+	 */
+	static void multiply(double[][] a, double[][] b, double[][] c, int m, int n, int k, Buffers buffers) {
+		multiply(a, b, c, 0, m, 0, n, k, buffers);
+	}
+
+	/**
+	 * Computes the block {@code [rowFrom, rowTo) x [colFrom, colTo)} of
+	 * {@code c += a x b}. Blocks that do not overlap can be computed concurrently,
+	 * each with its own buffers (null to allocate them).
+	 */
+	static void multiply(double[][] a, double[][] b, double[][] c, int rowFrom, int rowTo, int colFrom, int colTo,
+			int k, Buffers buffers) {
+		int m = rowTo - rowFrom, n = colTo - colFrom;
+		if ((long) m * n * k <= SMALL_PRODUCT) {
+			multiplyNaive(a, b, c, rowFrom, rowTo, colFrom, colTo, k);
+			return;
+		}
+		if (buffers == null)
+			buffers = new Buffers();
+		double[] packA = buffers.packA;
+		double[] packB = buffers.packB(n);
+		double[] tile = buffers.tile;
+		for (int jc = colFrom; jc < colTo; jc += NC) {
+			int nc = Math.min(NC, colTo - jc);
+			for (int pc = 0; pc < k; pc += KC) {
+				int kc = Math.min(KC, k - pc);
+				packB(b, pc, jc, kc, nc, packB);
+				for (int ic = rowFrom; ic < rowTo; ic += MC) {
+					int mc = Math.min(MC, rowTo - ic);
+					packA(a, ic, pc, mc, kc, packA);
+					for (int jr = 0; jr < nc; jr += NR) {
+						int nr = Math.min(NR, nc - jr);
+						for (int ir = 0; ir < mc; ir += MR) {
+							int mr = Math.min(MR, mc - ir);
+							microKernel(kc, packA, ir * kc, packB, jr * kc, tile);
+							for (int i = 0; i < mr; i++) {
+								double[] rowC = c[ic + ir + i];
+								int t = i * NR, col = jc + jr;
+								for (int j = 0; j < nr; j++)
+									rowC[col + j] += tile[t + j];
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Packing buffers, which can be kept to compute several products in a row
+	 * without allocating them every time. They can't be shared between threads.
+	 */
+	static final class Buffers {
+
+		final double[] packA = new double[MC * KC];
+		final double[] tile = new double[MR * NR];
+		private double[] packB = new double[0];
+
+		/**
+		 * Returns a buffer large enough for the panels of {@code b} of a product
+		 * with {@code n} columns.
+		 */
+		double[] packB(int n) {
+			int size = KC * roundUp(Math.min(n, NC), NR);
+			if (packB.length < size)
+				packB = new double[size];
+			return packB;
+		}
+
+	}
+
+	/**
+	 * Computes {@code c += a x b} like {@link #multiply(double[][], double[][],
+	 * double[][], int, int, int)}, but spreading blocks of {@code c} over the
+	 * threads of the given pool. Products below {@link #PARALLEL_THRESHOLD} are
+	 * computed by the calling thread.
+	 */
+	static void multiplyParallel(double[][] a, double[][] b, double[][] c, int m, int n, int k, ForkJoinPool pool) {
+		ProductTask task = new ProductTask(a, b, c, 0, m, 0, n, k);
+		if ((long) m * n * k <= PARALLEL_THRESHOLD || pool.getParallelism() == 1)
+			task.compute();
+		else
+			pool.invoke(task);
+	}
+
+	private static final class ProductTask extends RecursiveAction {
+
+		private static final long serialVersionUID = -8318297342506208373L;
+
+		private final double[][] a, b, c;
+		private final int rowFrom, rowTo, colFrom, colTo, k;
+
+		ProductTask(double[][] a, double[][] b, double[][] c, int rowFrom, int rowTo, int colFrom, int colTo, int k) {
+			this.a = a;
+			this.b = b;
+			this.c = c;
+			this.rowFrom = rowFrom;
+			this.rowTo = rowTo;
+			this.colFrom = colFrom;
+			this.colTo = colTo;
+			this.k = k;
+		}
+
+		@Override
+		protected void compute() {
+			int m = rowTo - rowFrom, n = colTo - colFrom;
+			if ((long) m * n * k <= PARALLEL_THRESHOLD || (m <= MC && n <= NC)) {
+				multiply(a, b, c, rowFrom, rowTo, colFrom, colTo, k, null);
+				return;
+			}
+			// split the longest side, keeping the cut on a block boundary
+			if (m >= n && m > MC) {
+				int mid = rowFrom + roundUp(m / 2, MC);
+				invokeAll(new ProductTask(a, b, c, rowFrom, mid, colFrom, colTo, k),
+						new ProductTask(a, b, c, mid, rowTo, colFrom, colTo, k));
+			} else {
+				int mid = colFrom + roundUp(n / 2, NR);
+				invokeAll(new ProductTask(a, b, c, rowFrom, rowTo, colFrom, mid, k),
+						new ProductTask(a, b, c, rowFrom, rowTo, mid, colTo, k));
+			}
+		}
+	}
+
+	/**
+	 * Computes {@code c += a x b} for matrices stored row after row in flat
+	 * arrays, with the given leading dimensions.
+	 */
+	static void multiply(double[] a, int lda, double[] b, int ldb, double[] c, int ldc, int m, int n, int k) {
+		if ((long) m * n * k <= SMALL_PRODUCT) {
+			multiplyNaive(a, lda, b, ldb, c, ldc, m, n, k);
+			return;
+		}
+		double[] packA = new double[MC * KC];
+		double[] packB = new double[KC * roundUp(Math.min(n, NC), NR)];
+		double[] tile = new double[MR * NR];
+		for (int jc = 0; jc < n; jc += NC) {
+			int nc = Math.min(NC, n - jc);
+			for (int pc = 0; pc < k; pc += KC) {
+				int kc = Math.min(KC, k - pc);
+				packB(b, ldb, pc, jc, kc, nc, packB);
+				for (int ic = 0; ic < m; ic += MC) {
+					int mc = Math.min(MC, m - ic);
+					packA(a, lda, ic, pc, mc, kc, packA);
+					for (int jr = 0; jr < nc; jr += NR) {
+						int nr = Math.min(NR, nc - jr);
+						for (int ir = 0; ir < mc; ir += MR) {
+							int mr = Math.min(MR, mc - ir);
+							microKernel(kc, packA, ir * kc, packB, jr * kc, tile);
+							for (int i = 0; i < mr; i++) {
+								int rowC = (ic + ir + i) * ldc + jc + jr, t = i * NR;
+								for (int j = 0; j < nr; j++)
+									c[rowC + j] += tile[t + j];
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes {@code c += a x b} for single precision matrices stored row after
+	 * row in flat arrays. The numbers are widened to {@code double} while packed,
+	 * so the same micro-kernel is used and every tile is accumulated in double
+	 * precision before being added to {@code c}.
+	 */
+	static void multiply(float[] a, int lda, float[] b, int ldb, float[] c, int ldc, int m, int n, int k) {
+		if ((long) m * n * k <= SMALL_PRODUCT) {
+			multiplyNaive(a, lda, b, ldb, c, ldc, m, n, k);
+			return;
+		}
+		double[] packA = new double[MC * KC];
+		double[] packB = new double[KC * roundUp(Math.min(n, NC), NR)];
+		double[] tile = new double[MR * NR];
+		for (int jc = 0; jc < n; jc += NC) {
+			int nc = Math.min(NC, n - jc);
+			for (int pc = 0; pc < k; pc += KC) {
+				int kc = Math.min(KC, k - pc);
+				packB(b, ldb, pc, jc, kc, nc, packB);
+				for (int ic = 0; ic < m; ic += MC) {
+					int mc = Math.min(MC, m - ic);
+					packA(a, lda, ic, pc, mc, kc, packA);
+					for (int jr = 0; jr < nc; jr += NR) {
+						int nr = Math.min(NR, nc - jr);
+						for (int ir = 0; ir < mc; ir += MR) {
+							int mr = Math.min(MR, mc - ir);
+							microKernel(kc, packA, ir * kc, packB, jr * kc, tile);
+							for (int i = 0; i < mr; i++) {
+								int rowC = (ic + ir + i) * ldc + jc + jr, t = i * NR;
+								for (int j = 0; j < nr; j++)
+									c[rowC + j] += tile[t + j];
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private static void multiplyNaive(double[][] a, double[][] b, double[][] c, int rowFrom, int rowTo, int colFrom,
+			int colTo, int k) {
+		for (int i = rowFrom; i < rowTo; i++) {
+			double[] rowA = a[i], rowC = c[i];
+			for (int p = 0; p < k; p++) {
+				double aip = rowA[p];
+				if (aip == 0)
+					continue;
+				double[] rowB = b[p];
+				for (int j = colFrom; j < colTo; j++)
+					rowC[j] += aip * rowB[j];
+			}
+		}
+	}
+
+	private static void multiplyNaive(double[] a, int lda, double[] b, int ldb, double[] c, int ldc, int m, int n,
+			int k) {
+		for (int i = 0; i < m; i++) {
+			int rowA = i * lda, rowC = i * ldc;
+			for (int p = 0; p < k; p++) {
+				double aip = a[rowA + p];
+				if (aip == 0)
+					continue;
+				int rowB = p * ldb;
+				for (int j = 0; j < n; j++)
+					c[rowC + j] += aip * b[rowB + j];
+			}
+		}
+	}
+
+	/**
+	 * Like the blocked product, every row of {@code a x b} is accumulated in double
+	 * precision before being added to {@code c}, so the precision of the result
+	 * does not depend on the size of the product.
+	 */
+	private static void multiplyNaive(float[] a, int lda, float[] b, int ldb, float[] c, int ldc, int m, int n,
+			int k) {
+		double[] row = new double[n];
+		for (int i = 0; i < m; i++) {
+			int rowA = i * lda, rowC = i * ldc;
+			Arrays.fill(row, 0);
+			for (int p = 0; p < k; p++) {
+				double aip = a[rowA + p];
+				if (aip == 0)
+					continue;
+				int rowB = p * ldb;
+				for (int j = 0; j < n; j++)
+					row[j] += aip * b[rowB + j];
+			}
+			for (int j = 0; j < n; j++)
+				c[rowC + j] += row[j];
+		}
+	}
+
+	/**
+	 * Copies {@code a[ic..ic+mc)[pc..pc+kc)} into {@code MR}-row slivers: for each
+	 * sliver, column after column, {@code MR} numbers per column. Missing rows of
+	 * the last sliver are filled with zeros.
+	 */
+	static void packA(double[][] a, int ic, int pc, int mc, int kc, double[] packA) {
+		int dst = 0;
+		for (int ir = 0; ir < mc; ir += MR) {
+			int mr = Math.min(MR, mc - ir);
+			for (int i = 0; i < MR; i++) {
+				if (i < mr) {
+					double[] row = a[ic + ir + i];
+					for (int p = 0, d = dst + i; p < kc; p++, d += MR)
+						packA[d] = row[pc + p];
+				} else {
+					for (int p = 0, d = dst + i; p < kc; p++, d += MR)
+						packA[d] = 0;
+				}
+			}
+			dst += MR * kc;
+		}
+	}
+
+	private static void packA(double[] a, int lda, int ic, int pc, int mc, int kc, double[] packA) {
+		int dst = 0;
+		for (int ir = 0; ir < mc; ir += MR) {
+			int mr = Math.min(MR, mc - ir);
+			for (int i = 0; i < MR; i++) {
+				if (i < mr) {
+					int row = (ic + ir + i) * lda + pc;
+					for (int p = 0, d = dst + i; p < kc; p++, d += MR)
+						packA[d] = a[row + p];
+				} else {
+					for (int p = 0, d = dst + i; p < kc; p++, d += MR)
+						packA[d] = 0;
+				}
+			}
+			dst += MR * kc;
+		}
+	}
+
+	private static void packA(float[] a, int lda, int ic, int pc, int mc, int kc, double[] packA) {
+		int dst = 0;
+		for (int ir = 0; ir < mc; ir += MR) {
+			int mr = Math.min(MR, mc - ir);
+			for (int i = 0; i < MR; i++) {
+				if (i < mr) {
+					int row = (ic + ir + i) * lda + pc;
+					for (int p = 0, d = dst + i; p < kc; p++, d += MR)
+						packA[d] = a[row + p];
+				} else {
+					for (int p = 0, d = dst + i; p < kc; p++, d += MR)
+						packA[d] = 0;
+				}
+			}
+			dst += MR * kc;
+		}
+	}
+
+	/**
+	 * Copies {@code b[pc..pc+kc)[jc..jc+nc)} into {@code NR}-column slivers: for
+	 * each sliver, row after row, {@code NR} numbers per row. Missing columns of
+	 * the last sliver are filled with zeros.
+	 */
+	static void packB(double[][] b, int pc, int jc, int kc, int nc, double[] packB) {
+		for (int p = 0; p < kc; p++) {
+			double[] row = b[pc + p];
+			int d = p * NR;
+			for (int jr = 0; jr < nc; jr += NR, d += NR * kc) {
+				int nr = Math.min(NR, nc - jr);
+				for (int j = 0; j < nr; j++)
+					packB[d + j] = row[jc + jr + j];
+				for (int j = nr; j < NR; j++)
+					packB[d + j] = 0;
+			}
+		}
+	}
+
+	private static void packB(double[] b, int ldb, int pc, int jc, int kc, int nc, double[] packB) {
+		for (int p = 0; p < kc; p++) {
+			int row = (pc + p) * ldb + jc;
+			int d = p * NR;
+			for (int jr = 0; jr < nc; jr += NR, d += NR * kc) {
+				int nr = Math.min(NR, nc - jr);
+				for (int j = 0; j < nr; j++)
+					packB[d + j] = b[row + jr + j];
+				for (int j = nr; j < NR; j++)
+					packB[d + j] = 0;
+			}
+		}
+	}
+
+	private static void packB(float[] b, int ldb, int pc, int jc, int kc, int nc, double[] packB) {
+		for (int p = 0; p < kc; p++) {
+			int row = (pc + p) * ldb + jc;
+			int d = p * NR;
+			for (int jr = 0; jr < nc; jr += NR, d += NR * kc) {
+				int nr = Math.min(NR, nc - jr);
+				for (int j = 0; j < nr; j++)
+					packB[d + j] = b[row + jr + j];
+				for (int j = nr; j < NR; j++)
+					packB[d + j] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Computes the {@code MR x NR} tile {@code sliverA x sliverB} of depth
+	 * {@code kc} and writes it, row after row, into {@code tile}.
+	 */
+	static void microKernel(int kc, double[] packA, int a, double[] packB, int b, double[] tile) {
+		double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+		double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+		double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+		double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+		for (int p = 0; p < kc; p++, a += MR, b += NR) {
+			double a0 = packA[a], a1 = packA[a + 1], a2 = packA[a + 2], a3 = packA[a + 3];
+			double b0 = packB[b], b1 = packB[b + 1], b2 = packB[b + 2], b3 = packB[b + 3];
+			c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+			c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+			c20 += a2 * b0; c21 += a2 * b1; c22 += a2 * b2; c23 += a2 * b3;
+			c30 += a3 * b0; c31 += a3 * b1; c32 += a3 * b2; c33 += a3 * b3;
+		}
+		tile[0] = c00; tile[1] = c01; tile[2] = c02; tile[3] = c03;
+		tile[4] = c10; tile[5] = c11; tile[6] = c12; tile[7] = c13;
+		tile[8] = c20; tile[9] = c21; tile[10] = c22; tile[11] = c23;
+		tile[12] = c30; tile[13] = c31; tile[14] = c32; tile[15] = c33;
+	}
+
+	static int roundUp(int n, int multiple) {
+		return (n + multiple - 1) / multiple * multiple;
+	}
+
+}
@@ -0,0 +1,167 @@
+package algebra;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Matrix-vector product engine used by {@link RealMatrix}: computes
+ * {@code y = alpha * A * x + beta * y} and {@code y = alpha * A^T * x + beta * y}
+ * for matrices stored as arrays of rows.
+ * <p>
+ * {@code A * x} reduces every row against {@code x} with
+ * {@link ArrayKernels#dot}, reading the matrix once, in order. {@code A^T * x}
+ * adds every row scaled by the matching number of {@code x} into {@code y}; to
+ * keep the part of {@code y} being updated in L1, the columns are processed in
+ * blocks of {@link #NB}, each one going over all the rows.
+ * </p>
+ * <p>
+ * The parallel forms split the rows of {@code A * x}, or the columns of
+ * {@code A^T * x}, so every task writes its own slice of {@code y} and no
+ * synchronization is needed.
+ * </p>
+ */
+final class GemvKernel {
+
+	private GemvKernel() {
+	}
+
+	// columns of a block of the transposed product, 8 KB of y
+	static final int NB = 1024;
+
+	// below this number of multiply-adds a product (or a block of it) is not split
+	// any further between threads
+	static final long PARALLEL_THRESHOLD = 1L << 16;
+
+	/**
+	 * Computes {@code y = alpha * a * x + beta * y}, rounded by the given policy.
+	 * When {@code beta} is zero {@code y} is only written.
+	 *
+	 * @param a    rows of the {@code m x n} matrix
+	 * @param pool pool where the blocks are computed, or null to compute them in
+	 *             the calling thread
+	 */
+	static void multiply(double[][] a, int m, int n, double alpha, double[] x, double beta, double[] y,
+			RoundingPolicy policy, ForkJoinPool pool) {
+		if (policy == RoundingPolicy.SNAP_PER_OP) {
+			// every partial product is snapped, so the kernels can't be used
+			for (int i = 0; i < m; i++) {
+				double[] row = a[i];
+				double sum = 0;
+				for (int j = 0; j < n; j++)
+					sum += policy.term(row[j], x[j]);
+				y[i] = combine(alpha, sum, beta, y[i]);
+			}
+		} else if (pool == null || (long) m * n <= PARALLEL_THRESHOLD || pool.getParallelism() == 1)
+			multiplyRows(a, n, alpha, x, beta, y, 0, m);
+		else
+			pool.invoke(new Task(false, a, m, n, alpha, x, beta, y, 0, m));
+		policy.round(y, 0, m);
+	}
+
+	/**
+	 * Computes {@code y = alpha * a^T * x + beta * y}, rounded by the given
+	 * policy. When {@code beta} is zero {@code y} is only written.
+	 *
+	 * @param a    rows of the {@code m x n} matrix
+	 * @param pool pool where the blocks are computed, or null to compute them in
+	 *             the calling thread
+	 */
+	static void multiplyTransposed(double[][] a, int m, int n, double alpha, double[] x, double beta, double[] y,
+			RoundingPolicy policy, ForkJoinPool pool) {
+		if (policy == RoundingPolicy.SNAP_PER_OP) {
+			double[] sums = new double[n];
+			for (int i = 0; i < m; i++) {
+				double[] row = a[i];
+				for (int j = 0; j < n; j++)
+					sums[j] += policy.term(row[j], x[i]);
+			}
+			for (int j = 0; j < n; j++)
+				y[j] = combine(alpha, sums[j], beta, y[j]);
+		} else if (pool == null || (long) m * n <= PARALLEL_THRESHOLD || pool.getParallelism() == 1)
+			multiplyColumns(a, m, alpha, x, beta, y, 0, n);
+		else
+			pool.invoke(new Task(true, a, m, n, alpha, x, beta, y, 0, n));
+		policy.round(y, 0, n);
+	}
+
+	private static double combine(double alpha, double ax, double beta, double y) {
+		return beta == 0 ? alpha * ax : alpha * ax + beta * y;
+	}
+
+	/**
+	 * Computes the rows {@code [from, to)} of {@code alpha * a * x + beta * y}.
+	 */
+	private static void multiplyRows(double[][] a, int n, double alpha, double[] x, double beta, double[] y,
+			int from, int to) {
+		for (int i = from; i < to; i++)
+			y[i] = combine(alpha, ArrayKernels.dot(a[i], x, 0, n), beta, y[i]);
+	}
+
+	/**
+	 * Computes the columns {@code [from, to)} of
+	 * {@code alpha * a^T * x + beta * y}.
+	 */
+	private static void multiplyColumns(double[][] a, int m, double alpha, double[] x, double beta, double[] y,
+			int from, int to) {
+		if (beta == 0)
+			Arrays.fill(y, from, to, 0);
+		else if (beta != 1)
+			ArrayKernels.scale(beta, y, y, from, to);
+		for (int jb = from; jb < to; jb += NB) {
+			int end = Math.min(jb + NB, to);
+			for (int i = 0; i < m; i++) {
+				double xi = alpha * x[i];
+				if (xi != 0)
+					ArrayKernels.axpy(xi, a[i], y, jb, end);
+			}
+		}
+	}
+
+	private static final class Task extends RecursiveAction {
+
+		private static final long serialVersionUID = 3904785214357071924L;
+
+		private final boolean transposed;
+		private final double[][] a;
+		private final int m, n;
+		private final double alpha, beta;
+		private final double[] x, y;
+		private final int from, to;
+
+		/**
+		 * Task computing the numbers {@code [from, to)} of {@code y}: rows of
+		 * {@code a}, or columns if it is transposed.
+		 */
+		Task(boolean transposed, double[][] a, int m, int n, double alpha, double[] x, double beta, double[] y,
+				int from, int to) {
+			this.transposed = transposed;
+			this.a = a;
+			this.m = m;
+			this.n = n;
+			this.alpha = alpha;
+			this.x = x;
+			this.beta = beta;
+			this.y = y;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			int size = to - from;
+			if ((long) size * (transposed ? m : n) <= PARALLEL_THRESHOLD || size <= (transposed ? NB : 1)) {
+				if (transposed)
+					multiplyColumns(a, m, alpha, x, beta, y, from, to);
+				else
+					multiplyRows(a, n, alpha, x, beta, y, from, to);
+				return;
+			}
+			// columns are cut on a block boundary
+			int mid = from + (transposed ? GemmKernel.roundUp(size / 2, NB) : size / 2);
+			invokeAll(new Task(transposed, a, m, n, alpha, x, beta, y, from, mid),
+					new Task(transposed, a, m, n, alpha, x, beta, y, mid, to));
+		}
+	}
+
+}
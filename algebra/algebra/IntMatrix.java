@@ -0,0 +1,487 @@
+package algebra;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import exceptions.NonSquareMatrixException;
+import matrices.Index2d;
+
+/**
+ * Matrix of {@code int}s stored in a single contiguous {@code int[]}, row after
+ * row, with a fixed number of rows and columns.
+ * <p>
+ * Its arithmetic is exact, unlike that of {@link RealMatrix}, whose numbers are
+ * doubles. The plain operations ({@link #add(IntMatrix)},
+ * {@link #multiply(IntMatrix)}...) wrap around on overflow as the {@code int}
+ * operators do; the {@code Exact} ones throw an {@link ArithmeticException}
+ * instead and leave the matrix untouched.
+ * </p>
+ * <p>
+ * The determinant is computed by fraction-free (Bareiss) elimination, which
+ * only divides exactly, so it is exact too.
+ * </p>
+ */
+public class IntMatrix implements matrices.IterableMatrix, matrices.RegularMatrix, Cloneable, java.io.Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 2309711528245113967L;
+
+	private int[] data;
+
+	private int rowsLength;
+	private int columnsLength;
+
+	public IntMatrix(int n) {
+		this(n, n);
+	}
+
+	public IntMatrix(int m, int n) {
+		// like the other matrices built from arrays, these can't be empty
+		if (m <= 0 || n <= 0)
+			throw new IllegalArgumentException("Illegal matrix dimension " + m + "x" + n);
+		data = new int[Math.multiplyExact(m, n)];
+		rowsLength = m;
+		columnsLength = n;
+	}
+
+	public IntMatrix(int[][] data) {
+		int r = data.length;
+		if (r == 0)
+			throw new IllegalArgumentException("Empty matrix");
+		int c = data[0].length;
+		if (c == 0)
+			throw new IllegalArgumentException("Empty row");
+		this.data = new int[Math.multiplyExact(r, c)];
+		for (int i = 0; i < r; i++) {
+			if (data[i].length != c)
+				throw new IllegalArgumentException("The 2d-array is not regular");
+			System.arraycopy(data[i], 0, this.data, i * c, c);
+		}
+		rowsLength = r;
+		columnsLength = c;
+	}
+
+	/**
+	 * Wraps the given array without copying it. The array must hold {@code r * c}
+	 * numbers laid out row after row.
+	 */
+	IntMatrix(int[] data, int r, int c) {
+		this.data = data;
+		rowsLength = r;
+		columnsLength = c;
+	}
+
+	public static IntMatrix random(int s) {
+		return random(s, s);
+	}
+
+	public static IntMatrix random(int r, int c) {
+		return random(r, c, -10, 10);
+	}
+
+	public static IntMatrix random(int r, int c, int min, int max) {
+		if (r <= 0 || c <= 0)
+			throw new IllegalArgumentException("Illegal matrix dimension " + r + "x" + c);
+		return new IntMatrix(NumericArrays.randomIntArray(Math.multiplyExact(r, c), min, max), r, c);
+	}
+
+	/**
+	 * Returns a {@link RealMatrix} holding the same numbers as this matrix.
+	 *
+	 * @return a new {@link RealMatrix} equal to this matrix
+	 */
+	public RealMatrix toRealMatrix() {
+		int r = rowSize(), c = columnSize();
+		double[][] mat = new double[r][c];
+		for (int i = 0; i < r; i++) {
+			double[] row = mat[i];
+			for (int j = 0, k = i * c; j < c; j++, k++)
+				row[j] = data[k];
+		}
+		return new RealMatrix(mat, false, false);
+	}
+
+	/**
+	 * Returns a {@link LongMatrix} holding the same numbers as this matrix.
+	 *
+	 * @return a new {@link LongMatrix} equal to this matrix
+	 */
+	public LongMatrix toLongMatrix() {
+		return new LongMatrix(widen(data), rowsLength, columnsLength);
+	}
+
+	private static long[] widen(int[] arr) {
+		long[] res = new long[arr.length];
+		for (int i = 0; i < arr.length; i++)
+			res[i] = arr[i];
+		return res;
+	}
+
+	public int[][] data() {
+		int r = rowSize();
+		int[][] mat = new int[r][];
+		for (int i = 0; i < r; i++)
+			mat[i] = getRowUnsafe(i);
+		return mat;
+	}
+
+	public int rowSize() {
+		return rowsLength;
+	}
+
+	public int columnSize() {
+		return columnsLength;
+	}
+
+	public int totalSize() {
+		return rowSize() * columnSize();
+	}
+
+	public boolean isSquare() {
+		// 0x0 matrices won't be considerated square
+		return !isEmpty() && rowSize() == columnSize();
+	}
+
+	@Override
+	public Object clone() {
+		try {
+			IntMatrix m = (IntMatrix) super.clone();
+			m.data = data.clone();
+			return m;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof IntMatrix)) {
+			return false;
+		}
+		IntMatrix m = (IntMatrix) o;
+		return rowsLength == m.rowsLength && columnsLength == m.columnsLength && Arrays.equals(data, m.data);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * rowsLength + columnsLength) + Arrays.hashCode(data);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int i = 0; i < rowSize(); i++) {
+			sb.append(Arrays.toString(getRowUnsafe(i)));
+			if (i != rowSize() - 1) {
+				sb.append(", ");
+			}
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+
+	public void print() {
+		if (isEmpty()) {
+			System.out.println("[]");
+			return;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < rowSize(); i++) {
+			sb.append(Arrays.toString(getRowUnsafe(i))).append('\n');
+		}
+		System.out.println(sb.deleteCharAt(sb.length() - 1).toString());
+	}
+
+	public IntMatrix subMatrix(int indexRow, int indexColumn) {
+		if (isEmpty() || rowSize() == 1 || columnSize() == 1) {
+			throw new IllegalArgumentException();
+		}
+		checkIndexForNumber(indexRow, indexColumn);
+
+		int r = rowsLength - 1, c = columnsLength - 1;
+		int[] mat = new int[r * c];
+		int a = 0;
+		for (int i = 0; i < rowsLength; i++) {
+			if (i == indexRow)
+				continue;
+			int offset = i * columnsLength;
+			System.arraycopy(data, offset, mat, a, indexColumn);
+			System.arraycopy(data, offset + indexColumn + 1, mat, a + indexColumn, c - indexColumn);
+			a += c;
+		}
+		return new IntMatrix(mat, r, c);
+	}
+
+	public Index2d indexOf(int number) {
+		for (int k = 0; k < data.length; k++) {
+			if (data[k] == number)
+				return new Index2d(k / columnsLength, k % columnsLength);
+		}
+		return null;
+	}
+
+	public Index2d lastIndexOf(int number) {
+		for (int k = data.length - 1; k >= 0; k--) {
+			if (data[k] == number)
+				return new Index2d(k / columnsLength, k % columnsLength);
+		}
+		return null;
+	}
+
+	public int[] getRow(int index) {
+		checkIndexForRow(index);
+		return getRowUnsafe(index);
+	}
+
+	private int[] getRowUnsafe(int index) {
+		int offset = index * columnsLength;
+		return Arrays.copyOfRange(data, offset, offset + columnsLength);
+	}
+
+	public int[] getColumn(int index) {
+		checkIndexForColumn(index);
+		int[] column = new int[rowsLength];
+		for (int i = 0, k = index; i < rowsLength; i++, k += columnsLength)
+			column[i] = data[k];
+		return column;
+	}
+
+	public int getNumber(int indexRow, int indexColumn) {
+		checkIndexForNumber(indexRow, indexColumn);
+		return data[indexRow * columnsLength + indexColumn];
+	}
+
+	public int setNumber(int indexRow, int indexColumn, int newNumber) {
+		checkIndexForNumber(indexRow, indexColumn);
+		int k = indexRow * columnsLength + indexColumn;
+		int removedNumber = data[k];
+		data[k] = newNumber;
+		return removedNumber;
+	}
+
+	public int[] setRow(int index, int[] newRow) {
+		checkIndexForRow(index);
+		if (newRow.length != columnsLength)
+			throw new IllegalArgumentException();
+		int[] removedRow = getRowUnsafe(index);
+		System.arraycopy(newRow, 0, data, index * columnsLength, columnsLength);
+		return removedRow;
+	}
+
+	public int[] setColumn(int index, int[] newColumn) {
+		checkIndexForColumn(index);
+		if (newColumn.length != rowsLength)
+			throw new IllegalArgumentException();
+		int[] removedColumn = new int[rowsLength];
+		for (int i = 0, k = index; i < rowsLength; i++, k += columnsLength) {
+			removedColumn[i] = data[k];
+			data[k] = newColumn[i];
+		}
+		return removedColumn;
+	}
+
+	public void swapRows(int indexRow1, int indexRow2) {
+		checkIndexForRow(indexRow1);
+		checkIndexForRow(indexRow2);
+		if (indexRow1 == indexRow2)
+			return;
+		int a = indexRow1 * columnsLength, b = indexRow2 * columnsLength;
+		for (int j = 0; j < columnsLength; j++) {
+			int temp = data[a + j];
+			data[a + j] = data[b + j];
+			data[b + j] = temp;
+		}
+	}
+
+	private void checkIndexForRow(int index) {
+		Utils.checkIndex(index, rowSize() - 1);
+	}
+
+	private void checkIndexForColumn(int index) {
+		Utils.checkIndex(index, columnSize() - 1);
+	}
+
+	private void checkIndexForNumber(int indexR, int indexC) {
+		checkIndexForRow(indexR);
+		checkIndexForColumn(indexC);
+	}
+
+	/*
+	 * ------------------------------------------------------------
+	 * --------------------- ALGEBRA METHODS ----------------------
+	 * ------------------------------------------------------------
+	 */
+
+	/**
+	 * Adds the given matrix to this one, wrapping around on overflow.
+	 */
+	public void add(IntMatrix m) {
+		Utils.checkMatricesSameDimension(this, m);
+		ArrayKernels.add(data, m.data, data, 0, data.length);
+	}
+
+	/**
+	 * Subtracts the given matrix from this one, wrapping around on overflow.
+	 */
+	public void subtract(IntMatrix m) {
+		Utils.checkMatricesSameDimension(this, m);
+		ArrayKernels.subtract(data, m.data, data, 0, data.length);
+	}
+
+	/**
+	 * Multiplies every number of this matrix by {@code alpha}, wrapping around on
+	 * overflow.
+	 */
+	public void scalarMultiply(int alpha) {
+		ArrayKernels.scale(alpha, data, data, 0, data.length);
+	}
+
+	/**
+	 * Adds the given matrix to this one.
+	 *
+	 * @param m the matrix to add
+	 * @throws ArithmeticException if any of the sums overflows an {@code int}, in
+	 *                             which case this matrix is left untouched
+	 */
+	public void addExact(IntMatrix m) {
+		Utils.checkMatricesSameDimension(this, m);
+		int[] res = new int[data.length];
+		for (int k = 0; k < res.length; k++)
+			res[k] = Math.addExact(data[k], m.data[k]);
+		data = res;
+	}
+
+	/**
+	 * Subtracts the given matrix from this one.
+	 *
+	 * @param m the matrix to subtract
+	 * @throws ArithmeticException if any of the differences overflows an
+	 *                             {@code int}, in which case this matrix is left
+	 *                             untouched
+	 */
+	public void subtractExact(IntMatrix m) {
+		Utils.checkMatricesSameDimension(this, m);
+		int[] res = new int[data.length];
+		for (int k = 0; k < res.length; k++)
+			res[k] = Math.subtractExact(data[k], m.data[k]);
+		data = res;
+	}
+
+	/**
+	 * Multiplies this matrix by the given one, {@code this = this x m}, wrapping
+	 * around on overflow.
+	 *
+	 * @param m right hand side of the product
+	 * @throws IllegalArgumentException if the number of columns of this matrix is
+	 *                                  not equal to the number of rows of {@code m}
+	 */
+	public void multiply(IntMatrix m) {
+		Utils.checkMatricesCorrectDimensionForMultiplication(this, m);
+		int r = rowsLength, c = m.columnsLength, common = columnsLength;
+		int[] res = new int[Math.multiplyExact(r, c)];
+		for (int i = 0; i < r; i++) {
+			int rowA = i * common, rowC = i * c;
+			for (int p = 0; p < common; p++) {
+				int aip = data[rowA + p];
+				if (aip == 0)
+					continue;
+				int rowB = p * c;
+				for (int j = 0; j < c; j++)
+					res[rowC + j] += aip * m.data[rowB + j];
+			}
+		}
+		data = res;
+		columnsLength = c;
+	}
+
+	/**
+	 * Multiplies this matrix by the given one, {@code this = this x m}.
+	 * <p>
+	 * The products are accumulated in {@code long}s, which cannot overflow unless
+	 * the numbers are huge: only then is every partial sum checked.
+	 * </p>
+	 *
+	 * @param m right hand side of the product
+	 * @throws IllegalArgumentException if the number of columns of this matrix is
+	 *                                  not equal to the number of rows of {@code m}
+	 * @throws ArithmeticException      if a number of the product does not fit in
+	 *                                  an {@code int}, in which case this matrix is
+	 *                                  left untouched
+	 */
+	public void multiplyExact(IntMatrix m) {
+		Utils.checkMatricesCorrectDimensionForMultiplication(this, m);
+		int r = rowsLength, c = m.columnsLength, common = columnsLength;
+		boolean safe = maxAbs(data) * maxAbs(m.data) * common <= 0x1p62;
+		int[] res = new int[Math.multiplyExact(r, c)];
+		long[] acc = new long[c];
+		for (int i = 0; i < r; i++) {
+			int rowA = i * common;
+			Arrays.fill(acc, 0);
+			for (int p = 0; p < common; p++) {
+				long aip = data[rowA + p];
+				if (aip == 0)
+					continue;
+				int rowB = p * c;
+				if (safe)
+					for (int j = 0; j < c; j++)
+						acc[j] += aip * m.data[rowB + j];
+				else
+					for (int j = 0; j < c; j++)
+						acc[j] = Math.addExact(acc[j], aip * m.data[rowB + j]);
+			}
+			for (int j = 0, k = i * c; j < c; j++, k++)
+				res[k] = Math.toIntExact(acc[j]);
+		}
+		data = res;
+		columnsLength = c;
+	}
+
+	private static double maxAbs(int[] arr) {
+		long max = 0;
+		for (int n : arr)
+			max = Math.max(max, Math.abs((long) n));
+		return max;
+	}
+
+	/**
+	 * Returns the transpose of this matrix.
+	 *
+	 * @return the transpose of this matrix
+	 */
+	public IntMatrix transpose() {
+		int r = rowSize(), c = columnSize();
+		int[] t = new int[c * r];
+		for (int i = 0; i < r; i++) {
+			int offset = i * c;
+			for (int j = 0; j < c; j++)
+				t[j * r + i] = data[offset + j];
+		}
+		return new IntMatrix(t, c, r);
+	}
+
+	/**
+	 * Returns the determinant of this matrix, computed exactly by fraction-free
+	 * elimination (see {@link LongMatrix#determinant()}).
+	 *
+	 * @return the determinant of this matrix
+	 * @throws NonSquareMatrixException if this matrix is not square
+	 * @throws ArithmeticException      if the determinant does not fit in a
+	 *                                  {@code long}
+	 */
+	public long determinant() {
+		return toLongMatrix().determinant();
+	}
+
+	/**
+	 * Returns the determinant of this matrix, whatever its size.
+	 *
+	 * @return the determinant of this matrix
+	 * @throws NonSquareMatrixException if this matrix is not square
+	 */
+	public BigInteger bigDeterminant() {
+		return toLongMatrix().bigDeterminant();
+	}
+
+}
@@ -0,0 +1,396 @@
+package algebra;
+
+import java.util.Arrays;
+import exceptions.IncompatibleLengthsException;
+import exceptions.MatrixDimensionException;
+import exceptions.NonInvertibleMatrixException;
+import exceptions.NonSquareMatrixException;
+
+/**
+ * LU decomposition with partial pivoting of a square matrix.
+ * <p>
+ * For a square matrix {@code A} it computes a permutation {@code P}, a unit lower
+ * triangular matrix {@code L} and an upper triangular matrix {@code U} such that
+ * {@code P x A = L x U}. {@code L} (without its unit diagonal) and {@code U} are
+ * stored packed in a single copy of the matrix, and {@code P} as the vector of
+ * original row indices.
+ * </p>
+ * <p>
+ * The factorization costs {@code O(n^3)} and is done once, when the object is
+ * created. After that, the determinant costs {@code O(n)}, every solve against a
+ * right hand side {@code O(n^2)} and the inverse {@code O(n^3)} without
+ * eliminating again. The given matrix is never modified.
+ * </p>
+ */
+public final class LUDecomposition {
+
+	// right hand sides are substituted by blocks of this many columns, so the
+	// slice of the solution being updated stays in cache
+	private static final int RHS_BLOCK = 128;
+
+	private final double[][] lu;
+	private final int[] pivot;
+	private final int pivotSign;
+	private final int size;
+	private final boolean singular;
+
+	/**
+	 * Computes the LU decomposition of the given matrix.
+	 *
+	 * @param mat the matrix to decompose
+	 * @throws NonSquareMatrixException if the given matrix is not square
+	 */
+	public LUDecomposition(RealMatrix mat) {
+		if (!mat.isSquare())
+			throw new NonSquareMatrixException(mat.rowSize(), mat.columnSize());
+		int n = size = mat.rowSize();
+		lu = new double[n][];
+		pivot = new int[n];
+		double scale = 0;
+		for (int i = 0; i < n; i++) {
+			double[] row = lu[i] = Arrays.copyOf(mat.rowReference(i), n);
+			pivot[i] = i;
+			for (int j = 0; j < n; j++)
+				scale = Math.max(scale, Math.abs(row[j]));
+		}
+		// pivots this small compared to the matrix are considered zero
+		double tolerance = scale * Utils.UMBRAL_ZERO;
+		int sign = 1;
+		boolean isSingular = scale == 0;
+
+		for (int k = 0; k < n; k++) {
+			// single pass to find the largest candidate of the column
+			int p = k;
+			double max = Math.abs(lu[k][k]);
+			for (int i = k + 1; i < n; i++) {
+				double v = Math.abs(lu[i][k]);
+				if (v > max) {
+					max = v;
+					p = i;
+				}
+			}
+			if (p != k) {
+				double[] tempRow = lu[p];
+				lu[p] = lu[k];
+				lu[k] = tempRow;
+				int tempIndex = pivot[p];
+				pivot[p] = pivot[k];
+				pivot[k] = tempIndex;
+				sign = -sign;
+			}
+			double[] rowK = lu[k];
+			if (max <= tolerance) {
+				isSingular = true;
+				rowK[k] = 0;
+				for (int i = k + 1; i < n; i++)
+					lu[i][k] = 0;
+				continue;
+			}
+			double pivotValue = rowK[k];
+			for (int i = k + 1; i < n; i++) {
+				double[] rowI = lu[i];
+				double l = rowI[k] / pivotValue;
+				rowI[k] = l;
+				if (l == 0)
+					continue;
+				NumericArrays.axpy(-l, rowK, rowI, k + 1, n);
+			}
+		}
+		pivotSign = sign;
+		singular = isSingular;
+	}
+
+	/**
+	 * Returns the number of rows (and columns) of the decomposed matrix.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns {@code true} if the decomposed matrix is singular, that is, if one of
+	 * the pivots found during the elimination was zero (or negligible compared to
+	 * the largest number of the matrix).
+	 */
+	public boolean isSingular() {
+		return singular;
+	}
+
+	/**
+	 * Returns the determinant of the decomposed matrix, the product of the
+	 * diagonal of {@code U} with the sign of the permutation.
+	 *
+	 * @return the determinant of the decomposed matrix
+	 */
+	public double determinant() {
+		if (singular)
+			return 0;
+		double det = pivotSign;
+		for (int i = 0; i < size; i++)
+			det *= lu[i][i];
+		return det;
+	}
+
+	/**
+	 * Returns the unit lower triangular factor {@code L}.
+	 */
+	public RealMatrix getL() {
+		double[][] l = new double[size][size];
+		for (int i = 0; i < size; i++) {
+			System.arraycopy(lu[i], 0, l[i], 0, i);
+			l[i][i] = 1;
+		}
+		return new RealMatrix(l, false, false);
+	}
+
+	/**
+	 * Returns the upper triangular factor {@code U}.
+	 */
+	public RealMatrix getU() {
+		double[][] u = new double[size][size];
+		for (int i = 0; i < size; i++)
+			System.arraycopy(lu[i], i, u[i], i, size - i);
+		return new RealMatrix(u, false, false);
+	}
+
+	/**
+	 * Returns the row permutation: the {@code i}-th row of {@code P x A} is the
+	 * row {@code getPivot()[i]} of {@code A}.
+	 */
+	public int[] getPivot() {
+		return pivot.clone();
+	}
+
+	/**
+	 * Solves {@code A x = b}, where {@code A} is the decomposed matrix.
+	 *
+	 * @param b the right hand side
+	 * @return the solution {@code x}
+	 * @throws IncompatibleLengthsException if the length of {@code b} is not the
+	 *                                      size of the matrix
+	 * @throws NonInvertibleMatrixException if the matrix is singular
+	 */
+	public double[] solve(double[] b) {
+		if (b.length != size)
+			throw new IncompatibleLengthsException(b.length, size);
+		checkNonSingular();
+		double[] x = new double[size];
+		for (int i = 0; i < size; i++)
+			x[i] = b[pivot[i]];
+		// L y = P b
+		for (int i = 1; i < size; i++) {
+			double[] row = lu[i];
+			x[i] -= ArrayKernels.dot(row, x, 0, i);
+		}
+		// U x = y
+		for (int i = size - 1; i >= 0; i--) {
+			double[] row = lu[i];
+			x[i] = (x[i] - ArrayKernels.dot(row, x, i + 1, size)) / row[i];
+		}
+		return x;
+	}
+
+	/**
+	 * Solves {@code A X = B}, where {@code A} is the decomposed matrix, for all the
+	 * columns of {@code B} at once.
+	 * <p>
+	 * The columns of {@code B} are processed in blocks: for each block, every step
+	 * of the forward and back substitution updates a row slice of the block
+	 * against another, so the work is done as long contiguous loops instead of one
+	 * triangular solve per column.
+	 * </p>
+	 *
+	 * @param b the right hand sides, one per column
+	 * @return the solution {@code X}, with the same dimension as {@code b}
+	 * @throws MatrixDimensionException     if the number of rows of {@code b} is
+	 *                                      not the size of the matrix
+	 * @throws NonInvertibleMatrixException if the matrix is singular
+	 */
+	public RealMatrix solve(RealMatrix b) {
+		if (b.rowSize() != size)
+			throw new MatrixDimensionException(
+					"Matrix " + b.rowSize() + "x" + b.columnSize() + " given for a system of size " + size);
+		checkNonSingular();
+		int columns = b.columnSize();
+		double[][] x = new double[size][];
+		for (int i = 0; i < size; i++)
+			x[i] = Arrays.copyOf(b.rowReference(pivot[i]), columns);
+		substituteInPlace(x, columns);
+		return new RealMatrix(x, false, false);
+	}
+
+	/**
+	 * Returns the inverse of the decomposed matrix.
+	 *
+	 * @return the inverse of the decomposed matrix
+	 * @throws NonInvertibleMatrixException if the matrix is singular
+	 */
+	public RealMatrix inverse() {
+		checkNonSingular();
+		double[][] x = new double[size][size];
+		for (int i = 0; i < size; i++)
+			x[i][pivot[i]] = 1;
+		substituteInPlace(x, size);
+		return new RealMatrix(x, false, false);
+	}
+
+	/**
+	 * Overwrites the rows of {@code x}, which hold {@code P x B}, with the solution
+	 * of {@code A X = B}.
+	 */
+	private void substituteInPlace(double[][] x, int columns) {
+		for (int from = 0; from < columns; from += RHS_BLOCK)
+			substituteInPlace(x, from, Math.min(columns, from + RHS_BLOCK));
+	}
+
+	/**
+	 * Substitutes the columns {@code [from, to)} of {@code x}. Every step updates
+	 * all of them at once, one row slice of {@code x} against another.
+	 */
+	private void substituteInPlace(double[][] x, int from, int to) {
+		// L Y = P B
+		for (int i = 1; i < size; i++) {
+			double[] row = lu[i], xi = x[i];
+			for (int j = 0; j < i; j++) {
+				double l = row[j];
+				if (l == 0)
+					continue;
+				ArrayKernels.axpy(-l, x[j], xi, from, to);
+			}
+		}
+		// U X = Y
+		for (int i = size - 1; i >= 0; i--) {
+			double[] row = lu[i], xi = x[i];
+			for (int j = i + 1; j < size; j++) {
+				double u = row[j];
+				if (u == 0)
+					continue;
+				ArrayKernels.axpy(-u, x[j], xi, from, to);
+			}
+			ArrayKernels.scale(1 / row[i], xi, xi, from, to);
+		}
+	}
+
+	/**
+	 * Returns the adjugate of a singular square matrix.
+	 * <p>
+	 * If the rank of {@code A} is {@code n - 2} or less every minor of order
+	 * {@code n - 1} is zero and so is the adjugate. If the rank is {@code n - 1}
+	 * the adjugate has rank one, {@code adj(A) = c x y^T}, where {@code A x = 0}
+	 * and {@code y^T A = 0}. Both null vectors and {@code c} come from a single
+	 * elimination with complete pivoting, {@code P x A x Q = L x U}, which leaves
+	 * the last row of {@code U} null:
+	 * </p>
+	 * <ul>
+	 * <li>{@code x = Q x'}, where {@code U x' = 0} and {@code x'[n-1] = 1}</li>
+	 * <li>{@code y = P^T w}, where {@code L^T w = e[n-1]}</li>
+	 * <li>{@code c = det(P) det(Q) det(U')}, where {@code U'} is {@code U} without
+	 * its last row and column</li>
+	 * </ul>
+	 */
+	static double[][] rankDeficientAdjugate(RealMatrix mat) {
+		int n = mat.rowSize();
+		double[][] a = new double[n][];
+		int[] p = new int[n], q = new int[n];
+		double scale = 0;
+		for (int i = 0; i < n; i++) {
+			double[] row = a[i] = Arrays.copyOf(mat.rowReference(i), n);
+			p[i] = q[i] = i;
+			for (int j = 0; j < n; j++)
+				scale = Math.max(scale, Math.abs(row[j]));
+		}
+		double tolerance = scale * Utils.UMBRAL_ZERO;
+		double[][] adj = new double[n][n];
+		int sign = 1, rank = 0;
+
+		for (int k = 0; k < n; k++) {
+			int pr = k, pc = k;
+			double max = -1;
+			for (int i = k; i < n; i++) {
+				double[] row = a[i];
+				for (int j = k; j < n; j++) {
+					double v = Math.abs(row[j]);
+					if (v > max) {
+						max = v;
+						pr = i;
+						pc = j;
+					}
+				}
+			}
+			if (max <= tolerance)
+				break;
+			rank++;
+			if (pr != k) {
+				double[] tempRow = a[pr];
+				a[pr] = a[k];
+				a[k] = tempRow;
+				int temp = p[pr];
+				p[pr] = p[k];
+				p[k] = temp;
+				sign = -sign;
+			}
+			if (pc != k) {
+				for (int i = 0; i < n; i++) {
+					double temp = a[i][pc];
+					a[i][pc] = a[i][k];
+					a[i][k] = temp;
+				}
+				int temp = q[pc];
+				q[pc] = q[k];
+				q[k] = temp;
+				sign = -sign;
+			}
+			double[] rowK = a[k];
+			for (int i = k + 1; i < n; i++) {
+				double[] rowI = a[i];
+				double l = rowI[k] / rowK[k];
+				rowI[k] = l;
+				for (int j = k + 1; j < n; j++)
+					rowI[j] -= l * rowK[j];
+			}
+		}
+		if (rank < n - 1)
+			return adj;
+		// a rank of n means the matrix was only singular within the tolerance
+		// of the partial pivoting: its smallest (last) pivot is dropped
+
+		int m = n - 1;
+		double c = sign;
+		double[] xp = new double[n];
+		xp[m] = 1;
+		for (int i = m - 1; i >= 0; i--) {
+			double[] row = a[i];
+			double sum = -row[m];
+			for (int j = i + 1; j < m; j++)
+				sum -= row[j] * xp[j];
+			xp[i] = sum / row[i];
+			c *= row[i];
+		}
+		double[] w = new double[n];
+		w[m] = 1;
+		for (int i = m - 1; i >= 0; i--) {
+			double sum = 0;
+			for (int j = i + 1; j < n; j++)
+				sum -= a[j][i] * w[j];
+			w[i] = sum;
+		}
+		double[] x = new double[n], y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[q[i]] = xp[i];
+			y[p[i]] = w[i];
+		}
+		for (int i = 0; i < n; i++) {
+			double cx = c * x[i];
+			double[] row = adj[i];
+			for (int j = 0; j < n; j++)
+				row[j] = cx * y[j];
+		}
+		return adj;
+	}
+
+	private void checkNonSingular() {
+		if (singular)
+			throw new NonInvertibleMatrixException();
+	}
+
+}
@@ -1,7 +1,10 @@
 package algebra;
 
+import java.util.concurrent.ForkJoinPool;
 import exceptions.IncompatibleLengthsException;
+import exceptions.MatrixDimensionException;
 import exceptions.NonInvertibleMatrixException;
+import exceptions.NonPositiveDefiniteMatrixException;
 import exceptions.NonSquareMatrixException;
 
 /**
@@ -46,6 +49,21 @@ public final class LinearAlgebra {
 		return NumericArrays.arrayAddition(v1, v2);
 	}
 
+	/**
+	 * Performs vector addition on two integer arrays, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v1} or
+	 * {@code v2}.
+	 * 
+	 * @param v1   first array
+	 * @param v2   second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the vector {@code v1 + v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static int[] vectorAddition(int[] v1, int[] v2, int[] dest) {
+		return NumericArrays.arrayAddition(v1, v2, dest);
+	}
+
 	/**
 	 * Performs vector subtraction on two integer arrays.
 	 * 
@@ -58,6 +76,21 @@ public final class LinearAlgebra {
 		return NumericArrays.arraySubtraction(v1, v2);
 	}
 
+	/**
+	 * Performs vector subtraction on two integer arrays, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v1} or
+	 * {@code v2}.
+	 * 
+	 * @param v1   first array
+	 * @param v2   second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the vector {@code v1 - v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static int[] vectorSubtraction(int[] v1, int[] v2, int[] dest) {
+		return NumericArrays.arraySubtraction(v1, v2, dest);
+	}
+
 	/**
 	 * Performs vector addition on two byte arrays.
 	 * 
@@ -70,6 +103,21 @@ public final class LinearAlgebra {
 		return NumericArrays.arrayAddition(v1, v2);
 	}
 
+	/**
+	 * Performs vector addition on two byte arrays, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v1} or
+	 * {@code v2}.
+	 * 
+	 * @param v1   first array
+	 * @param v2   second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the vector {@code v1 + v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static byte[] vectorAddition(byte[] v1, byte[] v2, byte[] dest) {
+		return NumericArrays.arrayAddition(v1, v2, dest);
+	}
+
 	/**
 	 * Performs vector subtraction on two byte arrays.
 	 * 
@@ -82,6 +130,21 @@ public final class LinearAlgebra {
 		return NumericArrays.arraySubtraction(v1, v2);
 	}
 
+	/**
+	 * Performs vector subtraction on two byte arrays, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v1} or
+	 * {@code v2}.
+	 * 
+	 * @param v1   first array
+	 * @param v2   second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the vector {@code v1 - v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static byte[] vectorSubtraction(byte[] v1, byte[] v2, byte[] dest) {
+		return NumericArrays.arraySubtraction(v1, v2, dest);
+	}
+
 	/**
 	 * Performs vector addition on two short integer arrays.
 	 * 
@@ -94,6 +157,21 @@ public final class LinearAlgebra {
 		return NumericArrays.arrayAddition(v1, v2);
 	}
 
+	/**
+	 * Performs vector addition on two short arrays, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v1} or
+	 * {@code v2}.
+	 * 
+	 * @param v1   first array
+	 * @param v2   second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the vector {@code v1 + v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static short[] vectorAddition(short[] v1, short[] v2, short[] dest) {
+		return NumericArrays.arrayAddition(v1, v2, dest);
+	}
+
 	/**
 	 * Performs vector subtraction on two short integer arrays.
 	 * 
@@ -106,6 +184,21 @@ public final class LinearAlgebra {
 		return NumericArrays.arraySubtraction(v1, v2);
 	}
 
+	/**
+	 * Performs vector subtraction on two short arrays, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v1} or
+	 * {@code v2}.
+	 * 
+	 * @param v1   first array
+	 * @param v2   second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the vector {@code v1 - v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static short[] vectorSubtraction(short[] v1, short[] v2, short[] dest) {
+		return NumericArrays.arraySubtraction(v1, v2, dest);
+	}
+
 	/**
 	 * Performs vector addition on two long integer arrays.
 	 * 
@@ -118,6 +211,21 @@ public final class LinearAlgebra {
 		return NumericArrays.arrayAddition(v1, v2);
 	}
 
+	/**
+	 * Performs vector addition on two long arrays, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v1} or
+	 * {@code v2}.
+	 * 
+	 * @param v1   first array
+	 * @param v2   second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the vector {@code v1 + v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static long[] vectorAddition(long[] v1, long[] v2, long[] dest) {
+		return NumericArrays.arrayAddition(v1, v2, dest);
+	}
+
 	/**
 	 * Performs vector subtraction on two long integer arrays.
 	 * 
@@ -130,6 +238,21 @@ public final class LinearAlgebra {
 		return NumericArrays.arraySubtraction(v1, v2);
 	}
 
+	/**
+	 * Performs vector subtraction on two long arrays, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v1} or
+	 * {@code v2}.
+	 * 
+	 * @param v1   first array
+	 * @param v2   second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the vector {@code v1 - v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static long[] vectorSubtraction(long[] v1, long[] v2, long[] dest) {
+		return NumericArrays.arraySubtraction(v1, v2, dest);
+	}
+
 	/**
 	 * Performs vector addition on two float arrays.
 	 * 
@@ -142,6 +265,21 @@ public final class LinearAlgebra {
 		return NumericArrays.arrayAddition(v1, v2);
 	}
 
+	/**
+	 * Performs vector addition on two float arrays, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v1} or
+	 * {@code v2}.
+	 * 
+	 * @param v1   first array
+	 * @param v2   second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the vector {@code v1 + v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static float[] vectorAddition(float[] v1, float[] v2, float[] dest) {
+		return NumericArrays.arrayAddition(v1, v2, dest);
+	}
+
 	/**
 	 * Performs vector subtraction on two float arrays.
 	 * 
@@ -154,6 +292,21 @@ public final class LinearAlgebra {
 		return NumericArrays.arraySubtraction(v1, v2);
 	}
 
+	/**
+	 * Performs vector subtraction on two float arrays, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v1} or
+	 * {@code v2}.
+	 * 
+	 * @param v1   first array
+	 * @param v2   second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the vector {@code v1 - v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static float[] vectorSubtraction(float[] v1, float[] v2, float[] dest) {
+		return NumericArrays.arraySubtraction(v1, v2, dest);
+	}
+
 	/**
 	 * Performs vector addition on two double arrays.
 	 * 
@@ -166,6 +319,35 @@ public final class LinearAlgebra {
 		return NumericArrays.arrayAddition(v1, v2);
 	}
 
+	/**
+	 * Performs vector addition on two double arrays, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v1} or
+	 * {@code v2}.
+	 * 
+	 * @param v1   first array
+	 * @param v2   second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the vector {@code v1 + v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static double[] vectorAddition(double[] v1, double[] v2, double[] dest) {
+		return NumericArrays.arrayAddition(v1, v2, dest);
+	}
+
+	/**
+	 * Performs vector addition on two double arrays, rounded by the given policy
+	 * instead of {@link Utils#getDefaultRoundingPolicy()}.
+	 * 
+	 * @param v1     first array to be added
+	 * @param v2     second array to be added
+	 * @param policy how the result is rounded
+	 * @return a new double array representing the vector {@code v1 + v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static double[] vectorAddition(double[] v1, double[] v2, RoundingPolicy policy) {
+		return NumericArrays.arrayAddition(v1, v2, policy);
+	}
+
 	/**
 	 * Performs vector subtraction on two double arrays.
 	 * 
@@ -178,6 +360,35 @@ public final class LinearAlgebra {
 		return NumericArrays.arraySubtraction(v1, v2);
 	}
 
+	/**
+	 * Performs vector subtraction on two double arrays, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v1} or
+	 * {@code v2}.
+	 * 
+	 * @param v1   first array
+	 * @param v2   second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the vector {@code v1 - v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static double[] vectorSubtraction(double[] v1, double[] v2, double[] dest) {
+		return NumericArrays.arraySubtraction(v1, v2, dest);
+	}
+
+	/**
+	 * Performs vector subtraction on two double arrays, rounded by the given
+	 * policy instead of {@link Utils#getDefaultRoundingPolicy()}.
+	 * 
+	 * @param v1     first array
+	 * @param v2     second array
+	 * @param policy how the result is rounded
+	 * @return a new double array representing the vector {@code v1 - v2}
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static double[] vectorSubtraction(double[] v1, double[] v2, RoundingPolicy policy) {
+		return NumericArrays.arraySubtraction(v1, v2, policy);
+	}
+
 	/**
 	 * Performs vector addition on two Number object arrays.
 	 * 
@@ -284,7 +495,8 @@ public final class LinearAlgebra {
 	/**
 	 * Calculates the Euclidean length (magnitude) of a vector. This value is equal
 	 * to the square root of the sum of the squares of the individual numbers of the
-	 * vector.
+	 * vector. It does not overflow nor underflow for vectors whose length can be
+	 * represented, see {@link NumericArrays#norm(double[])}.
 	 * 
 	 * @param v the array representing the vector for which the length is to be
 	 *          calculated
@@ -292,7 +504,7 @@ public final class LinearAlgebra {
 	 * @throws IllegalArgumentException if the vector is empty
 	 */
 	public static double vectorLength(double[] v) {
-		return Math.sqrt(NumericArrays.sumAllNumbersToPower(v, 2));
+		return NumericArrays.norm(v);
 	}
 
 	/**
@@ -329,6 +541,24 @@ public final class LinearAlgebra {
 		return NumericArrays.arrayMultiplyBy(v, alpha);
 	}
 
+	/**
+	 * Performs scalar multiplication on a vector, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v} itself.
+	 * 
+	 * @param v     the array representing the vector to be multiplied
+	 * @param alpha the scalar value to multiply each number of the vector
+	 * @param dest  array where the result is written
+	 * @return {@code dest}, holding the result of the vector scalar
+	 *         multiplication
+	 * @throws NullPointerException     if {@code alpha} is null
+	 * @throws IllegalArgumentException if the vector is empty
+	 * @throws IncompatibleArrayLengthException if {@code dest} does not have the
+	 *                                          size of {@code v}
+	 */
+	public static int[] vectorScalarMultiplication(int[] v, Number alpha, int[] dest) {
+		return NumericArrays.arrayMultiplyBy(v, alpha, dest);
+	}
+
 	/**
 	 * Performs scalar multiplication on a vector, using the given number as the
 	 * scalar.
@@ -344,6 +574,24 @@ public final class LinearAlgebra {
 		return NumericArrays.arrayMultiplyBy(v, alpha);
 	}
 
+	/**
+	 * Performs scalar multiplication on a vector, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v} itself.
+	 * 
+	 * @param v     the array representing the vector to be multiplied
+	 * @param alpha the scalar value to multiply each number of the vector
+	 * @param dest  array where the result is written
+	 * @return {@code dest}, holding the result of the vector scalar
+	 *         multiplication
+	 * @throws NullPointerException     if {@code alpha} is null
+	 * @throws IllegalArgumentException if the vector is empty
+	 * @throws IncompatibleArrayLengthException if {@code dest} does not have the
+	 *                                          size of {@code v}
+	 */
+	public static byte[] vectorScalarMultiplication(byte[] v, Number alpha, byte[] dest) {
+		return NumericArrays.arrayMultiplyBy(v, alpha, dest);
+	}
+
 	/**
 	 * Performs scalar multiplication on a vector, using the given number as the
 	 * scalar.
@@ -359,6 +607,24 @@ public final class LinearAlgebra {
 		return NumericArrays.arrayMultiplyBy(v, alpha);
 	}
 
+	/**
+	 * Performs scalar multiplication on a vector, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v} itself.
+	 * 
+	 * @param v     the array representing the vector to be multiplied
+	 * @param alpha the scalar value to multiply each number of the vector
+	 * @param dest  array where the result is written
+	 * @return {@code dest}, holding the result of the vector scalar
+	 *         multiplication
+	 * @throws NullPointerException     if {@code alpha} is null
+	 * @throws IllegalArgumentException if the vector is empty
+	 * @throws IncompatibleArrayLengthException if {@code dest} does not have the
+	 *                                          size of {@code v}
+	 */
+	public static short[] vectorScalarMultiplication(short[] v, Number alpha, short[] dest) {
+		return NumericArrays.arrayMultiplyBy(v, alpha, dest);
+	}
+
 	/**
 	 * Performs scalar multiplication on a vector, using the given number as the
 	 * scalar.
@@ -374,6 +640,24 @@ public final class LinearAlgebra {
 		return NumericArrays.arrayMultiplyBy(v, alpha);
 	}
 
+	/**
+	 * Performs scalar multiplication on a vector, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v} itself.
+	 * 
+	 * @param v     the array representing the vector to be multiplied
+	 * @param alpha the scalar value to multiply each number of the vector
+	 * @param dest  array where the result is written
+	 * @return {@code dest}, holding the result of the vector scalar
+	 *         multiplication
+	 * @throws NullPointerException     if {@code alpha} is null
+	 * @throws IllegalArgumentException if the vector is empty
+	 * @throws IncompatibleArrayLengthException if {@code dest} does not have the
+	 *                                          size of {@code v}
+	 */
+	public static long[] vectorScalarMultiplication(long[] v, Number alpha, long[] dest) {
+		return NumericArrays.arrayMultiplyBy(v, alpha, dest);
+	}
+
 	/**
 	 * Performs scalar multiplication on a vector, using the given number as the
 	 * scalar.
@@ -389,6 +673,24 @@ public final class LinearAlgebra {
 		return NumericArrays.arrayMultiplyBy(v, alpha);
 	}
 
+	/**
+	 * Performs scalar multiplication on a vector, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v} itself.
+	 * 
+	 * @param v     the array representing the vector to be multiplied
+	 * @param alpha the scalar value to multiply each number of the vector
+	 * @param dest  array where the result is written
+	 * @return {@code dest}, holding the result of the vector scalar
+	 *         multiplication
+	 * @throws NullPointerException     if {@code alpha} is null
+	 * @throws IllegalArgumentException if the vector is empty
+	 * @throws IncompatibleArrayLengthException if {@code dest} does not have the
+	 *                                          size of {@code v}
+	 */
+	public static float[] vectorScalarMultiplication(float[] v, Number alpha, float[] dest) {
+		return NumericArrays.arrayMultiplyBy(v, alpha, dest);
+	}
+
 	/**
 	 * Performs scalar multiplication on a vector, using the given number as the
 	 * scalar.
@@ -404,6 +706,23 @@ public final class LinearAlgebra {
 		return NumericArrays.arrayMultiplyBy(v, alpha);
 	}
 
+	/**
+	 * Performs scalar multiplication on a vector, writing the result into
+	 * {@code dest} instead of a new array. {@code dest} may be {@code v} itself.
+	 * 
+	 * @param v     the array representing the vector to be multiplied
+	 * @param alpha the scalar value to multiply each number of the vector
+	 * @param dest  array where the result is written
+	 * @return {@code dest}, holding the result of the vector scalar
+	 *         multiplication
+	 * @throws IllegalArgumentException if the vector is empty
+	 * @throws IncompatibleArrayLengthException if {@code dest} does not have the
+	 *                                          size of {@code v}
+	 */
+	public static double[] vectorScalarMultiplication(double[] v, double alpha, double[] dest) {
+		return NumericArrays.arrayMultiplyBy(v, alpha, dest);
+	}
+
 	/**
 	 * Performs scalar multiplication on a vector, using the given number as the
 	 * scalar.
@@ -436,10 +755,7 @@ public final class LinearAlgebra {
 	 */
 	public static int vectorsDotProduct(int[] v1, int[] v2) {
 		NumericArrays.checkIfOperationCanBePerformed(v1, v2);
-		int sum = 0;
-		for (int i = 0; i < v1.length; i++)
-			sum += (v1[i] * v2[i]);
-		return sum;
+		return ArrayKernels.dot(v1, v2, 0, v1.length);
 	}
 
 	/**
@@ -507,12 +823,29 @@ public final class LinearAlgebra {
 	 *                                          or if they are empty
 	 */
 	public static double vectorsDotProduct(float[] v1, float[] v2) {
+		return vectorsDotProduct(v1, v2, Utils.getDefaultRoundingPolicy());
+	}
+
+	/**
+	 * Calculates the dot product of two vectors, rounded by the given policy
+	 * instead of {@link Utils#getDefaultRoundingPolicy()}.
+	 * 
+	 * @param v1     first vector
+	 * @param v2     second vector
+	 * @param policy how the result is rounded
+	 * @return the dot product of the two vectors
+	 * @throws IncompatibleArrayLengthException if the vectors have different size
+	 *                                          or if they are empty
+	 */
+	public static double vectorsDotProduct(float[] v1, float[] v2, RoundingPolicy policy) {
 		NumericArrays.checkIfOperationCanBePerformed(v1, v2);
-		double sum = 0;
-		for (int i = 0; i < v1.length; i++)
-			sum += (v1[i] * v2[i]);
-		return Utils.shouldRound(sum);
-//		return sum;
+		if (policy == RoundingPolicy.SNAP_PER_OP) {
+			double sum = 0;
+			for (int i = 0; i < v1.length; i++)
+				sum += policy.term(v1[i], v2[i]);
+			return policy.round(sum);
+		}
+		return policy.round(ArrayKernels.dot(v1, v2, 0, v1.length));
 	}
 
 	/**
@@ -526,12 +859,29 @@ public final class LinearAlgebra {
 	 *                                          or if they are empty
 	 */
 	public static double vectorsDotProduct(double[] v1, double[] v2) {
+		return vectorsDotProduct(v1, v2, Utils.getDefaultRoundingPolicy());
+	}
+
+	/**
+	 * Calculates the dot product of two vectors, rounded by the given policy
+	 * instead of {@link Utils#getDefaultRoundingPolicy()}.
+	 * 
+	 * @param v1     first vector
+	 * @param v2     second vector
+	 * @param policy how the result is rounded
+	 * @return the dot product of the two vectors
+	 * @throws IncompatibleArrayLengthException if the vectors have different size
+	 *                                          or if they are empty
+	 */
+	public static double vectorsDotProduct(double[] v1, double[] v2, RoundingPolicy policy) {
 		NumericArrays.checkIfOperationCanBePerformed(v1, v2);
-		double sum = 0;
-		for (int i = 0; i < v1.length; i++)
-			sum += (v1[i] * v2[i]);
-		return Utils.shouldRound(sum);
-//		return sum;
+		if (policy == RoundingPolicy.SNAP_PER_OP) {
+			double sum = 0;
+			for (int i = 0; i < v1.length; i++)
+				sum += policy.term(v1[i], v2[i]);
+			return policy.round(sum);
+		}
+		return policy.round(ArrayKernels.dot(v1, v2, 0, v1.length));
 	}
 
 	/**
@@ -552,7 +902,7 @@ public final class LinearAlgebra {
 		double sum = 0;
 		for (int i = 0; i < v1.length; i++)
 			sum += (v1[i].doubleValue() * v2[i].doubleValue());
-		return Utils.shouldRound(sum);
+		return Utils.getDefaultRoundingPolicy().round(sum);
 //		return sum;
 	}
 
@@ -1093,6 +1443,94 @@ public final class LinearAlgebra {
 		return res;
 	}
 
+	// ---------------------------------------------------------------------------------------------------
+	// sparse vectors
+
+	/**
+	 * Performs vector addition on two sparse vectors.
+	 * 
+	 * @param v1 first vector
+	 * @param v2 second vector
+	 * @return a new sparse vector representing {@code v1 + v2}
+	 * @throws IncompatibleLengthsException if the vectors have different lengths
+	 */
+	public static SparseVector vectorAddition(SparseVector v1, SparseVector v2) {
+		return v2.axpy(1, v1);
+	}
+
+	/**
+	 * Performs vector subtraction on two sparse vectors.
+	 * 
+	 * @param v1 first vector
+	 * @param v2 vector subtracted from {@code v1}
+	 * @return a new sparse vector representing {@code v1 - v2}
+	 * @throws IncompatibleLengthsException if the vectors have different lengths
+	 */
+	public static SparseVector vectorSubtraction(SparseVector v1, SparseVector v2) {
+		return v2.axpy(-1, v1);
+	}
+
+	/**
+	 * Performs vector addition on a sparse and a dense vector. Only the positions
+	 * stored in {@code v1} are added to a copy of {@code v2}.
+	 * 
+	 * @param v1 sparse vector
+	 * @param v2 dense vector
+	 * @return a new dense array representing {@code v1 + v2}
+	 * @throws IncompatibleLengthsException if the vectors have different lengths
+	 */
+	public static double[] vectorAddition(SparseVector v1, double[] v2) {
+		double[] res = v2.clone();
+		v1.axpy(1, res);
+		return res;
+	}
+
+	/**
+	 * Multiplies the given sparse vector by the given number.
+	 * 
+	 * @param v     the vector
+	 * @param alpha the scalar
+	 * @return a new sparse vector representing {@code alpha * v}
+	 */
+	public static SparseVector vectorScalarMultiplication(SparseVector v, double alpha) {
+		return v.scale(alpha);
+	}
+
+	/**
+	 * Calculates the dot product of two sparse vectors, merging their indices.
+	 * 
+	 * @param v1 first vector
+	 * @param v2 second vector
+	 * @return the dot product of the two vectors
+	 * @throws IncompatibleLengthsException if the vectors have different lengths
+	 */
+	public static double vectorsDotProduct(SparseVector v1, SparseVector v2) {
+		return v1.dot(v2);
+	}
+
+	/**
+	 * Calculates the dot product of a sparse and a dense vector, reading only the
+	 * positions stored in {@code v1}.
+	 * 
+	 * @param v1 sparse vector
+	 * @param v2 dense vector
+	 * @return the dot product of the two vectors
+	 * @throws IncompatibleLengthsException if the vectors have different lengths
+	 */
+	public static double vectorsDotProduct(SparseVector v1, double[] v2) {
+		return v1.dot(v2);
+	}
+
+	/**
+	 * Returns the length (Euclidean norm) of the given sparse vector.
+	 * 
+	 * @param v the vector
+	 * @return the length of {@code v}
+	 */
+	public static double vectorLength(SparseVector v) {
+		return v.norm();
+	}
+
 	// ---------------------------------------------------------------------------------------------------
 	// matrices
 	// ---------------------------------------------------------------------------------------------------
@@ -1162,6 +1600,152 @@ public final class LinearAlgebra {
 		return MatrixOperations.multiplyMatrices(m1, m2);
 	}
 
+	/**
+	 * Performs matrix multiplication on two matrices, rounded by the given policy
+	 * instead of the one of {@code m1}.
+	 * 
+	 * @param m1     first matrix
+	 * @param m2     second matrix
+	 * @param policy how the product is rounded
+	 * @return a new {@link RealMatrix} representing {@code m1 x m2}
+	 * @throws RealMatrixException if their dimensions are incompatible for matrix
+	 *                             multiplication
+	 */
+	public static RealMatrix matrixMultiplication(RealMatrix m1, RealMatrix m2, RoundingPolicy policy) {
+		return MatrixOperations.multiplyMatrices(m1, m2, policy);
+	}
+
+	/**
+	 * Performs matrix multiplication on two matrices using several threads. The
+	 * result is split in blocks that are computed in the pool set with
+	 * {@link MatrixOperations#setParallelPool(ForkJoinPool)} (the common pool by
+	 * default). Products below a size threshold are computed sequentially.
+	 * 
+	 * @param m1 first matrix
+	 * @param m2 second matrix
+	 * @return a new {@link RealMatrix} representing {@code m1 x m2}
+	 * @throws RealMatrixException if their dimensions are incompatible for matrix
+	 *                             multiplication
+	 */
+	public static RealMatrix matrixMultiplicationParallel(RealMatrix m1, RealMatrix m2) {
+		return MatrixOperations.multiplyMatricesParallel(m1, m2);
+	}
+
+	/**
+	 * Performs matrix multiplication on two matrices using the threads of the
+	 * given pool. Products below a size threshold are computed sequentially.
+	 * 
+	 * @param m1   first matrix
+	 * @param m2   second matrix
+	 * @param pool pool where the blocks of the product are computed
+	 * @return a new {@link RealMatrix} representing {@code m1 x m2}
+	 * @throws RealMatrixException if their dimensions are incompatible for matrix
+	 *                             multiplication
+	 */
+	public static RealMatrix matrixMultiplicationParallel(RealMatrix m1, RealMatrix m2, ForkJoinPool pool) {
+		return MatrixOperations.multiplyMatricesParallel(m1, m2, pool);
+	}
+
+	/**
+	 * Multiplies a chain of matrices, {@code m1 x m2 x ... x mn}, in the order
+	 * that takes the fewest operations. With shapes such as {@code 10000 x 50} and
+	 * {@code 50 x 10000}, that order can be thousands of times cheaper than going
+	 * from left to right. The result is rounded once, by the policy of the first
+	 * matrix.
+	 * 
+	 * @param matrices the matrices to multiply, in order
+	 * @return a new {@link RealMatrix} representing the product of the chain
+	 * @throws RealMatrixException if there are no matrices or the dimensions of
+	 *                             two adjacent ones are incompatible for matrix
+	 *                             multiplication
+	 */
+	public static RealMatrix matrixChainMultiplication(RealMatrix... matrices) {
+		return MatrixOperations.multiplyChain(matrices);
+	}
+
+	/**
+	 * Multiplies a matrix by a column vector. The result is a new vector.
+	 * 
+	 * @param m the matrix
+	 * @param x vector with as many numbers as {@code m} has columns
+	 * @return a new vector representing {@code m x x}
+	 * @throws IncompatibleLengthsException if the length of {@code x} is not the
+	 *                                      number of columns of {@code m}
+	 */
+	public static double[] matrixVectorMultiplication(RealMatrix m, double[] x) {
+		return m.multiply(x);
+	}
+
+	/**
+	 * Multiplies a matrix by a column vector, splitting the rows of the matrix
+	 * between the threads of the pool set with
+	 * {@link MatrixOperations#setParallelPool(ForkJoinPool)}. Products below a
+	 * size threshold are computed sequentially.
+	 * 
+	 * @param m the matrix
+	 * @param x vector with as many numbers as {@code m} has columns
+	 * @return a new vector representing {@code m x x}
+	 * @throws IncompatibleLengthsException if the length of {@code x} is not the
+	 *                                      number of columns of {@code m}
+	 */
+	public static double[] matrixVectorMultiplicationParallel(RealMatrix m, double[] x) {
+		double[] y = new double[m.rowSize()];
+		m.multiply(1, x, 0, y, MatrixOperations.getParallelPool());
+		return y;
+	}
+
+	/**
+	 * Multiplies the transpose of a matrix by a column vector, without building
+	 * the transpose. The result is a new vector.
+	 * 
+	 * @param m the matrix
+	 * @param x vector with as many numbers as {@code m} has rows
+	 * @return a new vector representing {@code m^T x x}
+	 * @throws IncompatibleLengthsException if the length of {@code x} is not the
+	 *                                      number of rows of {@code m}
+	 */
+	public static double[] transposedMatrixVectorMultiplication(RealMatrix m, double[] x) {
+		return m.multiplyTransposed(x);
+	}
+
+	/**
+	 * Returns the outer product of two vectors, {@code v1 x v2^T}: the matrix
+	 * whose number {@code (i, j)} is {@code v1[i] * v2[j]}.
+	 * 
+	 * @param v1 column vector
+	 * @param v2 row vector
+	 * @return a new {@code v1.length x v2.length} {@link RealMatrix}
+	 */
+	public static RealMatrix vectorsOuterProduct(double[] v1, double[] v2) {
+		RealMatrix m = new RealMatrix(v1.length, v2.length);
+		m.rankOneUpdate(1, v1, v2);
+		return m;
+	}
+
+	/**
+	 * Returns {@code m^T x m}, computing only one triangle of the symmetric
+	 * result and without building the transpose of {@code m}. For the
+	 * covariance of centered data stored one sample per row, this is the product
+	 * to scale.
+	 * 
+	 * @param m the matrix
+	 * @return a new {@link RealMatrix} representing {@code m^T x m}
+	 */
+	public static RealMatrix matrixTransposeProduct(RealMatrix m) {
+		return m.transposeProduct();
+	}
+
+	/**
+	 * Returns {@code m x m^T}, computing only one triangle of the symmetric
+	 * result and without building the transpose of {@code m}.
+	 * 
+	 * @param m the matrix
+	 * @return a new {@link RealMatrix} representing {@code m x m^T}
+	 */
+	public static RealMatrix matrixProductTranspose(RealMatrix m) {
+		return m.productTranspose();
+	}
+
 	/**
 	 * Creates an identity matrix of size {@code n x n}.
 	 * 
@@ -1179,26 +1763,38 @@ public final class LinearAlgebra {
 	 * row.
 	 *
 	 * This performs row ordering in the matrix based on the index of the pivot in
-	 * each row. The pivot is the leftmost non-zero element in a row after previous
-	 * rows have been processed. The rows are rearranged to bring rows with lower
-	 * pivot indices to the top.
+	 * each row. The pivot is the leftmost non-zero element in a row. The rows are
+	 * rearranged to bring rows with lower pivot indices to the top and zero rows to
+	 * the bottom; rows with the same pivot index keep their relative order.
 	 *
-	 * @return the total number of swaps performed during the method to make the
-	 *         matrix ordered
+	 * The pivot index of every row is computed once and the rows are sorted by it
+	 * with a counting sort, then moved by reference, so no row is copied.
+	 *
+	 * @return the number of row swaps the ordering is equivalent to. Its parity is
+	 *         the parity of the row permutation, which gives the sign change of
+	 *         the determinant
 	 */
 	public static int matrixOrderingRows(RealMatrix mat) {
-		int swappedRowsCount = 0;
-		for (int row1 = 0; row1 < mat.rowSize() - 1; row1++) {
-			for (int row2 = row1 + 1; row2 < mat.rowSize(); row2++) {
-				int indexRow1 = NumericArrays.indexFirstNotZeroNumber(mat.getRow(row1));
-				int indexRow2 = NumericArrays.indexFirstNotZeroNumber(mat.getRow(row2));
-				if (indexRow1 == -1 || (indexRow1 > indexRow2 && indexRow2 != -1)) {
-					mat.swapRows(row1, row2);
-					swappedRowsCount++;
-				}
-			}
-		}
-		return swappedRowsCount;
+		return mat.permuteRowsUnsafe(mat.rowOrderingPermutation());
+	}
+
+	/**
+	 * Orders the rows of {@code mat} as {@link #matrixOrderingRows(RealMatrix)}
+	 * does and applies the same row permutation to {@code companion}, such as the
+	 * right-hand side of a system or the identity when building an inverse. The
+	 * rows of both matrices are moved by reference.
+	 *
+	 * @return the number of row swaps the ordering is equivalent to
+	 * @throws MatrixDimensionException if both matrices have a different number of
+	 *                                  rows
+	 */
+	public static int matrixOrderingRows(RealMatrix mat, RealMatrix companion) {
+		if (mat.rowSize() != companion.rowSize())
+			throw new MatrixDimensionException("Companion matrix has " + companion.rowSize() + " rows, expected "
+					+ mat.rowSize());
+		int[] permutation = mat.rowOrderingPermutation();
+		companion.permuteRowsUnsafe(permutation);
+		return mat.permuteRowsUnsafe(permutation);
 	}
 
 	/**
@@ -1215,34 +1811,16 @@ public final class LinearAlgebra {
 	 * This method returns the total number of swapped rows during this
 	 * transformation, a value which is used in the calculation of the determinant
 	 * of the matrix.
+	 * 
+	 * The elimination uses partial pivoting (the row with the largest number of
+	 * each column becomes the pivot row) and works in place on the rows of the
+	 * matrix, without allocating.
 	 *
 	 * @return the total number of swapped rows during the conversion to row echelon
 	 *         form
 	 */
 	public static int matrixRowEchelonForm(RealMatrix mat) {
-		int rowSize = mat.rowSize();
-		int rowsSwapsPerformed = matrixOrderingRows(mat);
-		for (int row1 = 0; row1 < rowSize - 1; row1++) {
-			double[] currentRow = mat.getRow(row1);
-			int indexFirstNotZeroCurrentRow = NumericArrays.indexFirstNotZeroNumber(currentRow);
-			for (int row2 = row1 + 1; row2 < rowSize; row2++) {
-				double[] nextRow = mat.getRow(row2);
-				int indexFirstNotZeroNextRow = NumericArrays.indexFirstNotZeroNumber(nextRow);
-				if (indexFirstNotZeroCurrentRow == indexFirstNotZeroNextRow && indexFirstNotZeroCurrentRow != -1) {
-
-					double currentRowFirstNumber, nextRowFirstNumber, alpha;
-					currentRowFirstNumber = currentRow[indexFirstNotZeroCurrentRow];
-					nextRowFirstNumber = nextRow[indexFirstNotZeroNextRow];
-					alpha = Double.valueOf(nextRowFirstNumber / currentRowFirstNumber);
-
-					double[] auxiliarRow = LinearAlgebra.vectorScalarMultiplication(currentRow, alpha);
-					auxiliarRow = LinearAlgebra.vectorSubtraction(nextRow, auxiliarRow);
-					mat.setRow(row2, auxiliarRow);
-				}
-			}
-			rowsSwapsPerformed += matrixOrderingRows(mat);
-		}
-		return rowsSwapsPerformed;
+		return mat.eliminateToRowEchelonForm();
 	}
 
 	/**
@@ -1251,6 +1829,11 @@ public final class LinearAlgebra {
 	 * such as determining its invertibility, and particularly useful in solving
 	 * systems of linear equations. It is crucial in various problems in geometry
 	 * and physics related to eigenvalues.
+	 * <p>
+	 * It is rounded by the policy of the matrix, whatever its size. Determinants
+	 * of magnitude {@code 2^52} or more are integers already and are returned as
+	 * computed.
+	 * </p>
 	 * 
 	 * @param mat the matrix
 	 * @return the determinant of the given matrix
@@ -1261,20 +1844,153 @@ public final class LinearAlgebra {
 	 *                                  {@code 0 x 0} is not considered square
 	 */
 	public static double matrixDeterminant(RealMatrix mat) {
+		return matrixDeterminant(mat, mat.getRoundingPolicy());
+	}
+
+	/**
+	 * Returns the determinant of the given square matrix, rounded by the given
+	 * policy instead of the one of the matrix.
+	 * 
+	 * @param mat    the matrix
+	 * @param policy how the result is rounded
+	 * @return the determinant of the given matrix
+	 * @throws NonSquareMatrixException if the given matrix is not square
+	 * @see #matrixDeterminant(RealMatrix)
+	 */
+	public static double matrixDeterminant(RealMatrix mat, RoundingPolicy policy) {
 		if (!mat.isSquare())
 			throw new NonSquareMatrixException(mat.rowSize(), mat.columnSize());
 		int size = mat.rowSize();
+		double det;
 		if (size == 1)
-			return mat.getNumber(0, 0);
-		if (size == 2)
-			return mat.getNumber(0, 0) * mat.getNumber(1, 1) - mat.getNumber(0, 1) * mat.getNumber(1, 0);
+			det = mat.getNumber(0, 0);
+		else if (size == 2)
+			det = mat.getNumber(0, 0) * mat.getNumber(1, 1) - mat.getNumber(0, 1) * mat.getNumber(1, 0);
+		else
+			det = new LUDecomposition(mat).determinant();
+		return policy.round(det);
+	}
 
-		RealMatrix clone = (RealMatrix) mat.clone();
-		int swappedRowsCount = matrixRowEchelonForm(clone);
-		double determinant = Math.pow(-1, swappedRowsCount);
-		for (int i = 0; i < mat.rowSize(); i++)
-			determinant = determinant * clone.getNumber(i, i);
-		return (determinant);
+	/**
+	 * Computes the LU decomposition with partial pivoting of the given square
+	 * matrix. The returned object can be reused to get the determinant, the
+	 * inverse, or to solve systems with the matrix, without eliminating again.
+	 * 
+	 * @param mat the matrix to decompose
+	 * @return the LU decomposition of the given matrix
+	 * @throws NonSquareMatrixException if the given matrix is not square
+	 */
+	public static LUDecomposition matrixLUDecomposition(RealMatrix mat) {
+		return new LUDecomposition(mat);
+	}
+
+	/**
+	 * Computes the Cholesky decomposition {@code A = L x L^T} of the given
+	 * symmetric positive definite matrix. It takes half the operations of the
+	 * {@link LUDecomposition} and needs no pivoting, and the returned object can
+	 * be reused the same way.
+	 * 
+	 * @param mat the matrix to decompose
+	 * @return the Cholesky decomposition of the given matrix
+	 * @throws NonSquareMatrixException           if the given matrix is not square
+	 * @throws NonPositiveDefiniteMatrixException if the given matrix is not
+	 *                                            symmetric positive definite
+	 */
+	public static CholeskyDecomposition matrixCholeskyDecomposition(RealMatrix mat) {
+		return new CholeskyDecomposition(mat);
+	}
+
+	/**
+	 * Computes the QR decomposition {@code A = Q x R} of the given matrix by
+	 * Householder reflections. The returned object solves least squares problems
+	 * with the matrix and builds {@code Q} only when asked for it.
+	 * 
+	 * @param mat the matrix to decompose
+	 * @return the QR decomposition of the given matrix
+	 */
+	public static QRDecomposition matrixQRDecomposition(RealMatrix mat) {
+		return new QRDecomposition(mat);
+	}
+
+	/**
+	 * Computes the economy size singular value decomposition
+	 * {@code A = U x S x V^T} of the given matrix, with its singular vectors.
+	 * 
+	 * @param mat the matrix to decompose
+	 * @return the singular value decomposition of the given matrix
+	 */
+	public static SingularValueDecomposition matrixSingularValueDecomposition(RealMatrix mat) {
+		return new SingularValueDecomposition(mat);
+	}
+
+	/**
+	 * Returns the singular values of the given matrix, in descending order. The
+	 * singular vectors are not computed, which makes it several times faster
+	 * than the full decomposition.
+	 * 
+	 * @param mat the matrix
+	 * @return the singular values of the given matrix
+	 */
+	public static double[] matrixSingularValues(RealMatrix mat) {
+		return new SingularValueDecomposition(mat, false).getSingularValues();
+	}
+
+	/**
+	 * Returns the 2-norm of the given matrix, its largest singular value.
+	 * 
+	 * @param mat the matrix
+	 * @return the 2-norm of the given matrix
+	 */
+	public static double matrixNorm2(RealMatrix mat) {
+		return new SingularValueDecomposition(mat, false).norm2();
+	}
+
+	/**
+	 * Returns the condition number in 2-norm of the given matrix, the quotient of
+	 * its largest and smallest singular values, which is infinite when the matrix
+	 * is rank deficient.
+	 * 
+	 * @param mat the matrix
+	 * @return the condition number of the given matrix
+	 */
+	public static double matrixConditionNumber(RealMatrix mat) {
+		return new SingularValueDecomposition(mat, false).conditionNumber();
+	}
+
+	/**
+	 * Returns the numerical rank of the given matrix, the number of its singular
+	 * values that are not negligible.
+	 * 
+	 * @param mat the matrix
+	 * @return the rank of the given matrix
+	 * @see SingularValueDecomposition#rank()
+	 */
+	public static int matrixRank(RealMatrix mat) {
+		return new SingularValueDecomposition(mat, false).rank();
+	}
+
+	/**
+	 * Returns the Moore-Penrose pseudo-inverse of the given matrix, of any
+	 * dimension, even rank deficient.
+	 * 
+	 * @param mat the matrix
+	 * @return the pseudo-inverse of the given matrix
+	 * @see SingularValueDecomposition#pseudoInverse()
+	 */
+	public static RealMatrix matrixPseudoInverse(RealMatrix mat) {
+		return new SingularValueDecomposition(mat).pseudoInverse();
+	}
+
+	/**
+	 * Returns {@code true} if the given matrix is symmetric positive definite. The
+	 * test is an attempt of its Cholesky decomposition, stopped at the first pivot
+	 * that is not positive.
+	 * 
+	 * @param mat the matrix to test
+	 * @return whether the matrix is symmetric positive definite
+	 */
+	public static boolean isPositiveDefinite(RealMatrix mat) {
+		return CholeskyDecomposition.isPositiveDefinite(mat);
 	}
 
 	/**
@@ -1315,38 +2031,71 @@ public final class LinearAlgebra {
 	}
 
 	/**
-	 * Calculates the cofactor matrix of the given matrix.
+	 * Calculates the cofactor matrix of the given matrix, the transpose of its
+	 * adjugate (see {@link #matrixAdjugate(RealMatrix)}).
 	 * 
 	 * @param mat matrix for which the cofactor matrix is to be computed
 	 * @return the cofactor matrix of the given matrix
 	 * @throws NonSquareMatrixException if the given matrix is not square
 	 */
 	public static RealMatrix matrixCofactor(RealMatrix mat) {
-		if (!mat.isSquare())
-			throw new NonSquareMatrixException(mat.rowSize(), mat.columnSize());
-		int size = mat.rowSize();
-		if (size == 1) {
-			return (RealMatrix) mat.clone();
-		}
-		double[][] cof = new double[size][size];
-		for (int i = 0; i < size; i++) {
-			for (int j = 0; j < size; j++) {
-				double det = ((RealMatrix) mat.subMatrix(i, j)).determinant();
-				cof[i][j] = det * Math.pow(-1, i + j);
-			}
-		}
-		return new RealMatrix(cof);
+		return matrixAdjugate(mat).transpose();
 	}
 
 	/**
 	 * Calculates the adjugate of the given matrix.
+	 * <p>
+	 * Instead of computing the determinant of every submatrix, the matrix is
+	 * decomposed once (see {@link LUDecomposition}). If it is invertible, the
+	 * adjugate is obtained from <blockquote>
+	 * 
+	 * <pre>
+	 * adj(A) = |A| * A<sup>-1</sup>
+	 * </pre>
+	 * 
+	 * </blockquote> otherwise it is built from the null vectors of the matrix,
+	 * which gives a null matrix when the rank is lower than {@code n - 1}. Either
+	 * way it costs {@code O(n^3)}.
+	 * </p>
+	 * <p>
+	 * The result is rounded by the policy of the matrix. Scaling by the
+	 * determinant easily gives numbers of magnitude {@code 2^52} or more, which are
+	 * integers already and are left as computed.
+	 * </p>
 	 * 
 	 * @param mat the matrix for which the adjugate matrix is to be calculated
 	 * @return the adjugate of the given matrix
 	 * @throws NonSquareMatrixException if the given matrix is not square
 	 */
 	public static RealMatrix matrixAdjugate(RealMatrix mat) {
-		return matrixCofactor(mat).transpose();
+		return matrixAdjugate(mat, mat.getRoundingPolicy());
+	}
+
+	/**
+	 * Calculates the adjugate of the given matrix, rounded by the given policy
+	 * instead of the one of the matrix.
+	 * 
+	 * @param mat    the matrix for which the adjugate matrix is to be calculated
+	 * @param policy how the result is rounded
+	 * @return the adjugate of the given matrix
+	 * @throws NonSquareMatrixException if the given matrix is not square
+	 * @see #matrixAdjugate(RealMatrix)
+	 */
+	public static RealMatrix matrixAdjugate(RealMatrix mat, RoundingPolicy policy) {
+		LUDecomposition lu = new LUDecomposition(mat);
+		int size = lu.size();
+		if (size == 1)
+			return mat.inheritRoundingPolicy(new RealMatrix(new double[][] { { 1 } }, false, false));
+		RealMatrix adj;
+		if (lu.isSingular()) {
+			adj = new RealMatrix(LUDecomposition.rankDeficientAdjugate(mat), false, false);
+		} else {
+			adj = lu.inverse();
+			adj.scalarMultiply(lu.determinant());
+		}
+		for (int i = 0; i < size; i++)
+			policy.round(adj.rowReference(i), 0, size);
+		return mat.inheritRoundingPolicy(adj);
 	}
 
 	/**
@@ -1356,14 +2105,20 @@ public final class LinearAlgebra {
 	 * the original matrix, results in the identity matrix.
 	 * </p>
 	 * <p>
-	 * This implementation currently computes the inverse of a matrix A by the
-	 * adjugate definition: <blockquote>
+	 * The adjugate definition <blockquote>
 	 * 
 	 * <pre>
 	 * A<sup>-1</sup> = 1/|A| * adj(A)
 	 * </pre>
 	 * 
-	 * </blockquote>
+	 * </blockquote> is not evaluated as such: since the adjugate is itself
+	 * computed as {@code |A| * A^-1} (see {@link #matrixAdjugate(RealMatrix)}),
+	 * scaling it by {@code 1/|A|} would only add rounding errors, and overflow
+	 * with the determinant of large matrices. This method returns the inverse
+	 * from the {@link LUDecomposition} of the matrix, the same as
+	 * {@link #matrixInverseGaussianElimination(RealMatrix)}, rounded by the
+	 * policy of the matrix, which it inherits. It is kept for compatibility.
+	 * </p>
 	 * 
 	 * @param mat matrix for which the inverse is to be computed
 	 * @return the inverse of the given matrix
@@ -1371,15 +2126,7 @@ public final class LinearAlgebra {
 	 * @throws NonSquareMatrixException     if the given matrix is not square
 	 */
 	public static RealMatrix matrixInverseAdjugateDefinition(RealMatrix mat) throws NonInvertibleMatrixException {
-
-		double det = mat.determinant();
-		// for matrices 1x1 it makes inverse matrix to be always [1]
-		// But this fixes it
-		if (mat.rowSize() == 1)
-			det *= det;
-		if (det == 0)
-			throw new NonInvertibleMatrixException();
-		return matrixScalarMultiplication(matrixAdjugate(mat), 1d / det);
+		return matrixInverseGaussianElimination(mat);
 	}
 
 	/**
@@ -1389,11 +2136,10 @@ public final class LinearAlgebra {
 	 * the original matrix, results in the identity matrix.
 	 * </p>
 	 * <p>
-	 * This method calculates the inverse matrix using Gaussian elimination, which
-	 * involves augmenting the input matrix with the identity matrix and performing
-	 * row operations until the original matrix is transformed into the identity
-	 * matrix. The resulting transformed matrix on the right will be the inverse of
-	 * the input matrix.
+	 * This method calculates the inverse matrix using Gaussian elimination with
+	 * partial pivoting: the matrix is decomposed once as {@code P x A = L x U}
+	 * (see {@link LUDecomposition}) and then the columns of the identity matrix
+	 * are solved by forward and back substitution, all of them at the same time.
 	 * </p>
 	 * 
 	 * @param mat matrix for which the inverse is to be computed
@@ -1402,114 +2148,111 @@ public final class LinearAlgebra {
 	 * @throws NonSquareMatrixException     if the given matrix is not square
 	 */
 	public static RealMatrix matrixInverseGaussianElimination(RealMatrix mat) throws NonInvertibleMatrixException {
-		/**
-		 * The tests done in Test.java shows that this is significantly faster as the
-		 * matrix dimension grows. There is a very small difference of values, a
-		 * diference smaller than 10^12 Thats the reason why in Test.java
-		 * result.equals(result2) == false I still havent figured out which of them is
-		 * more accurate
-		 * ---------------------------------------------------------------------------
-		 */
-		if (!mat.isSquare())
-			throw new NonSquareMatrixException();
-
-		RealMatrix m = (RealMatrix) mat.clone();
-
-		int size = m.rowSize();
-
-		RealMatrix iden = matrixIdentity(size);
-
-		orderAndApplyOverIdentity(m, iden);
-
-		// Acheve row echelon form on m, applying the row operations also on the
-		// identity matrix
-		for (int i = 0; i < size - 1; i++) {
-			double[] currentRowM = m.getRow(i);
-			int indexPivotCurrentRowM = NumericArrays.indexFirstNotZeroNumber(currentRowM);
-			for (int j = i + 1; j < size; j++) {
-				double[] nextRowM = m.getRow(j);
-				int indexPivotNextRowM = NumericArrays.indexFirstNotZeroNumber(nextRowM);
-				if (indexPivotCurrentRowM == indexPivotNextRowM && indexPivotCurrentRowM != -1) {
-					double[] currentRowIden = iden.getRow(i);
-					double[] nextRowIden = iden.getRow(j);
-					double currentRowFirstNumber, nextRowFirstNumber, alpha;
-					currentRowFirstNumber = currentRowM[indexPivotCurrentRowM];
-					nextRowFirstNumber = nextRowM[indexPivotNextRowM];
-					alpha = Double.valueOf(nextRowFirstNumber / currentRowFirstNumber);
-					// Method over m
-					double[] auxiliarRow = LinearAlgebra.vectorScalarMultiplication(currentRowM, alpha);
-					auxiliarRow = LinearAlgebra.vectorSubtraction(nextRowM, auxiliarRow);
-					m.setRow(j, auxiliarRow);
-//					m.checkLength(auxiliarRow);
-					// Method over identiy
-					auxiliarRow = LinearAlgebra.vectorScalarMultiplication(currentRowIden, alpha);
-					auxiliarRow = LinearAlgebra.vectorSubtraction(nextRowIden, auxiliarRow);
-					iden.setRow(j, auxiliarRow);
-//					iden.checkLength(auxiliarRow);
-				}
-			}
-		}
-
-		orderAndApplyOverIdentity(m, iden);
-
-		// index of the pivot in last row of m
-		double aux = NumericArrays.indexFirstNotZeroNumber(m.getRow(size - 1));
-
-		// If the last row of mat is a null vector, it is not inversible
-		if (aux == -1)
-			throw new NonInvertibleMatrixException();
-
-		// aux = pivot of last row
-		aux = m.getNumber(size - 1, (int) aux);
+		return matrixInverseGaussianElimination(mat, mat.getRoundingPolicy());
+	}
 
-		// Make last row pivot to be 1, -> [0 0 ... 0 1]
-		if (aux != 1) {
-			m.setRow(size - 1, vectorScalarMultiplication(m.getRow(size - 1), 1d / aux));
-			iden.setRow(size - 1, vectorScalarMultiplication(iden.getRow(size - 1), 1d / aux));
-		}
+	/**
+	 * Calculates the inverse of the given matrix, if it exists, rounded by the
+	 * given policy instead of the one of the matrix.
+	 * 
+	 * @param mat    matrix for which the inverse is to be computed
+	 * @param policy how the result is rounded
+	 * @return the inverse of the given matrix
+	 * @throws NonInvertibleMatrixException if the given matrix is non invertible
+	 * @throws NonSquareMatrixException     if the given matrix is not square
+	 * @see #matrixInverseGaussianElimination(RealMatrix)
+	 */
+	public static RealMatrix matrixInverseGaussianElimination(RealMatrix mat, RoundingPolicy policy)
+			throws NonInvertibleMatrixException {
+		RealMatrix inverse = new LUDecomposition(mat).inverse();
+		int size = inverse.rowSize();
+		for (int i = 0; i < size; i++)
+			policy.round(inverse.rowReference(i), 0, size);
+		return mat.inheritRoundingPolicy(inverse);
+	}
 
-		// Subtract rows and divide corresponding rows in order to m to be identity
-		for (int i = size - 1; i > 0; i--) {
-			for (int j = i - 1; j >= 0; j--) {
-				double[] rowM = m.getRow(j);
-				double lastNum = rowM[i];
-//				if (lastNum == 0) continue;
-				// Method over m
-				rowM = vectorSubtraction(rowM, vectorScalarMultiplication(m.getRow(i), lastNum));
-				aux = rowM[j];
-				if (aux != 0)
-					rowM = vectorScalarMultiplication(rowM, 1d / aux);
-				m.setRow(j, rowM);
-				// Method over identity
-				double[] rowIden = iden.getRow(j);
-				rowIden = vectorSubtraction(rowIden, vectorScalarMultiplication(iden.getRow(i), lastNum));
-				if (aux != 0)
-					rowIden = vectorScalarMultiplication(rowIden, 1d / aux);
-				iden.setRow(j, rowIden);
-			}
-		}
+	// ---------------------------------------------------------------------------------------------------
+	// systems of linear equations
 
-		// m should be the identity matrix at this point
-		return iden;
+	/**
+	 * Solves the system of linear equations {@code A x = b}.
+	 * <p>
+	 * The matrix is decomposed as {@code P x A = L x U} and the system is solved by
+	 * forward and back substitution. This is faster and more accurate than
+	 * multiplying {@code b} by the inverse of {@code A}. To solve several systems
+	 * with the same matrix, keep its {@link LUDecomposition} instead.
+	 * </p>
+	 * 
+	 * @param a the matrix of coefficients
+	 * @param b the right hand side
+	 * @return the solution {@code x}
+	 * @throws NonSquareMatrixException     if {@code a} is not square
+	 * @throws NonInvertibleMatrixException if {@code a} is singular
+	 * @throws IncompatibleLengthsException if the length of {@code b} is not the
+	 *                                      number of rows of {@code a}
+	 */
+	public static double[] solve(RealMatrix a, double[] b) {
+		return new LUDecomposition(a).solve(b);
 	}
 
 	/**
-	 * Order the rows of mat, based on the index of the rows pivot. Every row swap
-	 * will also be performed in the identity matrix
+	 * Solves the systems of linear equations {@code A X = B}, one for every column
+	 * of {@code B}. The matrix is decomposed only once and all the right hand
+	 * sides are substituted together, by blocks of columns.
 	 * 
-	 * @param mat  matrix which to fin inverse matrix (only use of this method)
-	 * @param iden identity matrix where swap rows will also be performed
+	 * @param a the matrix of coefficients
+	 * @param b the right hand sides, one per column
+	 * @return the solution {@code X}, with the same dimension as {@code b}
+	 * @throws NonSquareMatrixException     if {@code a} is not square
+	 * @throws NonInvertibleMatrixException if {@code a} is singular
+	 * @throws MatrixDimensionException     if the number of rows of {@code b} is
+	 *                                      not the number of rows of {@code a}
 	 */
-	private static void orderAndApplyOverIdentity(RealMatrix mat, RealMatrix iden) {
-		for (int row1 = 0; row1 < mat.rowSize() - 1; row1++) {
-			for (int row2 = row1 + 1; row2 < mat.rowSize(); row2++) {
-				int indexRow1 = NumericArrays.indexFirstNotZeroNumber(mat.getRow(row1));
-				int indexRow2 = NumericArrays.indexFirstNotZeroNumber(mat.getRow(row2));
-				if (indexRow1 == -1 || (indexRow1 > indexRow2 && indexRow2 != -1)) {
-					mat.swapRows(row1, row2);
-					iden.swapRows(row1, row2);
-				}
-			}
-		}
+	public static RealMatrix solve(RealMatrix a, RealMatrix b) {
+		return new LUDecomposition(a).solve(b);
+	}
+
+	/**
+	 * Returns the least squares solution of {@code A x = b}, the {@code x} that
+	 * minimizes {@code ||A x - b||}, for a matrix with at least as many rows as
+	 * columns.
+	 * <p>
+	 * The matrix is decomposed as {@code A = Q x R} (see {@link QRDecomposition})
+	 * and {@code R x = Q^T b} is solved, which is more accurate than solving the
+	 * normal equations {@code A^T A x = A^T b}. To solve several systems with the
+	 * same matrix, keep its {@link QRDecomposition} instead.
+	 * </p>
+	 * 
+	 * @param a the matrix of coefficients
+	 * @param b the right hand side
+	 * @return the least squares solution {@code x}
+	 * @throws MatrixDimensionException     if {@code a} has fewer rows than
+	 *                                      columns
+	 * @throws NonInvertibleMatrixException if the columns of {@code a} are not
+	 *                                      linearly independent
+	 * @throws IncompatibleLengthsException if the length of {@code b} is not the
+	 *                                      number of rows of {@code a}
+	 */
+	public static double[] solveLeastSquares(RealMatrix a, double[] b) {
+		return new QRDecomposition(a).solve(b);
+	}
+
+	/**
+	 * Returns the least squares solution of {@code A X = B}, one for every column
+	 * of {@code B}. The matrix is decomposed only once and the reflections are
+	 * applied to all the right hand sides together.
+	 * 
+	 * @param a the matrix of coefficients
+	 * @param b the right hand sides, one per column
+	 * @return the least squares solution {@code X}
+	 * @throws MatrixDimensionException     if {@code a} has fewer rows than
+	 *                                      columns, or the number of rows of
+	 *                                      {@code b} is not the number of rows of
+	 *                                      {@code a}
+	 * @throws NonInvertibleMatrixException if the columns of {@code a} are not
+	 *                                      linearly independent
+	 */
+	public static RealMatrix solveLeastSquares(RealMatrix a, RealMatrix b) {
+		return new QRDecomposition(a).solve(b);
 	}
 }
\ No newline at end of file
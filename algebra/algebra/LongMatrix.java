@@ -0,0 +1,566 @@
+package algebra;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import exceptions.NonSquareMatrixException;
+import matrices.Index2d;
+
+/**
+ * Matrix of {@code long}s stored in a single contiguous {@code long[]}, row after
+ * row, with a fixed number of rows and columns.
+ * <p>
+ * Its arithmetic is exact, unlike that of {@link RealMatrix}, whose numbers are
+ * doubles. The plain operations ({@link #add(LongMatrix)},
+ * {@link #multiply(LongMatrix)}...) wrap around on overflow as the {@code long}
+ * operators do; the {@code Exact} ones throw an {@link ArithmeticException}
+ * instead and leave the matrix untouched.
+ * </p>
+ * <p>
+ * The determinant is computed by fraction-free (Bareiss) elimination, which
+ * only divides exactly, so it is exact too.
+ * </p>
+ */
+public class LongMatrix implements matrices.IterableMatrix, matrices.RegularMatrix, Cloneable, java.io.Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = -4471062817313994628L;
+
+	private long[] data;
+
+	private int rowsLength;
+	private int columnsLength;
+
+	public LongMatrix(int n) {
+		this(n, n);
+	}
+
+	public LongMatrix(int m, int n) {
+		// like the other matrices built from arrays, these can't be empty
+		if (m <= 0 || n <= 0)
+			throw new IllegalArgumentException("Illegal matrix dimension " + m + "x" + n);
+		data = new long[Math.multiplyExact(m, n)];
+		rowsLength = m;
+		columnsLength = n;
+	}
+
+	public LongMatrix(long[][] data) {
+		int r = data.length;
+		if (r == 0)
+			throw new IllegalArgumentException("Empty matrix");
+		int c = data[0].length;
+		if (c == 0)
+			throw new IllegalArgumentException("Empty row");
+		this.data = new long[Math.multiplyExact(r, c)];
+		for (int i = 0; i < r; i++) {
+			if (data[i].length != c)
+				throw new IllegalArgumentException("The 2d-array is not regular");
+			System.arraycopy(data[i], 0, this.data, i * c, c);
+		}
+		rowsLength = r;
+		columnsLength = c;
+	}
+
+	/**
+	 * Wraps the given array without copying it. The array must hold {@code r * c}
+	 * numbers laid out row after row.
+	 */
+	LongMatrix(long[] data, int r, int c) {
+		this.data = data;
+		rowsLength = r;
+		columnsLength = c;
+	}
+
+	public static LongMatrix random(int s) {
+		return random(s, s);
+	}
+
+	public static LongMatrix random(int r, int c) {
+		return random(r, c, -10, 10);
+	}
+
+	public static LongMatrix random(int r, int c, int min, int max) {
+		if (r <= 0 || c <= 0)
+			throw new IllegalArgumentException("Illegal matrix dimension " + r + "x" + c);
+		return new LongMatrix(NumericArrays.randomLongArray(Math.multiplyExact(r, c), min, max), r, c);
+	}
+
+	/**
+	 * Returns a {@link RealMatrix} holding the same numbers as this matrix, each
+	 * rounded to the nearest {@code double} (exact up to 2<sup>53</sup>).
+	 *
+	 * @return a new {@link RealMatrix} equal to this matrix
+	 */
+	public RealMatrix toRealMatrix() {
+		int r = rowSize(), c = columnSize();
+		double[][] mat = new double[r][c];
+		for (int i = 0; i < r; i++) {
+			double[] row = mat[i];
+			for (int j = 0, k = i * c; j < c; j++, k++)
+				row[j] = data[k];
+		}
+		return new RealMatrix(mat, false, false);
+	}
+
+	public long[][] data() {
+		int r = rowSize();
+		long[][] mat = new long[r][];
+		for (int i = 0; i < r; i++)
+			mat[i] = getRowUnsafe(i);
+		return mat;
+	}
+
+	public int rowSize() {
+		return rowsLength;
+	}
+
+	public int columnSize() {
+		return columnsLength;
+	}
+
+	public int totalSize() {
+		return rowSize() * columnSize();
+	}
+
+	public boolean isSquare() {
+		// 0x0 matrices won't be considerated square
+		return !isEmpty() && rowSize() == columnSize();
+	}
+
+	@Override
+	public Object clone() {
+		try {
+			LongMatrix m = (LongMatrix) super.clone();
+			m.data = data.clone();
+			return m;
+		} catch (CloneNotSupportedException e) {
+			throw new InternalError(e);
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof LongMatrix)) {
+			return false;
+		}
+		LongMatrix m = (LongMatrix) o;
+		return rowsLength == m.rowsLength && columnsLength == m.columnsLength && Arrays.equals(data, m.data);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * rowsLength + columnsLength) + Arrays.hashCode(data);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int i = 0; i < rowSize(); i++) {
+			sb.append(Arrays.toString(getRowUnsafe(i)));
+			if (i != rowSize() - 1) {
+				sb.append(", ");
+			}
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+
+	public void print() {
+		if (isEmpty()) {
+			System.out.println("[]");
+			return;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < rowSize(); i++) {
+			sb.append(Arrays.toString(getRowUnsafe(i))).append('\n');
+		}
+		System.out.println(sb.deleteCharAt(sb.length() - 1).toString());
+	}
+
+	public LongMatrix subMatrix(int indexRow, int indexColumn) {
+		if (isEmpty() || rowSize() == 1 || columnSize() == 1) {
+			throw new IllegalArgumentException();
+		}
+		checkIndexForNumber(indexRow, indexColumn);
+
+		int r = rowsLength - 1, c = columnsLength - 1;
+		long[] mat = new long[r * c];
+		int a = 0;
+		for (int i = 0; i < rowsLength; i++) {
+			if (i == indexRow)
+				continue;
+			int offset = i * columnsLength;
+			System.arraycopy(data, offset, mat, a, indexColumn);
+			System.arraycopy(data, offset + indexColumn + 1, mat, a + indexColumn, c - indexColumn);
+			a += c;
+		}
+		return new LongMatrix(mat, r, c);
+	}
+
+	public Index2d indexOf(long number) {
+		for (int k = 0; k < data.length; k++) {
+			if (data[k] == number)
+				return new Index2d(k / columnsLength, k % columnsLength);
+		}
+		return null;
+	}
+
+	public Index2d lastIndexOf(long number) {
+		for (int k = data.length - 1; k >= 0; k--) {
+			if (data[k] == number)
+				return new Index2d(k / columnsLength, k % columnsLength);
+		}
+		return null;
+	}
+
+	public long[] getRow(int index) {
+		checkIndexForRow(index);
+		return getRowUnsafe(index);
+	}
+
+	private long[] getRowUnsafe(int index) {
+		int offset = index * columnsLength;
+		return Arrays.copyOfRange(data, offset, offset + columnsLength);
+	}
+
+	public long[] getColumn(int index) {
+		checkIndexForColumn(index);
+		long[] column = new long[rowsLength];
+		for (int i = 0, k = index; i < rowsLength; i++, k += columnsLength)
+			column[i] = data[k];
+		return column;
+	}
+
+	public long getNumber(int indexRow, int indexColumn) {
+		checkIndexForNumber(indexRow, indexColumn);
+		return data[indexRow * columnsLength + indexColumn];
+	}
+
+	public long setNumber(int indexRow, int indexColumn, long newNumber) {
+		checkIndexForNumber(indexRow, indexColumn);
+		int k = indexRow * columnsLength + indexColumn;
+		long removedNumber = data[k];
+		data[k] = newNumber;
+		return removedNumber;
+	}
+
+	public long[] setRow(int index, long[] newRow) {
+		checkIndexForRow(index);
+		if (newRow.length != columnsLength)
+			throw new IllegalArgumentException();
+		long[] removedRow = getRowUnsafe(index);
+		System.arraycopy(newRow, 0, data, index * columnsLength, columnsLength);
+		return removedRow;
+	}
+
+	public long[] setColumn(int index, long[] newColumn) {
+		checkIndexForColumn(index);
+		if (newColumn.length != rowsLength)
+			throw new IllegalArgumentException();
+		long[] removedColumn = new long[rowsLength];
+		for (int i = 0, k = index; i < rowsLength; i++, k += columnsLength) {
+			removedColumn[i] = data[k];
+			data[k] = newColumn[i];
+		}
+		return removedColumn;
+	}
+
+	public void swapRows(int indexRow1, int indexRow2) {
+		checkIndexForRow(indexRow1);
+		checkIndexForRow(indexRow2);
+		if (indexRow1 == indexRow2)
+			return;
+		int a = indexRow1 * columnsLength, b = indexRow2 * columnsLength;
+		for (int j = 0; j < columnsLength; j++) {
+			long temp = data[a + j];
+			data[a + j] = data[b + j];
+			data[b + j] = temp;
+		}
+	}
+
+	private void checkIndexForRow(int index) {
+		Utils.checkIndex(index, rowSize() - 1);
+	}
+
+	private void checkIndexForColumn(int index) {
+		Utils.checkIndex(index, columnSize() - 1);
+	}
+
+	private void checkIndexForNumber(int indexR, int indexC) {
+		checkIndexForRow(indexR);
+		checkIndexForColumn(indexC);
+	}
+
+	/*
+	 * ------------------------------------------------------------
+	 * --------------------- ALGEBRA METHODS ----------------------
+	 * ------------------------------------------------------------
+	 */
+
+	/**
+	 * Adds the given matrix to this one, wrapping around on overflow.
+	 */
+	public void add(LongMatrix m) {
+		Utils.checkMatricesSameDimension(this, m);
+		for (int k = 0; k < data.length; k++)
+			data[k] += m.data[k];
+	}
+
+	/**
+	 * Subtracts the given matrix from this one, wrapping around on overflow.
+	 */
+	public void subtract(LongMatrix m) {
+		Utils.checkMatricesSameDimension(this, m);
+		for (int k = 0; k < data.length; k++)
+			data[k] -= m.data[k];
+	}
+
+	/**
+	 * Multiplies every number of this matrix by {@code alpha}, wrapping around on
+	 * overflow.
+	 */
+	public void scalarMultiply(long alpha) {
+		for (int k = 0; k < data.length; k++)
+			data[k] *= alpha;
+	}
+
+	/**
+	 * Adds the given matrix to this one.
+	 *
+	 * @param m the matrix to add
+	 * @throws ArithmeticException if any of the sums overflows a {@code long}, in
+	 *                             which case this matrix is left untouched
+	 */
+	public void addExact(LongMatrix m) {
+		Utils.checkMatricesSameDimension(this, m);
+		long[] res = new long[data.length];
+		for (int k = 0; k < res.length; k++)
+			res[k] = Math.addExact(data[k], m.data[k]);
+		data = res;
+	}
+
+	/**
+	 * Subtracts the given matrix from this one.
+	 *
+	 * @param m the matrix to subtract
+	 * @throws ArithmeticException if any of the differences overflows a
+	 *                             {@code long}, in which case this matrix is left
+	 *                             untouched
+	 */
+	public void subtractExact(LongMatrix m) {
+		Utils.checkMatricesSameDimension(this, m);
+		long[] res = new long[data.length];
+		for (int k = 0; k < res.length; k++)
+			res[k] = Math.subtractExact(data[k], m.data[k]);
+		data = res;
+	}
+
+	/**
+	 * Multiplies this matrix by the given one, {@code this = this x m}, wrapping
+	 * around on overflow.
+	 *
+	 * @param m right hand side of the product
+	 * @throws IllegalArgumentException if the number of columns of this matrix is
+	 *                                  not equal to the number of rows of {@code m}
+	 */
+	public void multiply(LongMatrix m) {
+		Utils.checkMatricesCorrectDimensionForMultiplication(this, m);
+		data = product(m, false);
+		columnsLength = m.columnsLength;
+	}
+
+	/**
+	 * Multiplies this matrix by the given one, {@code this = this x m}.
+	 * <p>
+	 * When the largest numbers of both matrices are small enough for no sum of
+	 * products to overflow, the product is computed as
+	 * {@link #multiply(LongMatrix)} does; only otherwise is every operation
+	 * checked.
+	 * </p>
+	 *
+	 * @param m right hand side of the product
+	 * @throws IllegalArgumentException if the number of columns of this matrix is
+	 *                                  not equal to the number of rows of {@code m}
+	 * @throws ArithmeticException      if a product or a partial sum overflows a
+	 *                                  {@code long}, in which case this matrix is
+	 *                                  left untouched
+	 */
+	public void multiplyExact(LongMatrix m) {
+		Utils.checkMatricesCorrectDimensionForMultiplication(this, m);
+		boolean safe = maxAbs(data) * maxAbs(m.data) * columnsLength <= 0x1p62;
+		data = product(m, !safe);
+		columnsLength = m.columnsLength;
+	}
+
+	private long[] product(LongMatrix m, boolean exact) {
+		int r = rowsLength, c = m.columnsLength, common = columnsLength;
+		long[] res = new long[Math.multiplyExact(r, c)];
+		for (int i = 0; i < r; i++) {
+			int rowA = i * common, rowC = i * c;
+			for (int p = 0; p < common; p++) {
+				long aip = data[rowA + p];
+				if (aip == 0)
+					continue;
+				int rowB = p * c;
+				if (exact)
+					for (int j = 0; j < c; j++)
+						res[rowC + j] = Math.addExact(res[rowC + j], Math.multiplyExact(aip, m.data[rowB + j]));
+				else
+					for (int j = 0; j < c; j++)
+						res[rowC + j] += aip * m.data[rowB + j];
+			}
+		}
+		return res;
+	}
+
+	private static double maxAbs(long[] arr) {
+		double max = 0;
+		for (long n : arr)
+			max = Math.max(max, Math.abs((double) n));
+		return max;
+	}
+
+	/**
+	 * Returns the transpose of this matrix.
+	 *
+	 * @return the transpose of this matrix
+	 */
+	public LongMatrix transpose() {
+		int r = rowSize(), c = columnSize();
+		long[] t = new long[c * r];
+		for (int i = 0; i < r; i++) {
+			int offset = i * c;
+			for (int j = 0; j < c; j++)
+				t[j * r + i] = data[offset + j];
+		}
+		return new LongMatrix(t, c, r);
+	}
+
+	/**
+	 * Returns the determinant of this matrix, computed exactly by Bareiss'
+	 * fraction-free elimination.
+	 * <p>
+	 * Every number the elimination produces is the determinant of a minor of the
+	 * matrix and every division is exact, so no fractions (nor rounding errors)
+	 * appear. It costs {@code O(n^3)} operations on {@code long}s; only when one
+	 * of them overflows is the elimination repeated on {@link BigInteger}s.
+	 * </p>
+	 *
+	 * @return the determinant of this matrix
+	 * @throws NonSquareMatrixException if this matrix is not square
+	 * @throws ArithmeticException      if the determinant does not fit in a
+	 *                                  {@code long}
+	 */
+	public long determinant() {
+		checkSquare();
+		try {
+			return bareiss(data.clone(), rowsLength);
+		} catch (ArithmeticException e) {
+			return bareiss(toBig(data), rowsLength).longValueExact();
+		}
+	}
+
+	/**
+	 * Returns the determinant of this matrix, whatever its size. Same as
+	 * {@link #determinant()}, with the elimination done on {@link BigInteger}s.
+	 *
+	 * @return the determinant of this matrix
+	 * @throws NonSquareMatrixException if this matrix is not square
+	 */
+	public BigInteger bigDeterminant() {
+		checkSquare();
+		return bareiss(toBig(data), rowsLength);
+	}
+
+	private void checkSquare() {
+		if (!isSquare())
+			throw new NonSquareMatrixException(rowsLength, columnsLength);
+	}
+
+	private static BigInteger[] toBig(long[] arr) {
+		BigInteger[] res = new BigInteger[arr.length];
+		for (int i = 0; i < arr.length; i++)
+			res[i] = BigInteger.valueOf(arr[i]);
+		return res;
+	}
+
+	/**
+	 * Bareiss elimination of the {@code n x n} matrix held row after row in
+	 * {@code a}, which is overwritten.
+	 *
+	 * @throws ArithmeticException if an intermediate product overflows
+	 */
+	private static long bareiss(long[] a, int n) {
+		boolean negate = false;
+		long previous = 1;
+		for (int k = 0; k < n - 1; k++) {
+			int rowK = k * n;
+			if (a[rowK + k] == 0) {
+				int i = k + 1;
+				while (i < n && a[i * n + k] == 0)
+					i++;
+				if (i == n)
+					return 0;
+				swapRows(a, n, i, k);
+				negate = !negate;
+			}
+			long pivot = a[rowK + k];
+			for (int i = k + 1; i < n; i++) {
+				int rowI = i * n;
+				long aik = a[rowI + k];
+				for (int j = k + 1; j < n; j++)
+					a[rowI + j] = Math.subtractExact(Math.multiplyExact(a[rowI + j], pivot),
+							Math.multiplyExact(aik, a[rowK + j])) / previous;
+			}
+			previous = pivot;
+		}
+		long det = a[n * n - 1];
+		return negate ? Math.negateExact(det) : det;
+	}
+
+	private static BigInteger bareiss(BigInteger[] a, int n) {
+		boolean negate = false;
+		BigInteger previous = BigInteger.ONE;
+		for (int k = 0; k < n - 1; k++) {
+			int rowK = k * n;
+			if (a[rowK + k].signum() == 0) {
+				int i = k + 1;
+				while (i < n && a[i * n + k].signum() == 0)
+					i++;
+				if (i == n)
+					return BigInteger.ZERO;
+				swapRows(a, n, i, k);
+				negate = !negate;
+			}
+			BigInteger pivot = a[rowK + k];
+			for (int i = k + 1; i < n; i++) {
+				int rowI = i * n;
+				BigInteger aik = a[rowI + k];
+				for (int j = k + 1; j < n; j++)
+					a[rowI + j] = a[rowI + j].multiply(pivot).subtract(aik.multiply(a[rowK + j])).divide(previous);
+			}
+			previous = pivot;
+		}
+		BigInteger det = a[n * n - 1];
+		return negate ? det.negate() : det;
+	}
+
+	private static void swapRows(long[] a, int n, int i1, int i2) {
+		for (int j = 0, a1 = i1 * n, a2 = i2 * n; j < n; j++) {
+			long temp = a[a1 + j];
+			a[a1 + j] = a[a2 + j];
+			a[a2 + j] = temp;
+		}
+	}
+
+	private static void swapRows(Object[] a, int n, int i1, int i2) {
+		for (int j = 0, a1 = i1 * n, a2 = i2 * n; j < n; j++) {
+			Object temp = a[a1 + j];
+			a[a1 + j] = a[a2 + j];
+			a[a2 + j] = temp;
+		}
+	}
+
+}
@@ -0,0 +1,109 @@
+package algebra;
+
+/**
+ * Product of a chain of matrices {@code m1 x m2 x ... x mn}, computed in the
+ * cheapest order.
+ * <p>
+ * The product is associative but its cost is not: a {@code p x q} times
+ * {@code q x r} product takes {@code p * q * r} multiplications, so for a
+ * {@code 10000 x 50}, {@code 50 x 10000}, {@code 10000 x 50} chain, going from
+ * left to right takes {@code 10^10} of them while starting from the right takes
+ * {@code 5 * 10^7}. The order is chosen by the classic dynamic programming over
+ * the dimensions of the chain, in {@code O(n^3)} for {@code n} matrices, and
+ * then the products are computed sharing the same packing buffers.
+ * </p>
+ */
+final class MatrixChain {
+
+	private MatrixChain() {
+	}
+
+	/**
+	 * Returns the product of the given matrices, rounded once at the end by the
+	 * policy of the first one (or after every operation, if that is its policy).
+	 *
+	 * @throws IllegalArgumentException if there are no matrices or two adjacent
+	 *                                  ones can't be multiplied
+	 */
+	static RealMatrix multiply(RealMatrix... matrices) {
+		int n = matrices.length;
+		if (n == 0)
+			throw new IllegalArgumentException("Empty chain");
+		for (int i = 1; i < n; i++)
+			Utils.checkMatricesCorrectDimensionForMultiplication(matrices[i - 1], matrices[i]);
+		RoundingPolicy policy = matrices[0].getRoundingPolicy();
+		if (n == 1)
+			return (RealMatrix) matrices[0].clone();
+		int[] dims = new int[n + 1];
+		for (int i = 0; i < n; i++)
+			dims[i] = matrices[i].rowSize();
+		dims[n] = matrices[n - 1].columnSize();
+		int[][] split = order(dims);
+		RealMatrix res;
+		if (policy == RoundingPolicy.SNAP_PER_OP)
+			res = multiplySnapping(matrices, split, 0, n - 1);
+		else {
+			double[][] numbers = multiply(matrices, split, 0, n - 1, new GemmKernel.Buffers());
+			policy.round(numbers, dims[n]);
+			res = new RealMatrix(numbers, false, false);
+		}
+		return matrices[0].inheritRoundingPolicy(res);
+	}
+
+	/**
+	 * Returns the table of the best splits for the chain with the given
+	 * dimensions, where matrix {@code i} is {@code dims[i] x dims[i + 1]}: the
+	 * cheapest product of matrices {@code i} to {@code j} is the one of matrices
+	 * {@code i} to {@code split[i][j]} times the one of the rest.
+	 */
+	static int[][] order(int[] dims) {
+		int n = dims.length - 1;
+		long[][] cost = new long[n][n];
+		int[][] split = new int[n][n];
+		for (int length = 2; length <= n; length++) {
+			for (int i = 0, j = length - 1; j < n; i++, j++) {
+				cost[i][j] = Long.MAX_VALUE;
+				for (int s = i; s < j; s++) {
+					long c = cost[i][s] + cost[s + 1][j] + (long) dims[i] * dims[s + 1] * dims[j + 1];
+					if (c < cost[i][j]) {
+						cost[i][j] = c;
+						split[i][j] = s;
+					}
+				}
+			}
+		}
+		return split;
+	}
+
+	private static double[][] multiply(RealMatrix[] matrices, int[][] split, int i, int j,
+			GemmKernel.Buffers buffers) {
+		if (i == j)
+			return rows(matrices[i]);
+		int s = split[i][j];
+		double[][] a = multiply(matrices, split, i, s, buffers);
+		double[][] b = multiply(matrices, split, s + 1, j, buffers);
+		int r = matrices[i].rowSize(), c = matrices[j].columnSize(), common = matrices[s].columnSize();
+		double[][] res = new double[r][c];
+		GemmKernel.multiply(a, b, res, r, c, common, buffers);
+		return res;
+	}
+
+	private static RealMatrix multiplySnapping(RealMatrix[] matrices, int[][] split, int i, int j) {
+		if (i == j)
+			return matrices[i];
+		int s = split[i][j];
+		return RealMatrix.product(multiplySnapping(matrices, split, i, s), multiplySnapping(matrices, split, s + 1, j),
+				null, RoundingPolicy.SNAP_PER_OP);
+	}
+
+	/**
+	 * Returns the rows of the given matrix, without copying them.
+	 */
+	private static double[][] rows(RealMatrix m) {
+		double[][] rows = new double[m.rowSize()][];
+		for (int i = 0; i < rows.length; i++)
+			rows[i] = m.rowReference(i);
+		return rows;
+	}
+
+}
@@ -0,0 +1,228 @@
+package algebra;
+
+import java.util.Arrays;
+
+/**
+ * Lazy sum of scaled matrices, such as {@code a + b - alpha * c}, evaluated in a
+ * single pass into a single result.
+ * <p>
+ * {@link MatrixOperations#addMatrices(RealMatrix, RealMatrix)} and the like
+ * compute every intermediate result as a full matrix. An expression instead
+ * only records its operands: additions, subtractions and products by scalars
+ * are all linear, so any chain of them is kept as a linear combination
+ * <blockquote>
+ *
+ * <pre>
+ * alpha<sub>1</sub> * M<sub>1</sub> + alpha<sub>2</sub> * M<sub>2</sub> + ... + alpha<sub>n</sub> * M<sub>n</sub>
+ * </pre>
+ *
+ * </blockquote> where a matrix appearing several times is kept once with the
+ * sum of its coefficients. {@link #evaluate()} then builds every row of the
+ * result from the rows of the operands, reading each of them once, while the
+ * row of the result stays in cache.
+ * </p>
+ * <p>
+ * Expressions are immutable, and every operation returns a new one. Operands are
+ * read when the expression is evaluated, not when it is built, so changes to
+ * them in between are seen by the result.
+ * </p>
+ */
+public final class MatrixExpression {
+
+	private final RealMatrix[] operands;
+	private final double[] coefficients;
+	private final int rows;
+	private final int columns;
+
+	private MatrixExpression(RealMatrix[] operands, double[] coefficients, int rows, int columns) {
+		this.operands = operands;
+		this.coefficients = coefficients;
+		this.rows = rows;
+		this.columns = columns;
+	}
+
+	/**
+	 * Returns the expression holding only the given matrix.
+	 *
+	 * @param m the matrix
+	 * @return the expression {@code m}
+	 */
+	public static MatrixExpression of(RealMatrix m) {
+		return new MatrixExpression(new RealMatrix[] { m }, new double[] { 1 }, m.rowSize(), m.columnSize());
+	}
+
+	public int rowSize() {
+		return rows;
+	}
+
+	public int columnSize() {
+		return columns;
+	}
+
+	/**
+	 * Returns {@code this + m}.
+	 *
+	 * @throws IllegalArgumentException if the dimensions are different
+	 */
+	public MatrixExpression plus(RealMatrix m) {
+		return combine(1, of(m));
+	}
+
+	/**
+	 * Returns {@code this + e}.
+	 *
+	 * @throws IllegalArgumentException if the dimensions are different
+	 */
+	public MatrixExpression plus(MatrixExpression e) {
+		return combine(1, e);
+	}
+
+	/**
+	 * Returns {@code this - m}.
+	 *
+	 * @throws IllegalArgumentException if the dimensions are different
+	 */
+	public MatrixExpression minus(RealMatrix m) {
+		return combine(-1, of(m));
+	}
+
+	/**
+	 * Returns {@code this - e}.
+	 *
+	 * @throws IllegalArgumentException if the dimensions are different
+	 */
+	public MatrixExpression minus(MatrixExpression e) {
+		return combine(-1, e);
+	}
+
+	/**
+	 * Returns {@code this + alpha * m}.
+	 *
+	 * @throws IllegalArgumentException if the dimensions are different
+	 */
+	public MatrixExpression plusScaled(double alpha, RealMatrix m) {
+		return combine(alpha, of(m));
+	}
+
+	/**
+	 * Returns {@code alpha * this}.
+	 */
+	public MatrixExpression times(double alpha) {
+		double[] c = coefficients.clone();
+		for (int k = 0; k < c.length; k++)
+			c[k] *= alpha;
+		return new MatrixExpression(operands, c, rows, columns);
+	}
+
+	/**
+	 * Returns {@code this + alpha * e}, merging the coefficients of the operands
+	 * both expressions share.
+	 */
+	private MatrixExpression combine(double alpha, MatrixExpression e) {
+		if (rows != e.rows || columns != e.columns)
+			throw new IllegalArgumentException();
+		RealMatrix[] ops = Arrays.copyOf(operands, operands.length + e.operands.length);
+		double[] c = Arrays.copyOf(coefficients, ops.length);
+		int size = operands.length;
+		next: for (int k = 0; k < e.operands.length; k++) {
+			double coefficient = alpha * e.coefficients[k];
+			for (int i = 0; i < size; i++) {
+				if (ops[i] == e.operands[k]) {
+					c[i] += coefficient;
+					continue next;
+				}
+			}
+			ops[size] = e.operands[k];
+			c[size++] = coefficient;
+		}
+		return new MatrixExpression(Arrays.copyOf(ops, size), Arrays.copyOf(c, size), rows, columns);
+	}
+
+	/**
+	 * Evaluates this expression into a new matrix, which has the rounding policy
+	 * of the first operand.
+	 *
+	 * @return a new matrix holding the value of this expression
+	 */
+	public RealMatrix evaluate() {
+		double[][] res = new double[rows][columns];
+		evaluate(res, -1);
+		return operands[0].inheritRoundingPolicy(new RealMatrix(res, false, false));
+	}
+
+	/**
+	 * Evaluates this expression into the given matrix, overwriting its numbers.
+	 * The matrix may be one of the operands.
+	 *
+	 * @param dest matrix where the result is written
+	 * @throws IllegalArgumentException if {@code dest} has a different dimension
+	 */
+	public void evaluateInto(RealMatrix dest) {
+		Utils.checkMatricesSameDimension(dest, operands[0]);
+		double[][] res = new double[rows][];
+		for (int i = 0; i < rows; i++)
+			res[i] = dest.rowReference(i);
+		int self = -1;
+		for (int k = 0; k < operands.length; k++)
+			if (operands[k] == dest)
+				self = k;
+		evaluate(res, self);
+	}
+
+	/**
+	 * Writes the value of this expression into {@code res}. When {@code self} is
+	 * not negative, {@code res} holds the rows of that operand: it is scaled in
+	 * place before the other operands are added, so it is read before being
+	 * overwritten.
+	 */
+	private void evaluate(double[][] res, int self) {
+		for (int i = 0; i < rows; i++) {
+			double[] row = res[i];
+			boolean written = false;
+			if (self >= 0) {
+				if (coefficients[self] != 1)
+					ArrayKernels.scale(coefficients[self], row, row, 0, columns);
+				written = true;
+			}
+			for (int k = 0; k < operands.length; k++) {
+				double alpha = coefficients[k];
+				// zero coefficients are not skipped, so Inf and NaN propagate as in
+				// the eager operations
+				if (k == self)
+					continue;
+				double[] x = operands[k].rowReference(i);
+				if (!written) {
+					if (alpha == 1)
+						System.arraycopy(x, 0, row, 0, columns);
+					else
+						ArrayKernels.scale(alpha, x, row, 0, columns);
+					written = true;
+				} else if (alpha == 1)
+					ArrayKernels.add(row, x, row, 0, columns);
+				else if (alpha == -1)
+					ArrayKernels.subtract(row, x, row, 0, columns);
+				else
+					ArrayKernels.axpy(alpha, x, row, 0, columns);
+			}
+			if (!written)
+				Arrays.fill(row, 0, columns, 0);
+		}
+	}
+
+	/**
+	 * Returns the expression as a linear combination of numbered operands, as in
+	 * {@code 1.0 * M0(2x2) + -2.0 * M1(2x2)}.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int k = 0; k < operands.length; k++) {
+			if (k > 0)
+				sb.append(" + ");
+			sb.append(coefficients[k]).append(" * M").append(k).append('(').append(rows).append('x').append(columns)
+					.append(')');
+		}
+		return sb.toString();
+	}
+
+}
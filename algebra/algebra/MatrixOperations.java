@@ -1,8 +1,9 @@
 package algebra;
 
+import java.util.concurrent.ForkJoinPool;
+
 public final class MatrixOperations {
 
-//	TODO sparse matrices?
 //	private static Double ZERO = Double.valueOf(0.0d);
 
 	/**
@@ -86,10 +87,64 @@ public final class MatrixOperations {
 
 	public static RealMatrix multiplyMatrices(RealMatrix mat1, RealMatrix mat2) {
 //		return new RealMatrix(multiplyArrays2d(mat1.data(), mat2.data()), false, false);
-		Utils.checkMatricesSameDimension(mat1, mat2);
-		RealMatrix m = (RealMatrix) mat1.clone();
-		m.multiply(mat2);
-		return m;
+		return RealMatrix.product(mat1, mat2);
+	}
+
+	/**
+	 * Same as {@link #multiplyMatrices(RealMatrix, RealMatrix)}, rounded by the
+	 * given policy instead of the one of {@code mat1}.
+	 */
+	public static RealMatrix multiplyMatrices(RealMatrix mat1, RealMatrix mat2, RoundingPolicy policy) {
+		return RealMatrix.product(mat1, mat2, null, policy);
+	}
+
+	/**
+	 * Returns {@code matrices[0] x matrices[1] x ... x matrices[n - 1]}, choosing
+	 * the order of the products by their cost. The result has the rounding policy
+	 * of the first matrix, applied once at the end.
+	 *
+	 * @throws IllegalArgumentException if there are no matrices or two adjacent
+	 *                                  ones can't be multiplied
+	 */
+	public static RealMatrix multiplyChain(RealMatrix... matrices) {
+		return MatrixChain.multiply(matrices);
+	}
+
+	private static volatile ForkJoinPool parallelPool = ForkJoinPool.commonPool();
+
+	/**
+	 * Sets the pool used by the parallel operations when no pool is given. By
+	 * default it is {@link ForkJoinPool#commonPool()}; a dedicated pool bounds the
+	 * number of threads these operations can take.
+	 *
+	 * @param pool the pool to use from now on
+	 * @throws NullPointerException if {@code pool} is null
+	 */
+	public static void setParallelPool(ForkJoinPool pool) {
+		if (pool == null)
+			throw new NullPointerException();
+		parallelPool = pool;
+	}
+
+	public static ForkJoinPool getParallelPool() {
+		return parallelPool;
+	}
+
+	/**
+	 * Same as {@link #multiplyMatrices(RealMatrix, RealMatrix)}, computed in the
+	 * pool given to {@link #setParallelPool(ForkJoinPool)}.
+	 */
+	public static RealMatrix multiplyMatricesParallel(RealMatrix mat1, RealMatrix mat2) {
+		return multiplyMatricesParallel(mat1, mat2, parallelPool);
+	}
+
+	/**
+	 * Same as {@link #multiplyMatrices(RealMatrix, RealMatrix)}, with the blocks
+	 * of the result computed in the given pool. Small products are computed by the
+	 * calling thread.
+	 */
+	public static RealMatrix multiplyMatricesParallel(RealMatrix mat1, RealMatrix mat2, ForkJoinPool pool) {
+		return RealMatrix.product(mat1, mat2, pool);
 	}
 
 	public static RealMatrix matrixScalarMultiplication(RealMatrix mat, double alpha) {
@@ -1,5 +1,6 @@
 package algebra;
 
+import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
 import exceptions.IncompatibleLengthsException;
 
@@ -33,6 +34,13 @@ public final class NumericArrays {
 	static void checkIfOperationCanBePerformed(double[] arr1, double[] arr2) {checkEmptiness(arr1);checkEmptiness(arr2);if (arr1.length != arr2.length)differentSize(arr1.length, arr2.length);}
 	static <T extends Number> void checkIfOperationCanBePerformed(T[] arr1, T[] arr2) {checkEmptiness(arr1);checkEmptiness(arr2);if (arr1.length != arr2.length)differentSize(arr1.length, arr2.length);}
 
+	static void checkDestination(int[] arr, int[] dest) {if (arr.length != dest.length) differentSize(arr.length, dest.length);}
+	static void checkDestination(byte[] arr, byte[] dest) {if (arr.length != dest.length) differentSize(arr.length, dest.length);}
+	static void checkDestination(short[] arr, short[] dest) {if (arr.length != dest.length) differentSize(arr.length, dest.length);}
+	static void checkDestination(long[] arr, long[] dest) {if (arr.length != dest.length) differentSize(arr.length, dest.length);}
+	static void checkDestination(float[] arr, float[] dest) {if (arr.length != dest.length) differentSize(arr.length, dest.length);}
+	static void checkDestination(double[] arr, double[] dest) {if (arr.length != dest.length) differentSize(arr.length, dest.length);}
+
 	/**
 	 * Performs element-wise addition on two arrays.
 	 * @param arr1 first array
@@ -41,7 +49,21 @@ public final class NumericArrays {
 	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
 	 */
 	public static int[] arrayAddition(int[] arr1, int[] arr2) {
-		return intArrayOp(arr1, arr2, 1);
+		return intArrayOp(arr1, arr2, 1, new int[arr1.length]);
+	}
+
+	/**
+	 * Performs element-wise addition on two arrays, writing it into the given
+	 * destination instead of a new array. The destination may be one of the
+	 * operands.
+	 * @param arr1 first array
+	 * @param arr2 second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the element-wise addition ({@code arr1 + arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static int[] arrayAddition(int[] arr1, int[] arr2, int[] dest) {
+		return intArrayOp(arr1, arr2, 1, dest);
 	}
 
 	/**
@@ -52,7 +74,21 @@ public final class NumericArrays {
 	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
 	 */
 	public static int[] arraySubtraction(int[] arr1, int[] arr2) {
-		return intArrayOp(arr1, arr2, -1);
+		return intArrayOp(arr1, arr2, -1, new int[arr1.length]);
+	}
+
+	/**
+	 * Performs element-wise subtraction on two arrays, writing it into the given
+	 * destination instead of a new array. The destination may be one of the
+	 * operands.
+	 * @param arr1 first array
+	 * @param arr2 second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the element-wise subtraction ({@code arr1 - arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static int[] arraySubtraction(int[] arr1, int[] arr2, int[] dest) {
+		return intArrayOp(arr1, arr2, -1, dest);
 	}
 
 	/**
@@ -63,7 +99,21 @@ public final class NumericArrays {
 	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
 	 */
 	public static byte[] arrayAddition(byte[] arr1, byte[] arr2) {
-		return byteArrayOp(arr1, arr2, 1);
+		return byteArrayOp(arr1, arr2, 1, new byte[arr1.length]);
+	}
+
+	/**
+	 * Performs element-wise addition on two arrays, writing it into the given
+	 * destination instead of a new array. The destination may be one of the
+	 * operands.
+	 * @param arr1 first array
+	 * @param arr2 second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the element-wise addition ({@code arr1 + arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static byte[] arrayAddition(byte[] arr1, byte[] arr2, byte[] dest) {
+		return byteArrayOp(arr1, arr2, 1, dest);
 	}
 
 	/**
@@ -74,7 +124,21 @@ public final class NumericArrays {
 	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
 	 */
 	public static byte[] arraySubtraction(byte[] arr1, byte[] arr2) {
-		return byteArrayOp(arr1, arr2, -1);
+		return byteArrayOp(arr1, arr2, -1, new byte[arr1.length]);
+	}
+
+	/**
+	 * Performs element-wise subtraction on two arrays, writing it into the given
+	 * destination instead of a new array. The destination may be one of the
+	 * operands.
+	 * @param arr1 first array
+	 * @param arr2 second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the element-wise subtraction ({@code arr1 - arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static byte[] arraySubtraction(byte[] arr1, byte[] arr2, byte[] dest) {
+		return byteArrayOp(arr1, arr2, -1, dest);
 	}
 
 	/**
@@ -85,7 +149,21 @@ public final class NumericArrays {
 	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
 	 */
 	public static short[] arrayAddition(short[] arr1, short[] arr2) {
-		return shortArrayOp(arr1, arr2, 1);
+		return shortArrayOp(arr1, arr2, 1, new short[arr1.length]);
+	}
+
+	/**
+	 * Performs element-wise addition on two arrays, writing it into the given
+	 * destination instead of a new array. The destination may be one of the
+	 * operands.
+	 * @param arr1 first array
+	 * @param arr2 second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the element-wise addition ({@code arr1 + arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static short[] arrayAddition(short[] arr1, short[] arr2, short[] dest) {
+		return shortArrayOp(arr1, arr2, 1, dest);
 	}
 
 	/**
@@ -96,7 +174,21 @@ public final class NumericArrays {
 	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
 	 */
 	public static short[] arraySubtraction(short[] arr1, short[] arr2) {
-		return shortArrayOp(arr1, arr2, -1);
+		return shortArrayOp(arr1, arr2, -1, new short[arr1.length]);
+	}
+
+	/**
+	 * Performs element-wise subtraction on two arrays, writing it into the given
+	 * destination instead of a new array. The destination may be one of the
+	 * operands.
+	 * @param arr1 first array
+	 * @param arr2 second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the element-wise subtraction ({@code arr1 - arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static short[] arraySubtraction(short[] arr1, short[] arr2, short[] dest) {
+		return shortArrayOp(arr1, arr2, -1, dest);
 	}
 
 	/**
@@ -107,7 +199,21 @@ public final class NumericArrays {
 	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
 	 */
 	public static long[] arrayAddition(long[] arr1, long[] arr2) {
-		return longArrayOp(arr1, arr2, 1);
+		return longArrayOp(arr1, arr2, 1, new long[arr1.length]);
+	}
+
+	/**
+	 * Performs element-wise addition on two arrays, writing it into the given
+	 * destination instead of a new array. The destination may be one of the
+	 * operands.
+	 * @param arr1 first array
+	 * @param arr2 second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the element-wise addition ({@code arr1 + arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static long[] arrayAddition(long[] arr1, long[] arr2, long[] dest) {
+		return longArrayOp(arr1, arr2, 1, dest);
 	}
 
 	/**
@@ -118,7 +224,21 @@ public final class NumericArrays {
 	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
 	 */
 	public static long[] arraySubtraction(long[] arr1, long[] arr2) {
-		return longArrayOp(arr1, arr2, -1);
+		return longArrayOp(arr1, arr2, -1, new long[arr1.length]);
+	}
+
+	/**
+	 * Performs element-wise subtraction on two arrays, writing it into the given
+	 * destination instead of a new array. The destination may be one of the
+	 * operands.
+	 * @param arr1 first array
+	 * @param arr2 second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the element-wise subtraction ({@code arr1 - arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static long[] arraySubtraction(long[] arr1, long[] arr2, long[] dest) {
+		return longArrayOp(arr1, arr2, -1, dest);
 	}
 
 	/**
@@ -129,7 +249,21 @@ public final class NumericArrays {
 	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
 	 */
 	public static float[] arrayAddition(float[] arr1, float[] arr2) {
-		return floatArrayOp(arr1, arr2, 1);
+		return floatArrayOp(arr1, arr2, 1, new float[arr1.length]);
+	}
+
+	/**
+	 * Performs element-wise addition on two arrays, writing it into the given
+	 * destination instead of a new array. The destination may be one of the
+	 * operands.
+	 * @param arr1 first array
+	 * @param arr2 second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the element-wise addition ({@code arr1 + arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static float[] arrayAddition(float[] arr1, float[] arr2, float[] dest) {
+		return floatArrayOp(arr1, arr2, 1, dest);
 	}
 
 	/**
@@ -140,7 +274,21 @@ public final class NumericArrays {
 	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
 	 */
 	public static float[] arraySubtraction(float[] arr1, float[] arr2) {
-		return floatArrayOp(arr1, arr2, -1);
+		return floatArrayOp(arr1, arr2, -1, new float[arr1.length]);
+	}
+
+	/**
+	 * Performs element-wise subtraction on two arrays, writing it into the given
+	 * destination instead of a new array. The destination may be one of the
+	 * operands.
+	 * @param arr1 first array
+	 * @param arr2 second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the element-wise subtraction ({@code arr1 - arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static float[] arraySubtraction(float[] arr1, float[] arr2, float[] dest) {
+		return floatArrayOp(arr1, arr2, -1, dest);
 	}
 
 	/**
@@ -151,7 +299,34 @@ public final class NumericArrays {
 	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
 	 */
 	public static double[] arrayAddition(double[] arr1, double[] arr2) {
-		return doubleArrayOp(arr1, arr2, 1);
+		return doubleArrayOp(arr1, arr2, 1, new double[arr1.length], Utils.getDefaultRoundingPolicy());
+	}
+
+	/**
+	 * Performs element-wise addition on two arrays, rounded by the given policy
+	 * instead of the default one.
+	 * @param arr1   first array
+	 * @param arr2   second array
+	 * @param policy how the result is rounded
+	 * @return an array representing the element-wise addition ({@code arr1 + arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static double[] arrayAddition(double[] arr1, double[] arr2, RoundingPolicy policy) {
+		return doubleArrayOp(arr1, arr2, 1, new double[arr1.length], policy);
+	}
+
+	/**
+	 * Performs element-wise addition on two arrays, writing it into the given
+	 * destination instead of a new array. The destination may be one of the
+	 * operands.
+	 * @param arr1 first array
+	 * @param arr2 second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the element-wise addition ({@code arr1 + arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static double[] arrayAddition(double[] arr1, double[] arr2, double[] dest) {
+		return doubleArrayOp(arr1, arr2, 1, dest, Utils.getDefaultRoundingPolicy());
 	}
 
 	/**
@@ -162,7 +337,34 @@ public final class NumericArrays {
 	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
 	 */
 	public static double[] arraySubtraction(double[] arr1, double[] arr2) {
-		return doubleArrayOp(arr1, arr2, -1);
+		return doubleArrayOp(arr1, arr2, -1, new double[arr1.length], Utils.getDefaultRoundingPolicy());
+	}
+
+	/**
+	 * Performs element-wise subtraction on two arrays, rounded by the given policy
+	 * instead of the default one.
+	 * @param arr1   first array
+	 * @param arr2   second array
+	 * @param policy how the result is rounded
+	 * @return an array representing the element-wise subtraction ({@code arr1 - arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static double[] arraySubtraction(double[] arr1, double[] arr2, RoundingPolicy policy) {
+		return doubleArrayOp(arr1, arr2, -1, new double[arr1.length], policy);
+	}
+
+	/**
+	 * Performs element-wise subtraction on two arrays, writing it into the given
+	 * destination instead of a new array. The destination may be one of the
+	 * operands.
+	 * @param arr1 first array
+	 * @param arr2 second array
+	 * @param dest array where the result is written
+	 * @return {@code dest}, holding the element-wise subtraction ({@code arr1 - arr2})
+	 * @throws IncompatibleArrayLengthException if the arrays do not have the same size
+	 */
+	public static double[] arraySubtraction(double[] arr1, double[] arr2, double[] dest) {
+		return doubleArrayOp(arr1, arr2, -1, dest, Utils.getDefaultRoundingPolicy());
 	}
 
 	/**
@@ -195,18 +397,24 @@ public final class NumericArrays {
 	 * @param arr1  first array
 	 * @param arr2  second array which will be multiplied by {@code alpha}
 	 * @param alpha scalar multiplier of {@code arr2}
-	 * @return {@code arr1 + (alpha * arr2)}
+	 * @param dest  array where the result is written, it may be {@code arr1} or
+	 *              {@code arr2}
+	 * @return {@code dest}, holding {@code arr1 + (alpha * arr2)}
 	 * @throws IllegalArgumentException if any of the given arrays are empty
 	 * @throws IncompatibleArrayLengthException if the given arrays have different size
 	 */
-	private static int[] intArrayOp(int[] arr1, int[] arr2, Number alpha) {
+	private static int[] intArrayOp(int[] arr1, int[] arr2, int alpha, int[] dest) {
 		checkIfOperationCanBePerformed(arr1, arr2);
+		checkDestination(arr1, dest);
 		int size = arr1.length;
-		int[] res = new int[size];
-		double alph = alpha.doubleValue();
-		for (int i = 0; i < size; i++)
-			res[i] = (int) (arr1[i] + arr2[i] * alph);
-		return res;
+		if (alpha == 1)
+			ArrayKernels.add(arr1, arr2, dest, 0, size);
+		else if (alpha == -1)
+			ArrayKernels.subtract(arr1, arr2, dest, 0, size);
+		else
+			for (int i = 0; i < size; i++)
+				dest[i] = arr1[i] + arr2[i] * alpha;
+		return dest;
 	}
 
 	/**
@@ -217,18 +425,20 @@ public final class NumericArrays {
 	 * @param arr1  first array
 	 * @param arr2  second array which will be multiplied by {@code alpha}
 	 * @param alpha scalar multiplier of {@code arr2}
-	 * @return {@code arr1 + (alpha * arr2)}
+	 * @param dest  array where the result is written, it may be {@code arr1} or
+	 *              {@code arr2}
+	 * @return {@code dest}, holding {@code arr1 + (alpha * arr2)}
 	 * @throws IllegalArgumentException if any of the given arrays are empty
 	 * @throws IncompatibleArrayLengthException if the given arrays have different size
 	 */
-	private static byte[] byteArrayOp(byte[] arr1, byte[] arr2, Number alpha) {
+	private static byte[] byteArrayOp(byte[] arr1, byte[] arr2, Number alpha, byte[] dest) {
 		checkIfOperationCanBePerformed(arr1, arr2);
+		checkDestination(arr1, dest);
 		int size = arr1.length;
-		byte[] res = new byte[size];
 		double alph = alpha.doubleValue();
 		for (int i = 0; i < size; i++)
-			res[i] = (byte) (arr1[i] + arr2[i] * alph);
-		return res;
+			dest[i] = (byte) (arr1[i] + arr2[i] * alph);
+		return dest;
 	}
 
 	/**
@@ -239,18 +449,20 @@ public final class NumericArrays {
 	 * @param arr1  first array
 	 * @param arr2  second array which will be multiplied by {@code alpha}
 	 * @param alpha scalar multiplier of {@code arr2}
-	 * @return {@code arr1 + (alpha * arr2)}
+	 * @param dest  array where the result is written, it may be {@code arr1} or
+	 *              {@code arr2}
+	 * @return {@code dest}, holding {@code arr1 + (alpha * arr2)}
 	 * @throws IllegalArgumentException if any of the given arrays are empty
 	 * @throws IncompatibleArrayLengthException if the given arrays have different size
 	 */
-	private static short[] shortArrayOp(short[] arr1, short[] arr2, Number alpha) {
+	private static short[] shortArrayOp(short[] arr1, short[] arr2, Number alpha, short[] dest) {
 		checkIfOperationCanBePerformed(arr1, arr2);
+		checkDestination(arr1, dest);
 		int size = arr1.length;
-		short[] res = new short[size];
 		double alph = alpha.doubleValue();
 		for (int i = 0; i < size; i++)
-			res[i] = (short) (arr1[i] + arr2[i] * alph);
-		return res;
+			dest[i] = (short) (arr1[i] + arr2[i] * alph);
+		return dest;
 	}
 
 	/**
@@ -261,18 +473,20 @@ public final class NumericArrays {
 	 * @param arr1  first array
 	 * @param arr2  second array which will be multiplied by {@code alpha}
 	 * @param alpha scalar multiplier of {@code arr2}
-	 * @return {@code arr1 + (alpha * arr2)}
+	 * @param dest  array where the result is written, it may be {@code arr1} or
+	 *              {@code arr2}
+	 * @return {@code dest}, holding {@code arr1 + (alpha * arr2)}
 	 * @throws IllegalArgumentException if any of the given arrays are empty
 	 * @throws IncompatibleArrayLengthException if the given arrays have different size
 	 */
-	private static long[] longArrayOp(long[] arr1, long[] arr2, Number alpha) {
+	private static long[] longArrayOp(long[] arr1, long[] arr2, Number alpha, long[] dest) {
 		checkIfOperationCanBePerformed(arr1, arr2);
+		checkDestination(arr1, dest);
 		int size = arr1.length;
-		long[] res = new long[size];
 		double alph = alpha.doubleValue();
 		for (int i = 0; i < size; i++)
-			res[i] = (long) (arr1[i] + arr2[i] * alph);
-		return res;
+			dest[i] = (long) (arr1[i] + arr2[i] * alph);
+		return dest;
 	}
 
 	/**
@@ -283,18 +497,24 @@ public final class NumericArrays {
 	 * @param arr1  first array
 	 * @param arr2  second array which will be multiplied by {@code alpha}
 	 * @param alpha scalar multiplier of {@code arr2}
-	 * @return {@code arr1 + (alpha * arr2)}
+	 * @param dest  array where the result is written, it may be {@code arr1} or
+	 *              {@code arr2}
+	 * @return {@code dest}, holding {@code arr1 + (alpha * arr2)}
 	 * @throws IllegalArgumentException if any of the given arrays are empty
 	 * @throws IncompatibleArrayLengthException if the given arrays have different size
 	 */
-	private static float[] floatArrayOp(float[] arr1, float[] arr2, Number alpha) {
+	private static float[] floatArrayOp(float[] arr1, float[] arr2, float alpha, float[] dest) {
 		checkIfOperationCanBePerformed(arr1, arr2);
+		checkDestination(arr1, dest);
 		int size = arr1.length;
-		float[] res = new float[size];
-		double alph = alpha.doubleValue();
-		for (int i = 0; i < size; i++)
-			res[i] = (float) (arr1[i] + arr2[i] * alph);
-		return res;
+		if (alpha == 1)
+			ArrayKernels.add(arr1, arr2, dest, 0, size);
+		else if (alpha == -1)
+			ArrayKernels.subtract(arr1, arr2, dest, 0, size);
+		else
+			for (int i = 0; i < size; i++)
+				dest[i] = arr1[i] + arr2[i] * alpha;
+		return dest;
 	}
 
 	/**
@@ -305,18 +525,27 @@ public final class NumericArrays {
 	 * @param arr1  first array
 	 * @param arr2  second array which will be multiplied by {@code alpha}
 	 * @param alpha scalar multiplier of {@code arr2}
-	 * @return {@code arr1 + (alpha * arr2)}
+	 * @param dest  array where the result is written, it may be {@code arr1} or
+	 *              {@code arr2}
+	 * @param policy how the result is rounded
+	 * @return {@code dest}, holding {@code arr1 + (alpha * arr2)}
 	 * @throws IllegalArgumentException if any of the given arrays are empty
 	 * @throws IncompatibleArrayLengthException if the given arrays have different size
 	 */
-	static double[] doubleArrayOp(double[] arr1, double[] arr2, double alpha) {
+	static double[] doubleArrayOp(double[] arr1, double[] arr2, double alpha, double[] dest, RoundingPolicy policy) {
 		checkIfOperationCanBePerformed(arr1, arr2);
+		checkDestination(arr1, dest);
 		int size = arr1.length;
-		double[] res = new double[size];
-		for (int i = 0; i < size; i++)
-			res[i] = Utils.shouldRound(arr1[i] + arr2[i] * alpha);
-//			res[i] = arr1[i] + arr2[i] * alpha;
-		return res;
+		if (alpha == 1)
+			ArrayKernels.add(arr1, arr2, dest, 0, size);
+		else if (alpha == -1)
+			ArrayKernels.subtract(arr1, arr2, dest, 0, size);
+		else
+			for (int i = 0; i < size; i++)
+				dest[i] = arr1[i] + arr2[i] * alpha;
+		// rounded in a pass of its own so the arithmetic above can be vectorized
+		policy.round(dest, 0, size);
+		return dest;
 	}
 
 	/**
@@ -353,14 +582,36 @@ public final class NumericArrays {
 	 * @throws IllegalArgumentException if the array is empty
 	 */
 	public static int[] arrayMultiplyBy(int[] arr, Number n) {
+		return arrayMultiplyBy(arr, n, new int[arr.length]);
+	}
+
+	/**
+	 * Multiplies the given array by the specified scalar, writing the result into
+	 * the given destination instead of a new array. The destination may be
+	 * {@code arr} itself.
+	 * 
+	 * @param arr  the array to be multiplied
+	 * @param n    the scalar value
+	 * @param dest the array where the result is written
+	 * @return {@code dest}, holding {@code arr * n}
+	 * @throws IllegalArgumentException if the array is empty
+	 * @throws IncompatibleArrayLengthException if {@code dest} does not have the
+	 *                                          size of {@code arr}
+	 */
+	public static int[] arrayMultiplyBy(int[] arr, Number n, int[] dest) {
 		checkEmptiness(arr);
+		checkDestination(arr, dest);
 		int size = arr.length;
-		int[] res = new int[size];
 		double alph = n.doubleValue();
+		int intAlpha = (int) alph;
+		if (intAlpha == alph) {
+			ArrayKernels.scale(intAlpha, arr, dest, 0, size);
+			return dest;
+		}
 		for (int i = 0; i < size; i++) {
-			res[i] = (int) (arr[i] * alph);
+			dest[i] = (int) (arr[i] * alph);
 		}
-		return res;
+		return dest;
 	}
 
 	/**
@@ -373,14 +624,31 @@ public final class NumericArrays {
 	 * @throws IllegalArgumentException if the array is empty
 	 */
 	public static byte[] arrayMultiplyBy(byte[] arr, Number n) {
+		return arrayMultiplyBy(arr, n, new byte[arr.length]);
+	}
+
+	/**
+	 * Multiplies the given array by the specified scalar, writing the result into
+	 * the given destination instead of a new array. The destination may be
+	 * {@code arr} itself.
+	 * 
+	 * @param arr  the array to be multiplied
+	 * @param n    the scalar value
+	 * @param dest the array where the result is written
+	 * @return {@code dest}, holding {@code arr * n}
+	 * @throws IllegalArgumentException if the array is empty
+	 * @throws IncompatibleArrayLengthException if {@code dest} does not have the
+	 *                                          size of {@code arr}
+	 */
+	public static byte[] arrayMultiplyBy(byte[] arr, Number n, byte[] dest) {
 		checkEmptiness(arr);
+		checkDestination(arr, dest);
 		int size = arr.length;
-		byte[] res = new byte[size];
 		double alph = n.doubleValue();
 		for (int i = 0; i < size; i++) {
-			res[i] = (byte) (arr[i] * alph);
+			dest[i] = (byte) (arr[i] * alph);
 		}
-		return res;
+		return dest;
 	}
 
 	/**
@@ -393,14 +661,31 @@ public final class NumericArrays {
 	 * @throws IllegalArgumentException if the array is empty
 	 */
 	public static short[] arrayMultiplyBy(short[] arr, Number n) {
+		return arrayMultiplyBy(arr, n, new short[arr.length]);
+	}
+
+	/**
+	 * Multiplies the given array by the specified scalar, writing the result into
+	 * the given destination instead of a new array. The destination may be
+	 * {@code arr} itself.
+	 * 
+	 * @param arr  the array to be multiplied
+	 * @param n    the scalar value
+	 * @param dest the array where the result is written
+	 * @return {@code dest}, holding {@code arr * n}
+	 * @throws IllegalArgumentException if the array is empty
+	 * @throws IncompatibleArrayLengthException if {@code dest} does not have the
+	 *                                          size of {@code arr}
+	 */
+	public static short[] arrayMultiplyBy(short[] arr, Number n, short[] dest) {
 		checkEmptiness(arr);
+		checkDestination(arr, dest);
 		int size = arr.length;
-		short[] res = new short[size];
 		double alph = n.doubleValue();
 		for (int i = 0; i < size; i++) {
-			res[i] = (short) (arr[i] * alph);
+			dest[i] = (short) (arr[i] * alph);
 		}
-		return res;
+		return dest;
 	}
 
 	/**
@@ -413,14 +698,31 @@ public final class NumericArrays {
 	 * @throws IllegalArgumentException if the array is empty
 	 */
 	public static long[] arrayMultiplyBy(long[] arr, Number n) {
+		return arrayMultiplyBy(arr, n, new long[arr.length]);
+	}
+
+	/**
+	 * Multiplies the given array by the specified scalar, writing the result into
+	 * the given destination instead of a new array. The destination may be
+	 * {@code arr} itself.
+	 * 
+	 * @param arr  the array to be multiplied
+	 * @param n    the scalar value
+	 * @param dest the array where the result is written
+	 * @return {@code dest}, holding {@code arr * n}
+	 * @throws IllegalArgumentException if the array is empty
+	 * @throws IncompatibleArrayLengthException if {@code dest} does not have the
+	 *                                          size of {@code arr}
+	 */
+	public static long[] arrayMultiplyBy(long[] arr, Number n, long[] dest) {
 		checkEmptiness(arr);
+		checkDestination(arr, dest);
 		int size = arr.length;
-		long[] res = new long[size];
 		double alph = n.doubleValue();
 		for (int i = 0; i < size; i++) {
-			res[i] = (long) (arr[i] * alph);
+			dest[i] = (long) (arr[i] * alph);
 		}
-		return res;
+		return dest;
 	}
 
 	/**
@@ -433,14 +735,37 @@ public final class NumericArrays {
 	 * @throws IllegalArgumentException if the array is empty
 	 */
 	public static float[] arrayMultiplyBy(float[] arr, Number n) {
+		return arrayMultiplyBy(arr, n, new float[arr.length]);
+	}
+
+	/**
+	 * Multiplies the given array by the specified scalar, writing the result into
+	 * the given destination instead of a new array. The destination may be
+	 * {@code arr} itself.
+	 * 
+	 * @param arr  the array to be multiplied
+	 * @param n    the scalar value
+	 * @param dest the array where the result is written
+	 * @return {@code dest}, holding {@code arr * n}
+	 * @throws IllegalArgumentException if the array is empty
+	 * @throws IncompatibleArrayLengthException if {@code dest} does not have the
+	 *                                          size of {@code arr}
+	 */
+	public static float[] arrayMultiplyBy(float[] arr, Number n, float[] dest) {
 		checkEmptiness(arr);
+		checkDestination(arr, dest);
 		int size = arr.length;
-		float[] res = new float[size];
 		double alph = n.doubleValue();
+		float floatAlpha = (float) alph;
+		if (floatAlpha == alph) {
+			// exact in float, the product of two floats rounds the same way in both
+			ArrayKernels.scale(floatAlpha, arr, dest, 0, size);
+			return dest;
+		}
 		for (int i = 0; i < size; i++) {
-			res[i] = (float) (arr[i] * alph);
+			dest[i] = (float) (arr[i] * alph);
 		}
-		return res;
+		return dest;
 	}
 
 	/**
@@ -453,14 +778,29 @@ public final class NumericArrays {
 	 * @throws IllegalArgumentException if the array is empty
 	 */
 	public static double[] arrayMultiplyBy(double[] arr, double alpha) {
+		return arrayMultiplyBy(arr, alpha, new double[arr.length]);
+	}
+
+	/**
+	 * Multiplies the given array by the specified scalar, writing the result into
+	 * the given destination instead of a new array. The destination may be
+	 * {@code arr} itself.
+	 * 
+	 * @param arr   the array to be multiplied
+	 * @param alpha the scalar value
+	 * @param dest  the array where the result is written
+	 * @return {@code dest}, holding {@code arr * alpha}
+	 * @throws IllegalArgumentException if the array is empty
+	 * @throws IncompatibleArrayLengthException if {@code dest} does not have the
+	 *                                          size of {@code arr}
+	 */
+	public static double[] arrayMultiplyBy(double[] arr, double alpha, double[] dest) {
 		checkEmptiness(arr);
+		checkDestination(arr, dest);
 		int size = arr.length;
-		double[] res = new double[size];
-		for (int i = 0; i < size; i++) {
-//			res[i] = Utils.shouldRound(arr[i] * alpha);
-			res[i] =  arr[i] * alpha;
-		}
-		return res;
+//		res[i] = Utils.shouldRound(arr[i] * alpha);
+		ArrayKernels.scale(alpha, arr, dest, 0, size);
+		return dest;
 	}
 
 	/**
@@ -905,6 +1245,10 @@ public final class NumericArrays {
 	 */
 	static double sumAllNumbersToPower(int[] v, int exponent) {
 		checkEmptiness(v);
+		if (exponent == 1)
+			return ArrayKernels.sum(v, 0, v.length);
+		if (exponent == 2)
+			return ArrayKernels.sumOfSquares(v, 0, v.length);
 		double sum = 0;
 		for (int n : v)
 			sum += quickPowIntExponent(n, exponent);
@@ -969,6 +1313,10 @@ public final class NumericArrays {
 	 */
 	static double sumAllNumbersToPower(float[] v, int exponent) {
 		checkEmptiness(v);
+		if (exponent == 1)
+			return ArrayKernels.sum(v, 0, v.length);
+		if (exponent == 2)
+			return ArrayKernels.sumOfSquares(v, 0, v.length);
 		double sum = 0;
 		for (float n : v)
 			sum += quickPowIntExponent(n, exponent);
@@ -985,6 +1333,10 @@ public final class NumericArrays {
 	 */
 	static double sumAllNumbersToPower(double[] v, int exponent) {
 		checkEmptiness(v);
+		if (exponent == 1)
+			return ArrayKernels.sum(v, 0, v.length);
+		if (exponent == 2)
+			return ArrayKernels.sumOfSquares(v, 0, v.length);
 		double sum = 0;
 		for (double n : v)
 			sum += quickPowIntExponent(n, exponent);
@@ -1008,4 +1360,149 @@ public final class NumericArrays {
 		return sum;
 	}
 
-}
\ No newline at end of file
+	// fused operations, they read every array once and allocate nothing
+
+	/**
+	 * Adds {@code alpha * x} to {@code y}, in place: {@code y = alpha * x + y}.
+	 * 
+	 * @param alpha scalar multiplier of {@code x}
+	 * @param x     array to be scaled and added
+	 * @param y     array updated with the result
+	 * @throws IllegalArgumentException if any of the given arrays are empty
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static void axpy(double alpha, double[] x, double[] y) {
+		checkIfOperationCanBePerformed(x, y);
+		ArrayKernels.axpy(alpha, x, y, 0, x.length);
+	}
+
+	/**
+	 * Adds {@code alpha * x} to {@code y} over the indices {@code [from, to)},
+	 * leaving the rest of {@code y} untouched. This is the row update of Gaussian
+	 * elimination.
+	 * 
+	 * @param alpha scalar multiplier of {@code x}
+	 * @param x     array to be scaled and added
+	 * @param y     array updated with the result
+	 * @param from  first index to update, inclusive
+	 * @param to    last index to update, exclusive
+	 * @throws IndexOutOfBoundsException if the range is not within both arrays
+	 */
+	public static void axpy(double alpha, double[] x, double[] y, int from, int to) {
+		Objects.checkFromToIndex(from, to, x.length);
+		Objects.checkFromToIndex(from, to, y.length);
+		ArrayKernels.axpy(alpha, x, y, from, to);
+	}
+
+	/**
+	 * Computes {@code y = alpha * x + beta * y}, in place.
+	 * 
+	 * @param alpha scalar multiplier of {@code x}
+	 * @param x     first array
+	 * @param beta  scalar multiplier of {@code y}
+	 * @param y     second array, updated with the result
+	 * @throws IllegalArgumentException if any of the given arrays are empty
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static void axpby(double alpha, double[] x, double beta, double[] y) {
+		checkIfOperationCanBePerformed(x, y);
+		ArrayKernels.axpby(alpha, x, beta, y, 0, x.length);
+	}
+
+	/**
+	 * Returns the dot product of the given arrays, without rounding it.
+	 * 
+	 * @param x first array
+	 * @param y second array
+	 * @return the sum of {@code x[i] * y[i]}
+	 * @throws IllegalArgumentException if any of the given arrays are empty
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static double dot(double[] x, double[] y) {
+		checkIfOperationCanBePerformed(x, y);
+		return ArrayKernels.dot(x, y, 0, x.length);
+	}
+
+	/**
+	 * Returns {@code alpha * (x . y)}, the dot product of {@code alpha * x} and
+	 * {@code y} without computing {@code alpha * x}.
+	 * 
+	 * @param alpha scalar multiplier of the product
+	 * @param x     first array
+	 * @param y     second array
+	 * @return {@code alpha} times the sum of {@code x[i] * y[i]}
+	 * @throws IllegalArgumentException if any of the given arrays are empty
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static double dot(double alpha, double[] x, double[] y) {
+		return alpha * dot(x, y);
+	}
+
+	/**
+	 * Adds {@code alpha * x} to {@code y}, in place, and returns the Euclidean
+	 * norm of the updated {@code y}, computed in the same pass. This is the
+	 * residual update of iterative solvers, {@code r = r - alpha * q} followed by
+	 * {@code |r|}.
+	 * 
+	 * @param alpha scalar multiplier of {@code x}
+	 * @param x     array to be scaled and added
+	 * @param y     array updated with the result
+	 * @return the Euclidean norm of {@code alpha * x + y}
+	 * @throws IllegalArgumentException if any of the given arrays are empty
+	 * @throws IncompatibleArrayLengthException if the arrays have different size
+	 */
+	public static double axpyAndNorm(double alpha, double[] x, double[] y) {
+		checkIfOperationCanBePerformed(x, y);
+		double sumOfSquares = ArrayKernels.axpySumOfSquares(alpha, x, y, 0, x.length);
+		if (sumOfSquares > NORM_MIN_SQUARES && sumOfSquares < Double.POSITIVE_INFINITY)
+			return Math.sqrt(sumOfSquares);
+		return scaledNorm(y);
+	}
+
+	/**
+	 * Returns the Euclidean norm of the given array, the square root of the sum of
+	 * the squares of its numbers.
+	 * <p>
+	 * The squares are summed directly when that sum can be represented; if it
+	 * overflows, or is small enough for some squares to have underflowed, the
+	 * array is summed again scaled by its largest magnitude, so the result is
+	 * accurate over the whole range of doubles, like {@link Math#hypot}.
+	 * </p>
+	 * 
+	 * @param v the array
+	 * @return the Euclidean norm of {@code v}
+	 * @throws IllegalArgumentException if the array is empty
+	 */
+	public static double norm(double[] v) {
+		checkEmptiness(v);
+		double sumOfSquares = ArrayKernels.sumOfSquares(v, 0, v.length);
+		if (sumOfSquares > NORM_MIN_SQUARES && sumOfSquares < Double.POSITIVE_INFINITY)
+			return Math.sqrt(sumOfSquares);
+		return scaledNorm(v);
+	}
+
+	/**
+	 * Smallest sum of squares trusted by {@link #norm(double[])}: above it, any
+	 * square small enough to underflow is negligible.
+	 */
+	private static final double NORM_MIN_SQUARES = 0x1p-900;
+
+	private static double scaledNorm(double[] v) {
+		double scale = 0;
+		for (double n : v) {
+			if (Double.isNaN(n))
+				return n;
+			scale = Math.max(scale, Math.abs(n));
+		}
+		if (scale == 0 || scale == Double.POSITIVE_INFINITY)
+			return scale;
+		double sum = 0;
+		for (double n : v) {
+			// divided, the inverse of a subnormal scale overflows
+			double q = n / scale;
+			sum += q * q;
+		}
+		return scale * Math.sqrt(sum);
+	}
+
+}
@@ -0,0 +1,447 @@
+package algebra;
+
+import java.util.Arrays;
+import exceptions.IncompatibleLengthsException;
+import exceptions.MatrixDimensionException;
+import exceptions.NonInvertibleMatrixException;
+
+/**
+ * QR decomposition of a matrix by Householder reflections.
+ * <p>
+ * For a {@code m x n} matrix {@code A} it computes an orthogonal matrix
+ * {@code Q} and an upper triangular (trapezoidal, if {@code m < n}) matrix
+ * {@code R} such that {@code A = Q x R}. {@code Q} is never formed: it is kept
+ * as the product {@code H1 x H2 x ... x Hk}, {@code k = min(m, n)}, of the
+ * reflections {@code Hi = I - tau[i] x vi x vi^T}, whose vectors are stored
+ * below the diagonal of {@code R}, in a single copy of the matrix. Any system
+ * with {@code m >= n} and linearly independent columns can then be solved in
+ * the least squares sense, which is the way to fit an overdetermined system
+ * without building (and squaring the condition number of) its normal
+ * equations. The given matrix is never modified.
+ * </p>
+ * <p>
+ * The copy is stored column after column, since reflections are applied to
+ * whole columns. Reflections are computed by panels of {@link #BLOCK}, each
+ * one split recursively in halves; the reflections of a panel are gathered in
+ * compact WY form,
+ * {@code H1 x ... x Hb = I - V x T x V^T} with {@code T} upper triangular, and
+ * the columns to the right of the panel are updated with it at once, as
+ * {@code C - V x (T^T x (V^T x C))}. Both products go through the rows by
+ * slices of {@link #ROW_SLICE}, so the slice of {@code V} stays in cache while
+ * every column is read twice per panel instead of once per reflection.
+ * </p>
+ */
+public final class QRDecomposition {
+
+	// reflections per panel
+	private static final int BLOCK = 32;
+
+	// columns of a panel reflected one by one
+	private static final int LEAF = 4;
+
+	// rows of V and of the updated columns processed at a time
+	private static final int ROW_SLICE = 1024;
+
+	// columns: R above the diagonal, the reflection vectors from it downwards
+	private final double[][] qr;
+	private final double[] rDiagonal;
+	private final double[] tau;
+	// T of the compact WY form of every panel
+	private final double[][][] t;
+	private final int rows;
+	private final int columns;
+	private final boolean fullRank;
+
+	/**
+	 * Computes the QR decomposition of the given matrix.
+	 *
+	 * @param mat the matrix to decompose
+	 */
+	public QRDecomposition(RealMatrix mat) {
+		int m = rows = mat.rowSize(), n = columns = mat.columnSize();
+		int k = Math.min(m, n);
+		qr = new double[n][m];
+		for (int i = 0; i < m; i++) {
+			double[] row = mat.rowReference(i);
+			for (int j = 0; j < n; j++)
+				qr[j][i] = row[j];
+		}
+		rDiagonal = new double[k];
+		tau = new double[k];
+		t = new double[(k + BLOCK - 1) / BLOCK][][];
+
+		for (int p = 0; p < k; p += BLOCK) {
+			int pEnd = Math.min(p + BLOCK, k);
+			factorPanel(p, pEnd);
+			double[][] tp = t[p / BLOCK] = triangularFactor(p, pEnd);
+			if (pEnd < n)
+				applyBlock(p, pEnd, tp, true, qr, pEnd, n);
+		}
+
+		double scale = 0;
+		for (double d : rDiagonal)
+			scale = Math.max(scale, Math.abs(d));
+		boolean independent = m >= n && scale > 0;
+		for (int c = 0; c < k && independent; c++)
+			independent = Math.abs(rDiagonal[c]) > scale * Utils.UMBRAL_ZERO;
+		fullRank = independent;
+	}
+
+	/**
+	 * Computes the reflections of the columns {@code [from, to)}, splitting them
+	 * in halves: the reflections of the first half are applied to the second one
+	 * as a block, so each column is read a few times instead of once per
+	 * reflection before it.
+	 */
+	private void factorPanel(int from, int to) {
+		if (to - from <= LEAF) {
+			for (int c = from; c < to; c++) {
+				reflect(c);
+				double[] v = qr[c];
+				if (tau[c] == 0)
+					continue;
+				for (int j = c + 1; j < to; j++) {
+					double s = tau[c] * ArrayKernels.dot(v, qr[j], c, rows);
+					if (s != 0)
+						ArrayKernels.axpy(-s, v, qr[j], c, rows);
+				}
+			}
+			return;
+		}
+		int mid = from + GemmKernel.roundUp((to - from) / 2, LEAF);
+		factorPanel(from, mid);
+		applyBlock(from, mid, triangularFactor(from, mid), true, qr, mid, to);
+		factorPanel(mid, to);
+	}
+
+	/**
+	 * Computes the reflection that zeroes column {@code c} below the diagonal,
+	 * storing its vector, scaled so its first number is 1, in place of the
+	 * column.
+	 */
+	private void reflect(int c) {
+		double[] x = qr[c];
+		double norm = Math.sqrt(ArrayKernels.sumOfSquares(x, c, rows));
+		double alpha = x[c];
+		if (norm == 0) {
+			// nothing to zero, H = I
+			tau[c] = 0;
+			rDiagonal[c] = 0;
+			x[c] = 1;
+			return;
+		}
+		// the sign opposite to alpha avoids cancellation in alpha - beta
+		double beta = alpha > 0 ? -norm : norm;
+		tau[c] = (beta - alpha) / beta;
+		ArrayKernels.scale(1 / (alpha - beta), x, x, c + 1, rows);
+		x[c] = 1;
+		rDiagonal[c] = beta;
+	}
+
+	/**
+	 * Returns the upper triangular {@code T} of the compact WY form of the
+	 * reflections {@code [p, pEnd)}, built column by column as
+	 * {@code T[0:i, i] = -tau[i] x T[0:i, 0:i] x (V[:, 0:i]^T x vi)}.
+	 */
+	private double[][] triangularFactor(int p, int pEnd) {
+		int nb = pEnd - p;
+		// z[j][i] = vj^T vi, for j < i; vi is zero above row p + i
+		double[][] z = new double[nb][nb];
+		for (int r0 = p; r0 < rows; r0 += ROW_SLICE) {
+			int r1 = Math.min(r0 + ROW_SLICE, rows);
+			if (r0 >= pEnd) {
+				int tiled = nb & ~3;
+				for (int j = 0; j < tiled; j += 4)
+					for (int i = j; i < tiled; i += 4)
+						SyrkKernel.dotTile(qr, p + j, qr, p + i, r0, r1, 1, z, j, i);
+				for (int i = tiled; i < nb; i++)
+					for (int j = 0; j < i; j++)
+						z[j][i] += ArrayKernels.dot(qr[p + j], qr[p + i], r0, r1);
+				continue;
+			}
+			for (int i = 1; i < nb; i++) {
+				int start = Math.max(r0, p + i);
+				if (start >= r1)
+					break;
+				double[] vi = qr[p + i];
+				for (int j = 0; j < i; j++)
+					z[j][i] += ArrayKernels.dot(qr[p + j], vi, start, r1);
+			}
+		}
+		double[][] tp = new double[nb][nb];
+		for (int i = 0; i < nb; i++) {
+			double ti = tau[p + i];
+			tp[i][i] = ti;
+			for (int j = 0; j < i; j++) {
+				double sum = 0;
+				for (int l = j; l < i; l++)
+					sum += tp[j][l] * z[l][i];
+				tp[j][i] = -ti * sum;
+			}
+		}
+		return tp;
+	}
+
+	/**
+	 * Overwrites the columns {@code [from, to)} of {@code c}, of {@link #rows}
+	 * numbers, with {@code (I - V x T x V^T)^T x c} if {@code transposed}, or
+	 * {@code (I - V x T x V^T) x c} if not, where {@code V} holds the reflections
+	 * {@code [p, pEnd)}.
+	 */
+	private void applyBlock(int p, int pEnd, double[][] tp, boolean transposed, double[][] c, int from, int to) {
+		int nb = pEnd - p, width = to - from;
+		// w = V^T c
+		double[][] w = new double[nb][width];
+		for (int r0 = p; r0 < rows; r0 += ROW_SLICE) {
+			int r1 = Math.min(r0 + ROW_SLICE, rows);
+			if (r0 >= pEnd) {
+				// below the triangle of V all its vectors start at r0
+				int i = 0;
+				for (; i + 4 <= nb; i += 4) {
+					int j = from;
+					for (; j + 4 <= to; j += 4)
+						SyrkKernel.dotTile(qr, p + i, c, j, r0, r1, 1, w, i, j - from);
+					for (; j < to; j++)
+						for (int l = i; l < i + 4; l++)
+							w[l][j - from] += ArrayKernels.dot(qr[p + l], c[j], r0, r1);
+				}
+				for (; i < nb; i++)
+					for (int j = from; j < to; j++)
+						w[i][j - from] += ArrayKernels.dot(qr[p + i], c[j], r0, r1);
+				continue;
+			}
+			for (int j = from; j < to; j++) {
+				double[] cj = c[j];
+				for (int i = 0; i < nb; i++) {
+					int start = Math.max(r0, p + i);
+					if (start >= r1)
+						break;
+					w[i][j - from] += ArrayKernels.dot(qr[p + i], cj, start, r1);
+				}
+			}
+		}
+		// w = T^T w or T w, in place, row by row
+		if (transposed) {
+			for (int i = nb - 1; i >= 0; i--) {
+				ArrayKernels.scale(tp[i][i], w[i], w[i], 0, width);
+				for (int l = 0; l < i; l++)
+					if (tp[l][i] != 0)
+						ArrayKernels.axpy(tp[l][i], w[l], w[i], 0, width);
+			}
+		} else {
+			for (int i = 0; i < nb; i++) {
+				ArrayKernels.scale(tp[i][i], w[i], w[i], 0, width);
+				for (int l = i + 1; l < nb; l++)
+					if (tp[i][l] != 0)
+						ArrayKernels.axpy(tp[i][l], w[l], w[i], 0, width);
+			}
+		}
+		// c -= V w
+		for (int r0 = p; r0 < rows; r0 += ROW_SLICE) {
+			int r1 = Math.min(r0 + ROW_SLICE, rows);
+			if (r0 >= pEnd) {
+				for (int j = from; j < to; j++) {
+					double[] cj = c[j];
+					int i = 0;
+					for (; i + 4 <= nb; i += 4)
+						subtract4(qr, p + i, w, i, j - from, cj, r0, r1);
+					for (; i < nb; i++)
+						ArrayKernels.axpy(-w[i][j - from], qr[p + i], cj, r0, r1);
+				}
+				continue;
+			}
+			for (int j = from; j < to; j++) {
+				double[] cj = c[j];
+				for (int i = 0; i < nb; i++) {
+					int start = Math.max(r0, p + i);
+					if (start >= r1)
+						break;
+					double wij = w[i][j - from];
+					if (wij != 0)
+						ArrayKernels.axpy(-wij, qr[p + i], cj, start, r1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Subtracts from {@code [from, to)} of {@code y} the vectors {@code i} to
+	 * {@code i + 3} of {@code v}, times the matching numbers of column {@code j}
+	 * of {@code w}, in a single pass.
+	 */
+	private static void subtract4(double[][] v, int i, double[][] w, int wi, int j, double[] y, int from, int to) {
+		double[] v0 = v[i], v1 = v[i + 1], v2 = v[i + 2], v3 = v[i + 3];
+		double w0 = w[wi][j], w1 = w[wi + 1][j], w2 = w[wi + 2][j], w3 = w[wi + 3][j];
+		for (int r = from; r < to; r++)
+			y[r] -= w0 * v0[r] + w1 * v1[r] + w2 * v2[r] + w3 * v3[r];
+	}
+
+	/**
+	 * Overwrites the given columns with {@code Q^T} times them.
+	 */
+	private void applyQTransposed(double[][] c) {
+		int k = rDiagonal.length;
+		for (int p = 0; p < k; p += BLOCK)
+			applyBlock(p, Math.min(p + BLOCK, k), t[p / BLOCK], true, c, 0, c.length);
+	}
+
+	/**
+	 * Returns the number of rows of the decomposed matrix.
+	 */
+	public int rowSize() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of columns of the decomposed matrix.
+	 */
+	public int columnSize() {
+		return columns;
+	}
+
+	/**
+	 * Returns {@code true} if the decomposed matrix has at least as many rows as
+	 * columns and its columns are linearly independent, that is, if no number of
+	 * the diagonal of {@code R} is zero (or negligible compared to the largest of
+	 * them). Only then can systems be solved with it.
+	 */
+	public boolean isFullRank() {
+		return fullRank;
+	}
+
+	/**
+	 * Returns the upper triangular factor {@code R}, of {@code min(m, n)} rows
+	 * and {@code n} columns.
+	 */
+	public RealMatrix getR() {
+		int k = rDiagonal.length;
+		double[][] r = new double[k][columns];
+		for (int i = 0; i < k; i++) {
+			r[i][i] = rDiagonal[i];
+			for (int j = i + 1; j < columns; j++)
+				r[i][j] = qr[j][i];
+		}
+		return new RealMatrix(r, false, false);
+	}
+
+	/**
+	 * Returns the orthogonal factor {@code Q}, reduced to its first
+	 * {@code min(m, n)} columns, which are all that {@code A = Q x R} uses. It is
+	 * built from the reflections when called, with the same block updates as the
+	 * decomposition, and can be large: prefer {@link #solve(double[])} when the
+	 * only goal is to solve a system.
+	 *
+	 * @return a new {@code m x min(m, n)} matrix with orthonormal columns
+	 */
+	public RealMatrix getQ() {
+		int k = rDiagonal.length;
+		double[][] q = new double[k][rows];
+		for (int j = 0; j < k; j++)
+			q[j][j] = 1;
+		for (int p = (k - 1) / BLOCK * BLOCK; p >= 0; p -= BLOCK)
+			applyBlock(p, Math.min(p + BLOCK, k), t[p / BLOCK], false, q, 0, k);
+		return new RealMatrix(transpose(q, k, rows), false, false);
+	}
+
+	/**
+	 * Returns the solution {@code x} that minimizes {@code ||A x - b||}, where
+	 * {@code A} is the decomposed matrix: {@code R x = Q^T b}, using the first
+	 * {@code n} numbers of {@code Q^T b}. When {@code A} is square it is the
+	 * solution of {@code A x = b}.
+	 *
+	 * @param b the right hand side
+	 * @return the least squares solution {@code x}, of {@code n} numbers
+	 * @throws MatrixDimensionException     if the matrix has fewer rows than
+	 *                                      columns
+	 * @throws IncompatibleLengthsException if the length of {@code b} is not the
+	 *                                      number of rows of the matrix
+	 * @throws NonInvertibleMatrixException if the columns of the matrix are not
+	 *                                      linearly independent
+	 */
+	public double[] solve(double[] b) {
+		checkShape();
+		if (b.length != rows)
+			throw new IncompatibleLengthsException(b.length, rows);
+		checkFullRank();
+		double[][] y = { b.clone() };
+		applyQTransposed(y);
+		backSubstitute(y[0]);
+		return Arrays.copyOf(y[0], columns);
+	}
+
+	/**
+	 * Returns the solution {@code X} that minimizes {@code ||A X - B||} for every
+	 * column of {@code B} at once, applying the reflections to all of them by
+	 * blocks.
+	 *
+	 * @param b the right hand sides, one per column
+	 * @return the least squares solution {@code X}, of {@code n} rows and as many
+	 *         columns as {@code b}
+	 * @throws MatrixDimensionException     if the matrix has fewer rows than
+	 *                                      columns, or the number of rows of
+	 *                                      {@code b} is not the number of rows of
+	 *                                      the matrix
+	 * @throws NonInvertibleMatrixException if the columns of the matrix are not
+	 *                                      linearly independent
+	 */
+	public RealMatrix solve(RealMatrix b) {
+		checkShape();
+		if (b.rowSize() != rows)
+			throw new MatrixDimensionException("Matrix " + b.rowSize() + "x" + b.columnSize()
+					+ " given for a system of " + rows + " equations");
+		checkFullRank();
+		int p = b.columnSize();
+		double[][] y = new double[p][rows];
+		for (int i = 0; i < rows; i++) {
+			double[] row = b.rowReference(i);
+			for (int j = 0; j < p; j++)
+				y[j][i] = row[j];
+		}
+		applyQTransposed(y);
+		for (double[] column : y)
+			backSubstitute(column);
+		return new RealMatrix(transpose(y, p, columns), false, false);
+	}
+
+	/**
+	 * Overwrites the first {@code n} numbers of {@code y} with the solution of
+	 * {@code R x = y}, going through {@code R} by columns.
+	 */
+	private void backSubstitute(double[] y) {
+		for (int j = columns - 1; j >= 0; j--) {
+			double xj = y[j] /= rDiagonal[j];
+			if (xj != 0)
+				ArrayKernels.axpy(-xj, qr[j], y, 0, j);
+		}
+	}
+
+	/**
+	 * Returns the rows of the matrix whose first {@code rows} numbers of every
+	 * column are given.
+	 */
+	static double[][] transpose(double[][] columns, int count, int rows) {
+		double[][] res = new double[rows][count];
+		for (int j = 0; j < count; j++) {
+			double[] column = columns[j];
+			for (int i = 0; i < rows; i++)
+				res[i][j] = column[i];
+		}
+		return res;
+	}
+
+	/**
+	 * Least squares solutions are only computed for systems with at least as many
+	 * equations as unknowns; an underdetermined one has infinitely many.
+	 */
+	private void checkShape() {
+		if (rows < columns)
+			throw new MatrixDimensionException("Matrix " + rows + "x" + columns
+					+ " has fewer rows than columns: least squares needs at least as many equations as unknowns");
+	}
+
+	private void checkFullRank() {
+		if (!fullRank)
+			throw new NonInvertibleMatrixException("Matrix is rank deficient");
+	}
+
+}
@@ -1,7 +1,10 @@
 package algebra;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import exceptions.IncompatibleLengthsException;
 import exceptions.NonInvertibleMatrixException;
+import exceptions.NonPositiveDefiniteMatrixException;
 import exceptions.NonSquareMatrixException;
 import matrices.Index2d;
 
@@ -21,6 +24,12 @@ public class RealMatrix extends doubleMatrices.AbstractRegularDoubleMatrix
 	private int currentRowCapacity;
 	private int currentColumnCapacity;
 
+	/**
+	 * Rounding policy of the operations on this matrix, null to use
+	 * {@link Utils#getDefaultRoundingPolicy()}.
+	 */
+	private RoundingPolicy roundingPolicy;
+
 	private static int DEFAULT_ROW_CAPACITY = 5;
 	private static int DEFAULT_COLUMN_CAPACITY = 5;
 
@@ -155,11 +164,43 @@ public class RealMatrix extends doubleMatrices.AbstractRegularDoubleMatrix
 		return !isEmpty() && rowSize() == columnSize();
 	}
 
+	/**
+	 * Returns the rounding policy of the operations on this matrix: the one given
+	 * to {@link #setRoundingPolicy(RoundingPolicy)}, or the default one if none
+	 * was given.
+	 */
+	public RoundingPolicy getRoundingPolicy() {
+		return roundingPolicy != null ? roundingPolicy : Utils.getDefaultRoundingPolicy();
+	}
+
+	/**
+	 * Sets the rounding policy of the operations on this matrix. Matrices computed
+	 * from this one (products where it is the left operand, inverses, adjugates)
+	 * inherit it.
+	 *
+	 * @param policy the policy, or null to use
+	 *               {@link Utils#getDefaultRoundingPolicy()}
+	 */
+	public void setRoundingPolicy(RoundingPolicy policy) {
+		roundingPolicy = policy;
+	}
+
+	/**
+	 * Gives {@code m} the rounding policy set on this matrix, and returns it.
+	 */
+	RealMatrix inheritRoundingPolicy(RealMatrix m) {
+		m.roundingPolicy = roundingPolicy;
+		return m;
+	}
+
 	@Override
 	public Object clone() {
 		try {
 			RealMatrix m = (RealMatrix) super.clone();
-			m.numbers = numbers.clone();
+			// rows are modified in place by the algebra methods, they can't be shared
+			m.numbers = new double[numbers.length][];
+			for (int i = 0; i < numbers.length; i++)
+				m.numbers[i] = numbers[i].clone();
 			return m;
 		} catch (CloneNotSupportedException e) {
 			throw new InternalError(e);
@@ -404,6 +445,15 @@ public class RealMatrix extends doubleMatrices.AbstractRegularDoubleMatrix
 		return Arrays.copyOf(numbers[index], columnSize());
 	}
 
+	/**
+	 * Returns the backing row, without copying it. Its length is the current
+	 * column capacity, so only its first {@code columnSize()} numbers belong to the
+	 * matrix.
+	 */
+	double[] rowReference(int index) {
+		return numbers[index];
+	}
+
 	public double[] getColumn(int index) {
 		checkIndexForColumn(index);
 		int size;
@@ -504,6 +554,65 @@ public class RealMatrix extends doubleMatrices.AbstractRegularDoubleMatrix
 		numbers[indexRow1] = temp;
 	}
 
+	/**
+	 * Returns the permutation that orders the rows by the index of their first
+	 * non-zero number, zero rows last: row {@code i} of the ordered matrix is row
+	 * {@code permutation[i]} of this one.
+	 * <p>
+	 * Every row is scanned once for its leading index and the rows are then
+	 * counting-sorted by it, so the cost is O(rows * columns) for the scan plus
+	 * O(rows + columns) for the sort. The sort is stable: rows with the same leading
+	 * index keep their relative order.
+	 * </p>
+	 */
+	int[] rowOrderingPermutation() {
+		int r = rowsLength, c = columnsLength;
+		int[] keys = new int[r];
+		int[] starts = new int[c + 2];
+		for (int i = 0; i < r; i++) {
+			double[] row = numbers[i];
+			int j = 0;
+			while (j < c && row[j] == 0)
+				j++;
+			keys[i] = j;
+			starts[j + 1]++;
+		}
+		for (int k = 1; k < starts.length; k++)
+			starts[k] += starts[k - 1];
+		int[] permutation = new int[r];
+		for (int i = 0; i < r; i++)
+			permutation[starts[keys[i]]++] = i;
+		return permutation;
+	}
+
+	/**
+	 * Rearranges the rows so that row {@code i} becomes the former row
+	 * {@code permutation[i]}. Only the row references are moved, following the
+	 * cycles of the permutation.
+	 *
+	 * @return the number of transpositions the permutation is made of; its parity
+	 *         is the parity of the permutation
+	 */
+	int permuteRowsUnsafe(int[] permutation) {
+		int n = permutation.length, transpositions = 0;
+		boolean[] placed = new boolean[n];
+		for (int start = 0; start < n; start++) {
+			if (placed[start])
+				continue;
+			double[] first = numbers[start];
+			int i = start;
+			placed[i] = true;
+			while (permutation[i] != start) {
+				numbers[i] = numbers[permutation[i]];
+				i = permutation[i];
+				placed[i] = true;
+				transpositions++;
+			}
+			numbers[i] = first;
+		}
+		return transpositions;
+	}
+
 	private void checkIndexForRow(int index) {
 		checkIndex0(index, rowSize() - 1);
 	}
@@ -544,16 +653,82 @@ public class RealMatrix extends doubleMatrices.AbstractRegularDoubleMatrix
 	 * lower pivot indices to the top, which is a common step in Gaussian
 	 * elimination.
 	 *
-	 * The method returns the total number of swaps performed during the row
-	 * ordering process. This value is useful in calculating the determinant of the
-	 * matrix.
+	 * The method returns the number of row swaps the ordering is equivalent to.
+	 * Its parity is the parity of the row permutation, which gives the sign change
+	 * of the determinant.
 	 *
-	 * @return the total number of swaps performed during row ordering
+	 * @return the number of row swaps the ordering is equivalent to
 	 */
 	public int orderRows() {
 		return LinearAlgebra.matrixOrderingRows(this);
 	}
 
+	/**
+	 * Orders the rows of this matrix as {@link #orderRows()} does and moves the
+	 * rows of {@code companion} in the same way.
+	 *
+	 * @see LinearAlgebra#matrixOrderingRows(RealMatrix, RealMatrix)
+	 */
+	public int orderRows(RealMatrix companion) {
+		return LinearAlgebra.matrixOrderingRows(this, companion);
+	}
+
+	/**
+	 * Transforms this matrix, in place, into a row echelon form by Gaussian
+	 * elimination with partial pivoting, and returns the number of row swaps
+	 * performed.
+	 * <p>
+	 * For every column, the pivot is the number of largest magnitude among the
+	 * rows not yet used, found in a single pass. Its row is swapped (by reference)
+	 * into place and subtracted from the rows below it directly on the backing
+	 * arrays, so no row is copied or allocated. Columns whose candidates are all
+	 * negligible compared to the largest number of the matrix are cleared and
+	 * skipped.
+	 * </p>
+	 */
+	int eliminateToRowEchelonForm() {
+		int r = rowsLength, c = columnsLength;
+		double scale = 0;
+		for (int i = 0; i < r; i++) {
+			double[] row = numbers[i];
+			for (int j = 0; j < c; j++)
+				scale = Math.max(scale, Math.abs(row[j]));
+		}
+		double tolerance = scale * Utils.UMBRAL_ZERO;
+		int swaps = 0, pivotRow = 0;
+		for (int col = 0; col < c && pivotRow < r; col++) {
+			int p = pivotRow;
+			double max = Math.abs(numbers[p][col]);
+			for (int i = pivotRow + 1; i < r; i++) {
+				double v = Math.abs(numbers[i][col]);
+				if (v > max) {
+					max = v;
+					p = i;
+				}
+			}
+			if (max <= tolerance) {
+				for (int i = pivotRow; i < r; i++)
+					numbers[i][col] = 0;
+				continue;
+			}
+			if (p != pivotRow) {
+				swapRowsUnsafe(p, pivotRow);
+				swaps++;
+			}
+			double[] rowPivot = numbers[pivotRow];
+			double pivot = rowPivot[col];
+			for (int i = pivotRow + 1; i < r; i++) {
+				double[] row = numbers[i];
+				double alpha = row[col] / pivot;
+				row[col] = 0;
+				if (alpha != 0)
+					NumericArrays.axpy(-alpha, rowPivot, row, col + 1, c);
+			}
+			pivotRow++;
+		}
+		return swaps;
+	}
+
 	/**
 	 * Converts the matrix to its row echelon form.
 	 *
@@ -584,6 +759,74 @@ public class RealMatrix extends doubleMatrices.AbstractRegularDoubleMatrix
 		return LinearAlgebra.matrixDeterminant(this);
 	}
 
+	/**
+	 * Returns the LU decomposition with partial pivoting of this matrix. Keep the
+	 * returned object to compute the determinant, the inverse or to solve several
+	 * systems with this matrix while eliminating only once.
+	 *
+	 * @return the LU decomposition of this matrix
+	 * @throws NonSquareMatrixException if this matrix is not square
+	 */
+	public LUDecomposition luDecomposition() {
+		return LinearAlgebra.matrixLUDecomposition(this);
+	}
+
+	/**
+	 * Returns the Cholesky decomposition of this matrix, which must be symmetric
+	 * positive definite. It costs half as much as the
+	 * {@link #luDecomposition()}, and the returned object solves systems, inverts
+	 * and computes the (logarithm of the) determinant the same way.
+	 *
+	 * @return the Cholesky decomposition of this matrix
+	 * @throws NonSquareMatrixException           if this matrix is not square
+	 * @throws NonPositiveDefiniteMatrixException if this matrix is not symmetric
+	 *                                            positive definite
+	 */
+	public CholeskyDecomposition choleskyDecomposition() {
+		return LinearAlgebra.matrixCholeskyDecomposition(this);
+	}
+
+	/**
+	 * Returns the Householder QR decomposition of this matrix, of any dimension.
+	 * Keep the returned object to solve several (least squares) systems with this
+	 * matrix while decomposing only once.
+	 *
+	 * @return the QR decomposition of this matrix
+	 */
+	public QRDecomposition qrDecomposition() {
+		return LinearAlgebra.matrixQRDecomposition(this);
+	}
+
+	/**
+	 * Returns the economy size singular value decomposition of this matrix, of any
+	 * dimension, with its singular vectors.
+	 *
+	 * @return the singular value decomposition of this matrix
+	 */
+	public SingularValueDecomposition singularValueDecomposition() {
+		return LinearAlgebra.matrixSingularValueDecomposition(this);
+	}
+
+	/**
+	 * Returns the Moore-Penrose pseudo-inverse of this matrix, of any dimension,
+	 * even rank deficient.
+	 *
+	 * @return the pseudo-inverse of this matrix
+	 * @see SingularValueDecomposition#pseudoInverse()
+	 */
+	public RealMatrix pseudoInverse() {
+		return LinearAlgebra.matrixPseudoInverse(this);
+	}
+
+	/**
+	 * Returns {@code true} if this matrix is symmetric positive definite.
+	 *
+	 * @see CholeskyDecomposition#isPositiveDefinite(RealMatrix)
+	 */
+	public boolean isPositiveDefinite() {
+		return CholeskyDecomposition.isPositiveDefinite(this);
+	}
+
 	/**
 	 * Returns the inverse of this matrix The cofactor matrix is formed by taking
 	 * the determinant of each submatrix(i,j) and multiplying it by (-1)^(i + j),
@@ -633,6 +876,28 @@ public class RealMatrix extends doubleMatrices.AbstractRegularDoubleMatrix
 //		return LinearAlgebra.matrixInverseAdjugateDefinition(this);
 	}
 
+	/**
+	 * Solves the system {@code this x = b}.
+	 *
+	 * @param b the right hand side
+	 * @return the solution {@code x}
+	 * @see LinearAlgebra#solve(RealMatrix, double[])
+	 */
+	public double[] solve(double[] b) {
+		return LinearAlgebra.solve(this, b);
+	}
+
+	/**
+	 * Solves the systems {@code this X = B}, one for every column of {@code b}.
+	 *
+	 * @param b the right hand sides, one per column
+	 * @return the solution {@code X}
+	 * @see LinearAlgebra#solve(RealMatrix, RealMatrix)
+	 */
+	public RealMatrix solve(RealMatrix b) {
+		return LinearAlgebra.solve(this, b);
+	}
+
 	/**
 	 * Returns the transpose of this matrix.
 	 * 
@@ -923,45 +1188,250 @@ public class RealMatrix extends doubleMatrices.AbstractRegularDoubleMatrix
 //		slower and probably I think heavier
 //		assignMatrix(MatrixOperations.addMatrices(this, m).data(), true);
  		Utils.checkMatricesSameDimension(this, m);
+		int c = columnSize();
 		for (int i = 0; i < rowSize(); i++)
-			for(int j = 0; j < columnSize(); j++)
-				numbers[i][j] += m.numbers[i][j];
+			ArrayKernels.add(numbers[i], m.numbers[i], numbers[i], 0, c);
 	}
 
 	public void subtract(RealMatrix m) {
 //		assignMatrix(MatrixOperations.subtractMatrices(this, m).data(), true);
 		Utils.checkMatricesSameDimension(this, m);
+		int c = columnSize();
 		for (int i = 0; i < rowSize(); i++)
-			for(int j = 0; j < columnSize(); j++)
-				numbers[i][j] -= m.numbers[i][j];
+			ArrayKernels.subtract(numbers[i], m.numbers[i], numbers[i], 0, c);
 	}
 
+	/**
+	 * Multiplies this matrix by the given one, {@code this = this x m}.
+	 *
+	 * @param m right hand side of the product
+	 * @throws IllegalArgumentException if the number of columns of this matrix is
+	 *                                  not equal to the number of rows of {@code m}
+	 */
 	public void multiply(RealMatrix m) {
-//		assignMatrix(MatrixOperations.multiplyMatrices(this, m).data(), false);
 		Utils.checkMatricesCorrectDimensionForMultiplication(this, m);
+		numbers = productData(this, m, null, getRoundingPolicy());
+		currentRowCapacity = rowsLength;
+		currentColumnCapacity = columnsLength = m.columnsLength;
+	}
 
-		int r1 = rowSize(), 
-			c2 = m.columnSize(),
-			common = m.rowSize();
+	/**
+	 * Multiplies this matrix by the given one, {@code this = this x m}, splitting
+	 * the work between the threads of the given pool. Products too small to
+	 * benefit from it are computed by the calling thread.
+	 *
+	 * @param m    right hand side of the product
+	 * @param pool pool where the blocks of the product are computed
+	 * @throws IllegalArgumentException if the number of columns of this matrix is
+	 *                                  not equal to the number of rows of {@code m}
+	 */
+	public void multiply(RealMatrix m, ForkJoinPool pool) {
+		Utils.checkMatricesCorrectDimensionForMultiplication(this, m);
+		numbers = productData(this, m, pool, getRoundingPolicy());
+		currentRowCapacity = rowsLength;
+		currentColumnCapacity = columnsLength = m.columnsLength;
+	}
 
-		growColumnsCapacity(columnsLength = c2, false);
+	/**
+	 * Returns the product of this matrix and the given column vector,
+	 * {@code this x x}, rounded by the policy of this matrix.
+	 *
+	 * @param x vector of {@link #columnSize()} numbers
+	 * @return a new vector of {@link #rowSize()} numbers
+	 * @throws IncompatibleLengthsException if the length of {@code x} is not the
+	 *                                      number of columns
+	 */
+	public double[] multiply(double[] x) {
+		double[] y = new double[rowsLength];
+		multiply(1, x, 0, y, null);
+		return y;
+	}
 
-		for (int i = 0; i < r1; i++) {
-			double[] rowAux = numbers[i].clone();
-			for (int j = 0; j < c2; j++) {
-				numbers[i][j] = 0;
-				for (int ij = 0; ij < common; ij++) {
-					numbers[i][j] += Utils.shouldRound(rowAux[ij] * m.numbers[ij][j]);
-				}
+	/**
+	 * Returns the product of the transpose of this matrix and the given column
+	 * vector, {@code this^T x x} (or {@code x} as a row vector times this matrix),
+	 * without building the transpose.
+	 *
+	 * @param x vector of {@link #rowSize()} numbers
+	 * @return a new vector of {@link #columnSize()} numbers
+	 * @throws IncompatibleLengthsException if the length of {@code x} is not the
+	 *                                      number of rows
+	 */
+	public double[] multiplyTransposed(double[] x) {
+		double[] y = new double[columnsLength];
+		multiplyTransposed(1, x, 0, y, null);
+		return y;
+	}
+
+	/**
+	 * Computes {@code y = alpha * this x x + beta * y} in place. When {@code beta}
+	 * is zero the previous numbers of {@code y} are ignored.
+	 *
+	 * @param alpha scalar multiplier of the product
+	 * @param x     vector of {@link #columnSize()} numbers
+	 * @param beta  scalar multiplier of {@code y}
+	 * @param y     vector of {@link #rowSize()} numbers, overwritten with the
+	 *              result
+	 * @throws IncompatibleLengthsException if the lengths of the vectors do not
+	 *                                      match the dimension of this matrix
+	 * @throws IllegalArgumentException     if {@code x} and {@code y} are the same
+	 *                                      array
+	 */
+	public void multiply(double alpha, double[] x, double beta, double[] y) {
+		multiply(alpha, x, beta, y, null);
+	}
+
+	/**
+	 * Same as {@link #multiply(double, double[], double, double[])}, splitting the
+	 * rows between the threads of the given pool. Products too small to benefit
+	 * from it are computed by the calling thread, as they are if {@code pool} is
+	 * null.
+	 */
+	public void multiply(double alpha, double[] x, double beta, double[] y, ForkJoinPool pool) {
+		checkVectors(x, columnsLength, y, rowsLength);
+		GemvKernel.multiply(numbers, rowsLength, columnsLength, alpha, x, beta, y, getRoundingPolicy(), pool);
+	}
+
+	/**
+	 * Computes {@code y = alpha * this^T x x + beta * y} in place. When
+	 * {@code beta} is zero the previous numbers of {@code y} are ignored.
+	 *
+	 * @param alpha scalar multiplier of the product
+	 * @param x     vector of {@link #rowSize()} numbers
+	 * @param beta  scalar multiplier of {@code y}
+	 * @param y     vector of {@link #columnSize()} numbers, overwritten with the
+	 *              result
+	 * @throws IncompatibleLengthsException if the lengths of the vectors do not
+	 *                                      match the dimension of this matrix
+	 * @throws IllegalArgumentException     if {@code x} and {@code y} are the same
+	 *                                      array
+	 */
+	public void multiplyTransposed(double alpha, double[] x, double beta, double[] y) {
+		multiplyTransposed(alpha, x, beta, y, null);
+	}
+
+	/**
+	 * Same as {@link #multiplyTransposed(double, double[], double, double[])},
+	 * splitting the columns between the threads of the given pool. Products too
+	 * small to benefit from it are computed by the calling thread, as they are if
+	 * {@code pool} is null.
+	 */
+	public void multiplyTransposed(double alpha, double[] x, double beta, double[] y, ForkJoinPool pool) {
+		checkVectors(x, rowsLength, y, columnsLength);
+		GemvKernel.multiplyTransposed(numbers, rowsLength, columnsLength, alpha, x, beta, y, getRoundingPolicy(),
+				pool);
+	}
+
+	private static void checkVectors(double[] x, int xLength, double[] y, int yLength) {
+		if (x.length != xLength)
+			throw new IncompatibleLengthsException(xLength, x.length);
+		if (y.length != yLength)
+			throw new IncompatibleLengthsException(yLength, y.length);
+		if (x == y)
+			throw new IllegalArgumentException("The result can't overwrite the vector being multiplied");
+	}
+
+	/**
+	 * Adds the outer product of the given vectors, scaled by {@code alpha}, to
+	 * this matrix: {@code this = this + alpha * x x y^T}.
+	 *
+	 * @param alpha scalar multiplier of the outer product
+	 * @param x     column vector of {@link #rowSize()} numbers
+	 * @param y     row vector of {@link #columnSize()} numbers
+	 * @throws IncompatibleLengthsException if the lengths of the vectors do not
+	 *                                      match the dimension of this matrix
+	 */
+	public void rankOneUpdate(double alpha, double[] x, double[] y) {
+		if (x.length != rowsLength)
+			throw new IncompatibleLengthsException(rowsLength, x.length);
+		if (y.length != columnsLength)
+			throw new IncompatibleLengthsException(columnsLength, y.length);
+		RoundingPolicy policy = getRoundingPolicy();
+		for (int i = 0; i < rowsLength; i++) {
+			double xi = alpha * x[i];
+			if (xi != 0) {
+				ArrayKernels.axpy(xi, y, numbers[i], 0, columnsLength);
+				policy.round(numbers[i], 0, columnsLength);
 			}
 		}
 	}
 
+	/**
+	 * Returns {@code this^T x this}, the Gram matrix of the columns of this
+	 * matrix, without building the transpose. Only one triangle of the result is
+	 * computed, since it is symmetric.
+	 *
+	 * @return a new {@code columnSize() x columnSize()} symmetric matrix
+	 */
+	public RealMatrix transposeProduct() {
+		double[][] res = new double[columnsLength][columnsLength];
+		SyrkKernel.transposeProduct(numbers, rowsLength, columnsLength, res, getRoundingPolicy());
+		return inheritRoundingPolicy(new RealMatrix(res, false, false));
+	}
+
+	/**
+	 * Returns {@code this x this^T}, the Gram matrix of the rows of this matrix,
+	 * without building the transpose. Only one triangle of the result is
+	 * computed, since it is symmetric.
+	 *
+	 * @return a new {@code rowSize() x rowSize()} symmetric matrix
+	 */
+	public RealMatrix productTranspose() {
+		double[][] res = new double[rowsLength][rowsLength];
+		SyrkKernel.productTranspose(numbers, rowsLength, columnsLength, res, getRoundingPolicy());
+		return inheritRoundingPolicy(new RealMatrix(res, false, false));
+	}
+
+	/**
+	 * Returns {@code m1 x m2} as a new matrix, leaving both operands untouched.
+	 */
+	static RealMatrix product(RealMatrix m1, RealMatrix m2) {
+		return product(m1, m2, null, m1.getRoundingPolicy());
+	}
+
+	/**
+	 * Returns {@code m1 x m2} as a new matrix, computed in the given pool.
+	 */
+	static RealMatrix product(RealMatrix m1, RealMatrix m2, ForkJoinPool pool) {
+		return product(m1, m2, pool, m1.getRoundingPolicy());
+	}
+
+	/**
+	 * Returns {@code m1 x m2} as a new matrix rounded by the given policy,
+	 * computed in the given pool or by the calling thread if it is null.
+	 */
+	static RealMatrix product(RealMatrix m1, RealMatrix m2, ForkJoinPool pool, RoundingPolicy policy) {
+		Utils.checkMatricesCorrectDimensionForMultiplication(m1, m2);
+		return m1.inheritRoundingPolicy(new RealMatrix(productData(m1, m2, pool, policy), false, false));
+	}
+
+	private static double[][] productData(RealMatrix m1, RealMatrix m2, ForkJoinPool pool, RoundingPolicy policy) {
+		int r = m1.rowsLength, c = m2.columnsLength, common = m1.columnsLength;
+		double[][] res = new double[r][c];
+		if (policy == RoundingPolicy.SNAP_PER_OP) {
+			// every partial product is snapped, so the blocked kernel can't be used
+			for (int i = 0; i < r; i++) {
+				double[] a = m1.numbers[i], row = res[i];
+				for (int k = 0; k < common; k++) {
+					double aik = a[k];
+					double[] b = m2.numbers[k];
+					for (int j = 0; j < c; j++)
+						row[j] += policy.term(aik, b[j]);
+				}
+			}
+		} else if (pool == null)
+			GemmKernel.multiply(m1.numbers, m2.numbers, res, r, c, common);
+		else
+			GemmKernel.multiplyParallel(m1.numbers, m2.numbers, res, r, c, common, pool);
+		policy.round(res, c);
+		return res;
+	}
+
 	public void scalarMultiply(double alpha) {
 //		assignMatrix(MatrixOperations.matrixScalarMultiplication(this, alpha).data(), true);
+		int c = columnSize();
 		for (int i = 0; i < rowSize(); i++)
-			for(int j = 0; j < columnSize(); j++)
-				numbers[i][j] *= alpha;
+			ArrayKernels.scale(alpha, numbers[i], numbers[i], 0, c);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package algebra;
+
+/**
+ * How the results of the operations are snapped to the closest integer (or to
+ * zero) when they are within {@link Utils#shouldRound(double)} tolerance of it,
+ * which hides the noise floating point arithmetic leaves in results that should
+ * be exact.
+ * <p>
+ * The policy can be given to an operation directly, set on a
+ * {@link RealMatrix} with {@link RealMatrix#setRoundingPolicy(RoundingPolicy)}
+ * for the operations on that matrix, or set for everything else with
+ * {@link Utils#setDefaultRoundingPolicy(RoundingPolicy)}. The default is
+ * {@link #SNAP_AT_END}.
+ * </p>
+ * <p>
+ * Numbers of magnitude {@code 2^52} or more are integers already, and are
+ * never changed by any policy, nor are {@code NaN} and the infinities.
+ * </p>
+ */
+public enum RoundingPolicy {
+
+	/**
+	 * Results are left as computed. This is the fastest policy, and the only one
+	 * whose results are exactly those of the floating point arithmetic.
+	 */
+	OFF,
+
+	/**
+	 * Every number of a result is snapped once, after it has been computed.
+	 */
+	SNAP_AT_END,
+
+	/**
+	 * Besides the result, every term of a sum of products (the entries of a matrix
+	 * product, dot products) is snapped before it is added. The products are then
+	 * computed one term at a time, without the blocked kernels. Operations that
+	 * are not sums of products snap as {@link #SNAP_AT_END} does.
+	 */
+	SNAP_PER_OP;
+
+	/**
+	 * Returns {@code n} snapped by this policy.
+	 */
+	public double round(double n) {
+		return this == OFF ? n : snap(n);
+	}
+
+	/**
+	 * Snaps {@code v[from, to)} in place.
+	 */
+	void round(double[] v, int from, int to) {
+		if (this == OFF)
+			return;
+		for (int i = from; i < to; i++)
+			v[i] = snap(v[i]);
+	}
+
+	/**
+	 * Snaps the first {@code columns} numbers of every row in place.
+	 */
+	void round(double[][] rows, int columns) {
+		if (this == OFF)
+			return;
+		for (double[] row : rows)
+			round(row, 0, columns);
+	}
+
+	/**
+	 * Returns the term of a sum of products, {@code a * b}, snapped if this policy
+	 * snaps every operation.
+	 */
+	double term(double a, double b) {
+		return this == SNAP_PER_OP ? snap(a * b) : a * b;
+	}
+
+	/**
+	 * Returns {@code n} snapped, or unchanged if it is not below
+	 * {@link Utils#SNAP_LIMIT} in magnitude (or not a number).
+	 */
+	private static double snap(double n) {
+		return Math.abs(n) < Utils.SNAP_LIMIT ? Utils.shouldRound(n) : n;
+	}
+
+}
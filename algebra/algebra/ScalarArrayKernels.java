@@ -0,0 +1,170 @@
+package algebra;
+
+/**
+ * Plain loop implementations of the {@link ArrayKernels} operations, used on
+ * every JVM where the Vector API is not available.
+ */
+final class ScalarArrayKernels {
+
+	private ScalarArrayKernels() {
+	}
+
+	// add
+
+	static void add(double[] x, double[] y, double[] dest, int from, int to) {
+		for (int i = from; i < to; i++)
+			dest[i] = x[i] + y[i];
+	}
+
+	static void add(float[] x, float[] y, float[] dest, int from, int to) {
+		for (int i = from; i < to; i++)
+			dest[i] = x[i] + y[i];
+	}
+
+	static void add(int[] x, int[] y, int[] dest, int from, int to) {
+		for (int i = from; i < to; i++)
+			dest[i] = x[i] + y[i];
+	}
+
+	// subtract
+
+	static void subtract(double[] x, double[] y, double[] dest, int from, int to) {
+		for (int i = from; i < to; i++)
+			dest[i] = x[i] - y[i];
+	}
+
+	static void subtract(float[] x, float[] y, float[] dest, int from, int to) {
+		for (int i = from; i < to; i++)
+			dest[i] = x[i] - y[i];
+	}
+
+	static void subtract(int[] x, int[] y, int[] dest, int from, int to) {
+		for (int i = from; i < to; i++)
+			dest[i] = x[i] - y[i];
+	}
+
+	// scale
+
+	static void scale(double alpha, double[] x, double[] dest, int from, int to) {
+		for (int i = from; i < to; i++)
+			dest[i] = alpha * x[i];
+	}
+
+	static void scale(float alpha, float[] x, float[] dest, int from, int to) {
+		for (int i = from; i < to; i++)
+			dest[i] = alpha * x[i];
+	}
+
+	static void scale(int alpha, int[] x, int[] dest, int from, int to) {
+		for (int i = from; i < to; i++)
+			dest[i] = alpha * x[i];
+	}
+
+	// axpy
+
+	static void axpy(double alpha, double[] x, double[] y, int from, int to) {
+		for (int i = from; i < to; i++)
+			y[i] += alpha * x[i];
+	}
+
+	static void axpy(float alpha, float[] x, float[] y, int from, int to) {
+		for (int i = from; i < to; i++)
+			y[i] += alpha * x[i];
+	}
+
+	static void axpy(int alpha, int[] x, int[] y, int from, int to) {
+		for (int i = from; i < to; i++)
+			y[i] += alpha * x[i];
+	}
+
+	// dot
+
+	static double dot(double[] x, double[] y, int from, int to) {
+		double sum = 0;
+		for (int i = from; i < to; i++)
+			sum += x[i] * y[i];
+		return sum;
+	}
+
+	static double dot(float[] x, float[] y, int from, int to) {
+		double sum = 0;
+		for (int i = from; i < to; i++)
+			sum += x[i] * y[i];
+		return sum;
+	}
+
+	static int dot(int[] x, int[] y, int from, int to) {
+		int sum = 0;
+		for (int i = from; i < to; i++)
+			sum += x[i] * y[i];
+		return sum;
+	}
+
+	// sum
+
+	static double sum(double[] x, int from, int to) {
+		double sum = 0;
+		for (int i = from; i < to; i++)
+			sum += x[i];
+		return sum;
+	}
+
+	static double sum(float[] x, int from, int to) {
+		double sum = 0;
+		for (int i = from; i < to; i++)
+			sum += x[i];
+		return sum;
+	}
+
+	static double sum(int[] x, int from, int to) {
+		double sum = 0;
+		for (int i = from; i < to; i++)
+			sum += x[i];
+		return sum;
+	}
+
+	// sum of squares
+
+	static double sumOfSquares(double[] x, int from, int to) {
+		double sum = 0;
+		for (int i = from; i < to; i++)
+			sum += x[i] * x[i];
+		return sum;
+	}
+
+	static double sumOfSquares(float[] x, int from, int to) {
+		double sum = 0;
+		for (int i = from; i < to; i++) {
+			double n = x[i];
+			sum += n * n;
+		}
+		return sum;
+	}
+
+	static double sumOfSquares(int[] x, int from, int to) {
+		double sum = 0;
+		for (int i = from; i < to; i++) {
+			double n = x[i];
+			sum += n * n;
+		}
+		return sum;
+	}
+
+	// fused
+
+	static void axpby(double alpha, double[] x, double beta, double[] y, int from, int to) {
+		for (int i = from; i < to; i++)
+			y[i] = alpha * x[i] + beta * y[i];
+	}
+
+	static double axpySumOfSquares(double alpha, double[] x, double[] y, int from, int to) {
+		double sum = 0;
+		for (int i = from; i < to; i++) {
+			double n = y[i] + alpha * x[i];
+			y[i] = n;
+			sum += n * n;
+		}
+		return sum;
+	}
+
+}
@@ -0,0 +1,544 @@
+package algebra;
+
+import java.util.Arrays;
+
+/**
+ * Singular value decomposition of a matrix.
+ * <p>
+ * For a {@code m x n} matrix {@code A} it computes, with
+ * {@code k = min(m, n)}, a {@code m x k} matrix {@code U} and a {@code n x k}
+ * matrix {@code V} with orthonormal columns, and the singular values
+ * {@code s1 >= s2 >= ... >= sk >= 0}, such that
+ * {@code A = U x S x V^T}, {@code S} being the diagonal of the singular values.
+ * This is the economy size decomposition: the columns of the full orthogonal
+ * matrices that only multiply zeros of {@code S} are never computed. The
+ * largest singular value is the 2-norm of the matrix, the number of them that
+ * are not negligible its rank, and their quotient its condition number; see
+ * {@link #norm2()}, {@link #rank()} and {@link #conditionNumber()}. When only
+ * those are wanted, the decomposition can skip {@code U} and {@code V}, which
+ * is where most of its time goes.
+ * </p>
+ * <p>
+ * The matrix is reduced to upper bidiagonal form by Householder reflections on
+ * its columns and rows, and the bidiagonal is then diagonalized by implicitly
+ * shifted QR steps, following the classic algorithm of Golub and Reinsch (the
+ * one of LINPACK and JAMA). The copy is stored column after column, as the QR
+ * does, so every reflection and every rotation goes through contiguous arrays.
+ * A matrix with more columns than rows is decomposed through its transpose. A
+ * matrix with at least twice as many rows as columns is first reduced by a
+ * {@link QRDecomposition}, and only its square factor {@code R} is
+ * bidiagonalized, which saves most of the work.
+ * </p>
+ */
+public final class SingularValueDecomposition {
+
+	// rows per column from which the QR decomposition goes first
+	private static final int QR_RATIO = 2;
+
+	// QR steps allowed to converge every singular value
+	private static final int MAX_ITERATIONS = 75;
+
+	private final double[] singularValues;
+	private final RealMatrix u;
+	private final RealMatrix v;
+	private final int rows;
+	private final int columns;
+
+	/**
+	 * Computes the singular value decomposition of the given matrix, with its
+	 * singular vectors.
+	 *
+	 * @param mat the matrix to decompose
+	 * @throws ArithmeticException if the QR steps do not converge, which only
+	 *                             happens when the matrix has numbers that are
+	 *                             not finite
+	 */
+	public SingularValueDecomposition(RealMatrix mat) {
+		this(mat, true);
+	}
+
+	/**
+	 * Computes the singular value decomposition of the given matrix. Without the
+	 * singular vectors only the singular values are computed, which is much
+	 * faster, but {@link #getU()}, {@link #getV()} and {@link #pseudoInverse()}
+	 * can't be called.
+	 *
+	 * @param mat            the matrix to decompose
+	 * @param computeVectors whether to compute {@code U} and {@code V}
+	 * @throws ArithmeticException if the QR steps do not converge, which only
+	 *                             happens when the matrix has numbers that are
+	 *                             not finite
+	 */
+	public SingularValueDecomposition(RealMatrix mat, boolean computeVectors) {
+		rows = mat.rowSize();
+		columns = mat.columnSize();
+		// decomposed matrix, A or A^T, with m >= n
+		boolean transposed = rows < columns;
+		int m = Math.max(rows, columns), n = Math.min(rows, columns);
+
+		QRDecomposition qr = null;
+		double[][] a;
+		int aRows = m;
+		if (m >= QR_RATIO * n) {
+			qr = new QRDecomposition(transposed ? mat.transpose() : mat);
+			aRows = n;
+			a = new double[n][n];
+			RealMatrix r = qr.getR();
+			for (int i = 0; i < n; i++) {
+				double[] row = r.rowReference(i);
+				for (int j = i; j < n; j++)
+					a[j][i] = row[j];
+			}
+		} else if (transposed) {
+			// the columns of A^T are the rows of A
+			a = new double[n][];
+			for (int j = 0; j < n; j++)
+				a[j] = Arrays.copyOf(mat.rowReference(j), m);
+		} else {
+			a = new double[n][m];
+			for (int i = 0; i < m; i++) {
+				double[] row = mat.rowReference(i);
+				for (int j = 0; j < n; j++)
+					a[j][i] = row[j];
+			}
+		}
+
+		singularValues = new double[n];
+		double[][] uColumns = computeVectors ? new double[n][aRows] : null;
+		double[][] vColumns = computeVectors ? new double[n][n] : null;
+		decompose(a, aRows, n, singularValues, uColumns, vColumns);
+
+		if (!computeVectors) {
+			u = v = null;
+			return;
+		}
+		RealMatrix left = new RealMatrix(QRDecomposition.transpose(uColumns, n, aRows), false, false);
+		if (qr != null)
+			left = RealMatrix.product(qr.getQ(), left, null, RoundingPolicy.OFF);
+		RealMatrix right = new RealMatrix(QRDecomposition.transpose(vColumns, n, n), false, false);
+		u = transposed ? right : left;
+		v = transposed ? left : right;
+	}
+
+	/**
+	 * Computes the singular values of the {@code m x n} matrix whose columns are
+	 * {@code a}, {@code m >= n}, into {@code s}, in descending order, and its left
+	 * and right singular vectors into the columns {@code u} and {@code v}, if they
+	 * are not null. {@code a} is overwritten.
+	 */
+	private static void decompose(double[][] a, int m, int n, double[] s, double[][] u, double[][] v) {
+		boolean wantU = u != null, wantV = v != null;
+		double[] e = new double[n];
+		double[] work = new double[m];
+
+		// reduction to bidiagonal form, the diagonal in s and the superdiagonal in e
+		int nct = Math.min(m - 1, n);
+		int nrt = Math.max(0, Math.min(n - 2, m));
+		for (int k = 0; k < Math.max(nct, nrt); k++) {
+			double[] ak = a[k];
+			if (k < nct) {
+				// reflection of column k, below the diagonal
+				s[k] = norm(ak, k, m);
+				if (s[k] != 0) {
+					if (ak[k] < 0)
+						s[k] = -s[k];
+					ArrayKernels.scale(1 / s[k], ak, ak, k, m);
+					ak[k] += 1;
+				}
+				s[k] = -s[k];
+			}
+			for (int j = k + 1; j < n; j++) {
+				double[] aj = a[j];
+				if (k < nct && s[k] != 0)
+					ArrayKernels.axpy(-ArrayKernels.dot(ak, aj, k, m) / ak[k], ak, aj, k, m);
+				// row k, for its reflection
+				e[j] = aj[k];
+			}
+			if (wantU && k < nct)
+				System.arraycopy(ak, k, u[k], k, m - k);
+			if (k < nrt) {
+				// reflection of row k, right of the superdiagonal
+				e[k] = norm(e, k + 1, n);
+				if (e[k] != 0) {
+					if (e[k + 1] < 0)
+						e[k] = -e[k];
+					ArrayKernels.scale(1 / e[k], e, e, k + 1, n);
+					e[k + 1] += 1;
+				}
+				e[k] = -e[k];
+				if (k + 1 < m && e[k] != 0) {
+					Arrays.fill(work, k + 1, m, 0);
+					for (int j = k + 1; j < n; j++)
+						ArrayKernels.axpy(e[j], a[j], work, k + 1, m);
+					for (int j = k + 1; j < n; j++)
+						ArrayKernels.axpy(-e[j] / e[k + 1], work, a[j], k + 1, m);
+				}
+				if (wantV)
+					System.arraycopy(e, k + 1, v[k], k + 1, n - k - 1);
+			}
+		}
+
+		int p = Math.min(n, m + 1);
+		if (nct < n)
+			s[nct] = a[nct][nct];
+		if (m < p)
+			s[p - 1] = 0;
+		if (nrt + 1 < p)
+			e[nrt] = a[p - 1][nrt];
+		e[p - 1] = 0;
+
+		if (wantU) {
+			for (int j = nct; j < n; j++)
+				u[j][j] = 1;
+			for (int k = nct - 1; k >= 0; k--) {
+				double[] uk = u[k];
+				if (s[k] != 0) {
+					for (int j = k + 1; j < n; j++)
+						ArrayKernels.axpy(-ArrayKernels.dot(uk, u[j], k, m) / uk[k], uk, u[j], k, m);
+					ArrayKernels.scale(-1, uk, uk, k, m);
+					uk[k] += 1;
+				} else {
+					Arrays.fill(uk, 0);
+					uk[k] = 1;
+				}
+			}
+		}
+		if (wantV) {
+			for (int k = n - 1; k >= 0; k--) {
+				double[] vk = v[k];
+				if (k < nrt && e[k] != 0)
+					for (int j = k + 1; j < n; j++)
+						ArrayKernels.axpy(-ArrayKernels.dot(vk, v[j], k + 1, n) / vk[k + 1], vk, v[j], k + 1, n);
+				Arrays.fill(vk, 0);
+				vk[k] = 1;
+			}
+		}
+
+		diagonalize(s, e, p, m, n, u, v);
+	}
+
+	/**
+	 * Diagonalizes the bidiagonal of order {@code p} with diagonal {@code s} and
+	 * superdiagonal {@code e} by QR steps, accumulating the rotations into the
+	 * columns {@code u} and {@code v}, if they are not null, and sorts the
+	 * singular values in descending order.
+	 */
+	private static void diagonalize(double[] s, double[] e, int p, int m, int n, double[][] u, double[][] v) {
+		boolean wantU = u != null, wantV = v != null;
+		int pp = p - 1;
+		int iterations = 0;
+		double eps = Math.ulp(1.0);
+		double tiny = 0x1p-966;
+		while (p > 0) {
+			// k is the last negligible superdiagonal before p - 1, or -1
+			int k;
+			for (k = p - 2; k >= 0; k--) {
+				if (Math.abs(e[k]) <= tiny + eps * (Math.abs(s[k]) + Math.abs(s[k + 1]))) {
+					e[k] = 0;
+					break;
+				}
+			}
+			int kase;
+			if (k == p - 2) {
+				// s[p - 1] has converged
+				kase = 4;
+			} else {
+				int ks;
+				for (ks = p - 1; ks > k; ks--) {
+					double t = (ks != p ? Math.abs(e[ks]) : 0) + (ks != k + 1 ? Math.abs(e[ks - 1]) : 0);
+					if (Math.abs(s[ks]) <= tiny + eps * t) {
+						s[ks] = 0;
+						break;
+					}
+				}
+				if (ks == k) {
+					// no negligible singular value: a QR step on [k + 1, p)
+					kase = 3;
+				} else if (ks == p - 1) {
+					// negligible s[p - 1]: deflate it
+					kase = 1;
+				} else {
+					// negligible s[ks]: split there
+					kase = 2;
+					k = ks;
+				}
+			}
+			k++;
+
+			switch (kase) {
+			case 1: {
+				double f = e[p - 2];
+				e[p - 2] = 0;
+				for (int j = p - 2; j >= k; j--) {
+					double t = Math.hypot(s[j], f);
+					double cs = s[j] / t, sn = f / t;
+					s[j] = t;
+					if (j != k) {
+						f = -sn * e[j - 1];
+						e[j - 1] = cs * e[j - 1];
+					}
+					if (wantV)
+						rotate(v[j], v[p - 1], cs, sn, n);
+				}
+				break;
+			}
+			case 2: {
+				double f = e[k - 1];
+				e[k - 1] = 0;
+				for (int j = k; j < p; j++) {
+					double t = Math.hypot(s[j], f);
+					double cs = s[j] / t, sn = f / t;
+					s[j] = t;
+					f = -sn * e[j];
+					e[j] = cs * e[j];
+					if (wantU)
+						rotate(u[j], u[k - 1], cs, sn, m);
+				}
+				break;
+			}
+			case 3: {
+				if (++iterations > MAX_ITERATIONS)
+					throw new ArithmeticException("Singular value decomposition did not converge");
+				// shift from the trailing 2 x 2 block
+				double scale = Math.max(Math.max(Math.max(Math.max(Math.abs(s[p - 1]), Math.abs(s[p - 2])),
+						Math.abs(e[p - 2])), Math.abs(s[k])), Math.abs(e[k]));
+				double sp = s[p - 1] / scale;
+				double spm1 = s[p - 2] / scale;
+				double epm1 = e[p - 2] / scale;
+				double sk = s[k] / scale;
+				double ek = e[k] / scale;
+				double b = ((spm1 + sp) * (spm1 - sp) + epm1 * epm1) / 2;
+				double c = (sp * epm1) * (sp * epm1);
+				double shift = 0;
+				if (b != 0 || c != 0) {
+					shift = Math.sqrt(b * b + c);
+					if (b < 0)
+						shift = -shift;
+					shift = c / (b + shift);
+				}
+				double f = (sk + sp) * (sk - sp) + shift;
+				double g = sk * ek;
+				// chase the bulge down the bidiagonal
+				for (int j = k; j < p - 1; j++) {
+					double t = Math.hypot(f, g);
+					double cs = f / t, sn = g / t;
+					if (j != k)
+						e[j - 1] = t;
+					f = cs * s[j] + sn * e[j];
+					e[j] = cs * e[j] - sn * s[j];
+					g = sn * s[j + 1];
+					s[j + 1] = cs * s[j + 1];
+					if (wantV)
+						rotate(v[j], v[j + 1], cs, sn, n);
+					t = Math.hypot(f, g);
+					cs = f / t;
+					sn = g / t;
+					s[j] = t;
+					f = cs * e[j] + sn * s[j + 1];
+					s[j + 1] = -sn * e[j] + cs * s[j + 1];
+					g = sn * e[j + 1];
+					e[j + 1] = cs * e[j + 1];
+					if (wantU && j < m - 1)
+						rotate(u[j], u[j + 1], cs, sn, m);
+				}
+				e[p - 2] = f;
+				break;
+			}
+			default: {
+				// make the singular value positive
+				if (s[k] <= 0) {
+					s[k] = s[k] < 0 ? -s[k] : 0;
+					if (wantV)
+						ArrayKernels.scale(-1, v[k], v[k], 0, n);
+				}
+				// and move it to its place
+				for (; k < pp && s[k] < s[k + 1]; k++) {
+					double t = s[k];
+					s[k] = s[k + 1];
+					s[k + 1] = t;
+					if (wantV)
+						swap(v, k);
+					if (wantU)
+						swap(u, k);
+				}
+				iterations = 0;
+				p--;
+			}
+			}
+		}
+	}
+
+	/**
+	 * Applies the rotation {@code (cs, sn)} to the first {@code length} numbers of
+	 * {@code x} and {@code y}: {@code x = cs x + sn y}, {@code y = cs y - sn x}.
+	 */
+	private static void rotate(double[] x, double[] y, double cs, double sn, int length) {
+		for (int i = 0; i < length; i++) {
+			double xi = x[i], yi = y[i];
+			x[i] = cs * xi + sn * yi;
+			y[i] = cs * yi - sn * xi;
+		}
+	}
+
+	private static void swap(double[][] columns, int k) {
+		double[] t = columns[k];
+		columns[k] = columns[k + 1];
+		columns[k + 1] = t;
+	}
+
+	/**
+	 * Returns the 2-norm of the numbers {@code [from, to)} of {@code x}, without
+	 * overflow or underflow when the sum of their squares would.
+	 */
+	private static double norm(double[] x, int from, int to) {
+		double sumOfSquares = ArrayKernels.sumOfSquares(x, from, to);
+		if (sumOfSquares > 0x1p-900 && sumOfSquares < Double.POSITIVE_INFINITY)
+			return Math.sqrt(sumOfSquares);
+		double norm = 0;
+		for (int i = from; i < to; i++)
+			norm = Math.hypot(norm, x[i]);
+		return norm;
+	}
+
+	/**
+	 * Returns the number of rows of the decomposed matrix.
+	 */
+	public int rowSize() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of columns of the decomposed matrix.
+	 */
+	public int columnSize() {
+		return columns;
+	}
+
+	/**
+	 * Returns whether {@code U} and {@code V} were computed.
+	 */
+	public boolean hasVectors() {
+		return u != null;
+	}
+
+	/**
+	 * Returns the singular values, in descending order.
+	 */
+	public double[] getSingularValues() {
+		return singularValues.clone();
+	}
+
+	/**
+	 * Returns the {@code k x k} diagonal matrix {@code S} of the singular values.
+	 */
+	public RealMatrix getS() {
+		int k = singularValues.length;
+		double[][] res = new double[k][k];
+		for (int i = 0; i < k; i++)
+			res[i][i] = singularValues[i];
+		return new RealMatrix(res, false, false);
+	}
+
+	/**
+	 * Returns the {@code m x k} matrix {@code U} of the left singular vectors.
+	 *
+	 * @throws IllegalStateException if the singular vectors were not computed
+	 */
+	public RealMatrix getU() {
+		checkVectors();
+		return (RealMatrix) u.clone();
+	}
+
+	/**
+	 * Returns the {@code n x k} matrix {@code V} of the right singular vectors.
+	 *
+	 * @throws IllegalStateException if the singular vectors were not computed
+	 */
+	public RealMatrix getV() {
+		checkVectors();
+		return (RealMatrix) v.clone();
+	}
+
+	/**
+	 * Returns the 2-norm of the decomposed matrix, its largest singular value.
+	 *
+	 * @return the 2-norm of the decomposed matrix
+	 */
+	public double norm2() {
+		return singularValues.length == 0 ? 0 : singularValues[0];
+	}
+
+	/**
+	 * Returns the condition number in 2-norm of the decomposed matrix, the
+	 * quotient of its largest and smallest singular values. It is infinite when
+	 * the matrix is rank deficient.
+	 *
+	 * @return the condition number of the decomposed matrix
+	 */
+	public double conditionNumber() {
+		return singularValues[0] / singularValues[singularValues.length - 1];
+	}
+
+	/**
+	 * Returns the numerical rank of the decomposed matrix, the number of singular
+	 * values above {@link #tolerance()}.
+	 *
+	 * @return the rank of the decomposed matrix
+	 */
+	public int rank() {
+		double tolerance = tolerance();
+		int rank = 0;
+		while (rank < singularValues.length && singularValues[rank] > tolerance)
+			rank++;
+		return rank;
+	}
+
+	/**
+	 * Returns the threshold below which a singular value is taken as zero,
+	 * {@code max(m, n) x s1 x ulp(1)}, the size of the rounding errors of the
+	 * decomposition.
+	 *
+	 * @return the tolerance of the singular values
+	 */
+	public double tolerance() {
+		return Math.max(rows, columns) * norm2() * Math.ulp(1.0);
+	}
+
+	/**
+	 * Returns the Moore-Penrose pseudo-inverse of the decomposed matrix,
+	 * {@code V x S^+ x U^T}, {@code S^+} being {@code S} with the singular values
+	 * above {@link #tolerance()} inverted and the rest replaced with zeros. It is
+	 * the {@code n x m} matrix that gives the least squares solution of minimum
+	 * norm of any system with the matrix, even a rank deficient one.
+	 *
+	 * @return the pseudo-inverse of the decomposed matrix
+	 * @throws IllegalStateException if the singular vectors were not computed
+	 */
+	public RealMatrix pseudoInverse() {
+		checkVectors();
+		int rank = rank();
+		// the columns of V and U of the singular values kept, V scaled by them
+		double[][] vs = new double[columns][];
+		for (int i = 0; i < columns; i++) {
+			double[] row = vs[i] = Arrays.copyOf(v.rowReference(i), rank);
+			for (int j = 0; j < rank; j++)
+				row[j] /= singularValues[j];
+		}
+		double[][] ut = new double[rank][rows];
+		for (int i = 0; i < rows; i++) {
+			double[] row = u.rowReference(i);
+			for (int j = 0; j < rank; j++)
+				ut[j][i] = row[j];
+		}
+		if (rank == 0)
+			return new RealMatrix(new double[columns][rows], false, false);
+		return RealMatrix.product(new RealMatrix(vs, false, false), new RealMatrix(ut, false, false), null,
+				RoundingPolicy.OFF);
+	}
+
+	private void checkVectors() {
+		if (u == null)
+			throw new IllegalStateException("Singular vectors were not computed");
+	}
+
+}
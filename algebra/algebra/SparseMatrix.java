@@ -0,0 +1,285 @@
+package algebra;
+
+import java.util.Arrays;
+import exceptions.IncompatibleLengthsException;
+
+/**
+ * Real matrix that only stores its non zero numbers, for matrices too large to
+ * be held as a {@link RealMatrix} but with few numbers other than zero
+ * (adjacency matrices of graphs, for instance).
+ * <p>
+ * There are three layouts:
+ * <ul>
+ * <li>{@link CooMatrix}, a list of {@code (row, column, number)} entries that
+ * is cheap to build one entry at a time;</li>
+ * <li>{@link CsrMatrix}, the entries grouped by rows, the fastest layout for
+ * products;</li>
+ * <li>{@link CscMatrix}, the entries grouped by columns, the fastest layout to
+ * read columns.</li>
+ * </ul>
+ * Every layout converts into the others and into a {@link RealMatrix}. Products
+ * and additions with dense operands cost in proportion to the number of stored
+ * entries, not to the size of the matrix.
+ * </p>
+ * <p>
+ * Matrices of different layouts are equal when they have the same dimension and
+ * the same numbers.
+ * </p>
+ */
+public abstract class SparseMatrix implements matrices.IterableMatrix, matrices.RegularMatrix {
+
+	private final int rowsLength;
+	private final int columnsLength;
+
+	SparseMatrix(int rows, int columns) {
+		// like the dense matrices, sparse ones can't be empty
+		if (rows <= 0 || columns <= 0)
+			throw new IllegalArgumentException("Illegal matrix dimension " + rows + "x" + columns);
+		rowsLength = rows;
+		columnsLength = columns;
+	}
+
+	public int rowSize() {
+		return rowsLength;
+	}
+
+	public int columnSize() {
+		return columnsLength;
+	}
+
+	/**
+	 * Returns the number of numbers of this matrix, zeros included. A sparse matrix
+	 * can be much larger than {@code Integer.MAX_VALUE} numbers, in which case
+	 * this method saturates and returns {@code Integer.MAX_VALUE}.
+	 */
+	public int totalSize() {
+		long size = (long) rowsLength * columnsLength;
+		return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+	}
+
+	/**
+	 * Returns whether this matrix has no rows or no columns, without going through
+	 * {@link #totalSize()}, which saturates.
+	 */
+	@Override
+	public boolean isEmpty() {
+		return rowsLength == 0 || columnsLength == 0;
+	}
+
+	public boolean isSquare() {
+		// 0x0 matrices won't be considerated square
+		return !isEmpty() && rowsLength == columnsLength;
+	}
+
+	/**
+	 * Returns the number of entries stored by this matrix.
+	 */
+	public abstract int nonZeros();
+
+	public abstract double getNumber(int indexRow, int indexColumn);
+
+	public abstract CsrMatrix toCsr();
+
+	public abstract CscMatrix toCsc();
+
+	public abstract CooMatrix toCoo();
+
+	public abstract SparseMatrix transpose();
+
+	public abstract SparseMatrix subMatrix(int indexRow, int indexColumn);
+
+	/**
+	 * Adds every entry of this matrix, multiplied by {@code alpha}, to the
+	 * corresponding number of {@code rows}.
+	 */
+	abstract void scatter(double alpha, double[][] rows);
+
+	/**
+	 * Computes {@code y += this x x} (SpMV).
+	 */
+	abstract void multiplyAdd(double[] x, double[] y);
+
+	/**
+	 * Computes {@code c += this x b} (SpMM), every row of {@code b} and {@code c}
+	 * holding {@code n} numbers.
+	 */
+	abstract void multiplyAdd(double[][] b, double[][] c, int n);
+
+	/**
+	 * Returns a {@link RealMatrix} holding the same numbers as this matrix.
+	 *
+	 * @return a new {@link RealMatrix} equal to this matrix
+	 */
+	public RealMatrix toRealMatrix() {
+		double[][] rows = new double[rowsLength][columnsLength];
+		scatter(1, rows);
+		return new RealMatrix(rows, false, false);
+	}
+
+	/**
+	 * Returns the product of this matrix and the given vector.
+	 *
+	 * @param x vector with as many numbers as columns in this matrix
+	 * @return a new array holding {@code this x x}
+	 * @throws IncompatibleLengthsException if the length of {@code x} is not the
+	 *                                      number of columns of this matrix
+	 */
+	public double[] multiply(double[] x) {
+		if (x.length != columnsLength)
+			throw new IncompatibleLengthsException(x.length, columnsLength);
+		double[] y = new double[rowsLength];
+		multiplyAdd(x, y);
+		return y;
+	}
+
+	/**
+	 * Returns the product of this matrix and the given dense one.
+	 *
+	 * @param m right hand side of the product
+	 * @return a new {@link RealMatrix} holding {@code this x m}
+	 * @throws IllegalArgumentException if the number of columns of this matrix is
+	 *                                  not equal to the number of rows of {@code m}
+	 */
+	public RealMatrix multiply(RealMatrix m) {
+		Utils.checkMatricesCorrectDimensionForMultiplication(this, m);
+		int n = m.columnSize();
+		double[][] b = new double[m.rowSize()][];
+		for (int k = 0; k < b.length; k++)
+			b[k] = m.rowReference(k);
+		double[][] c = new double[rowsLength][n];
+		multiplyAdd(b, c, n);
+		return new RealMatrix(c, false, false);
+	}
+
+	/**
+	 * Returns the sum of this matrix and the given dense one. The result is dense:
+	 * only the stored entries of this matrix are added to a copy of {@code m}.
+	 *
+	 * @param m the matrix to add
+	 * @return a new {@link RealMatrix} holding {@code this + m}
+	 * @throws IllegalArgumentException if the matrices have different dimensions
+	 */
+	public RealMatrix add(RealMatrix m) {
+		return addScaled(1, m);
+	}
+
+	/**
+	 * Returns the difference of the given dense matrix and this one.
+	 *
+	 * @param m the matrix this one is subtracted from
+	 * @return a new {@link RealMatrix} holding {@code m - this}
+	 * @throws IllegalArgumentException if the matrices have different dimensions
+	 */
+	public RealMatrix subtractFrom(RealMatrix m) {
+		return addScaled(-1, m);
+	}
+
+	private RealMatrix addScaled(double alpha, RealMatrix m) {
+		Utils.checkMatricesSameDimension(this, m);
+		RealMatrix res = (RealMatrix) m.clone();
+		double[][] rows = new double[rowsLength][];
+		for (int i = 0; i < rowsLength; i++)
+			rows[i] = res.rowReference(i);
+		scatter(alpha, rows);
+		return res;
+	}
+
+	void checkIndexForNumber(int indexRow, int indexColumn) {
+		Utils.checkIndex(indexRow, rowsLength - 1);
+		Utils.checkIndex(indexColumn, columnsLength - 1);
+	}
+
+	void checkSubMatrix(int indexRow, int indexColumn) {
+		if (isEmpty() || rowSize() == 1 || columnSize() == 1) {
+			throw new IllegalArgumentException();
+		}
+		checkIndexForNumber(indexRow, indexColumn);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof SparseMatrix))
+			return false;
+		SparseMatrix m = (SparseMatrix) o;
+		if (rowsLength != m.rowsLength || columnsLength != m.columnsLength)
+			return false;
+		CsrMatrix a = toCsr(), b = m.toCsr();
+		return Arrays.equals(a.rowPointers(), b.rowPointers()) && Arrays.equals(a.columnIndices(), b.columnIndices())
+				&& Arrays.equals(a.values(), b.values());
+	}
+
+	@Override
+	public int hashCode() {
+		CsrMatrix a = toCsr();
+		int hash = 31 * rowsLength + columnsLength;
+		hash = 31 * hash + Arrays.hashCode(a.columnIndices());
+		return 31 * hash + Arrays.hashCode(a.values());
+	}
+
+	/**
+	 * Returns the dimension and the non zero numbers of this matrix, row after
+	 * row, as in {@code 3x3 {(0, 1)=2.0, (2, 0)=-1.0}}.
+	 */
+	@Override
+	public String toString() {
+		CsrMatrix a = toCsr();
+		int[] pointers = a.rowPointers(), columns = a.columnIndices();
+		double[] values = a.values();
+		StringBuilder sb = new StringBuilder();
+		sb.append(rowsLength).append('x').append(columnsLength).append(" {");
+		for (int i = 0; i < rowsLength; i++) {
+			for (int k = pointers[i]; k < pointers[i + 1]; k++) {
+				sb.append('(').append(i).append(", ").append(columns[k]).append(")=").append(values[k]);
+				sb.append(", ");
+			}
+		}
+		if (values.length > 0)
+			sb.setLength(sb.length() - 2);
+		return sb.append('}').toString();
+	}
+
+	public void print() {
+		System.out.println(toString());
+	}
+
+	/*
+	 * ------------------------------------------------------------
+	 * --------------------- LAYOUT CONVERSION --------------------
+	 * ------------------------------------------------------------
+	 */
+
+	/**
+	 * Groups the first {@code size} entries by their major index with a counting
+	 * sort, keeping the order of the entries with the same major index. The
+	 * grouped minor indices and numbers are written into {@code minorOut} and
+	 * {@code valuesOut}.
+	 *
+	 * @return the pointers of the groups, {@code majorCount + 1} of them
+	 */
+	static int[] compress(int majorCount, int[] major, int[] minor, double[] values, int size, int[] minorOut,
+			double[] valuesOut) {
+		int[] pointers = new int[majorCount + 1];
+		for (int k = 0; k < size; k++)
+			pointers[major[k] + 1]++;
+		for (int i = 0; i < majorCount; i++)
+			pointers[i + 1] += pointers[i];
+		int[] next = Arrays.copyOf(pointers, majorCount);
+		for (int k = 0; k < size; k++) {
+			int d = next[major[k]]++;
+			minorOut[d] = minor[k];
+			valuesOut[d] = values[k];
+		}
+		return pointers;
+	}
+
+	/**
+	 * Expands compressed pointers back into the major index of every entry.
+	 */
+	static int[] expand(int[] pointers, int size) {
+		int[] major = new int[size];
+		for (int i = 0; i < pointers.length - 1; i++)
+			Arrays.fill(major, pointers[i], pointers[i + 1], i);
+		return major;
+	}
+
+}
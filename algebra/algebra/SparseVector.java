@@ -0,0 +1,295 @@
+package algebra;
+
+import java.util.Arrays;
+import exceptions.IncompatibleLengthsException;
+
+/**
+ * Vector that only stores its non zero numbers, as an array of increasing
+ * indices and an array with the number at each of them.
+ * <p>
+ * Operations between two sparse vectors merge both index arrays in a single
+ * pass, and operations with a dense vector only read or write the positions
+ * stored here, so their cost depends on the number of non zeros and not on the
+ * length of the vector. Results are left as computed, whatever the
+ * {@link RoundingPolicy}. Instances are immutable.
+ * </p>
+ * <p>
+ * The {@link LinearAlgebra} vector methods have overloads for sparse vectors,
+ * and {@link #toDense()} and {@link #SparseVector(double[])} convert from and
+ * to the dense arrays the other overloads take.
+ * </p>
+ */
+public class SparseVector implements java.io.Serializable {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 1736498250913774561L;
+
+	private final int length;
+	private final int[] indices;
+	private final double[] values;
+
+	/**
+	 * Creates a sparse vector holding the non zero numbers of the given array.
+	 *
+	 * @param v the dense vector
+	 */
+	public SparseVector(double[] v) {
+		int size = 0;
+		for (double n : v)
+			if (n != 0)
+				size++;
+		length = v.length;
+		indices = new int[size];
+		values = new double[size];
+		for (int i = 0, k = 0; k < size; i++) {
+			if (v[i] != 0) {
+				indices[k] = i;
+				values[k++] = v[i];
+			}
+		}
+	}
+
+	/**
+	 * Creates a sparse vector of the given length from its non zero numbers,
+	 * which may come in any order. Numbers with the same index add up and zeros
+	 * are not stored. The arrays are copied.
+	 *
+	 * @param length  length of the vector
+	 * @param indices index of every number
+	 * @param values  the numbers
+	 * @throws IllegalArgumentException     if the length is negative
+	 * @throws IncompatibleLengthsException if the arrays have different lengths
+	 * @throws IndexOutOfBoundsException    if an index is out of the vector
+	 */
+	public SparseVector(int length, int[] indices, double[] values) {
+		if (length < 0)
+			throw new IllegalArgumentException("Negative length: " + length);
+		if (indices.length != values.length)
+			throw new IncompatibleLengthsException(indices.length, values.length);
+		int size = indices.length;
+		// sorting the pairs as (index, position) keys keeps it primitive
+		long[] keys = new long[size];
+		for (int k = 0; k < size; k++) {
+			Utils.checkIndex(indices[k], length - 1);
+			keys[k] = (long) indices[k] << 32 | k;
+		}
+		Arrays.sort(keys);
+		int[] idx = new int[size];
+		double[] vals = new double[size];
+		int d = 0;
+		for (int k = 0; k < size;) {
+			int index = (int) (keys[k] >>> 32);
+			double sum = 0;
+			while (k < size && (int) (keys[k] >>> 32) == index)
+				sum += values[(int) keys[k++]];
+			if (sum != 0) {
+				idx[d] = index;
+				vals[d++] = sum;
+			}
+		}
+		this.length = length;
+		this.indices = Arrays.copyOf(idx, d);
+		this.values = Arrays.copyOf(vals, d);
+	}
+
+	/**
+	 * Wraps the given arrays without copying them. The indices must be increasing
+	 * and the numbers non zero.
+	 */
+	SparseVector(int length, int[] indices, double[] values, int size) {
+		this.length = length;
+		this.indices = size == indices.length ? indices : Arrays.copyOf(indices, size);
+		this.values = size == values.length ? values : Arrays.copyOf(values, size);
+	}
+
+	/**
+	 * Returns the length of this vector, counting its zeros.
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Returns the number of non zero numbers of this vector.
+	 */
+	public int nonZeros() {
+		return values.length;
+	}
+
+	/**
+	 * Returns the indices of the non zero numbers, in increasing order.
+	 */
+	public int[] getIndices() {
+		return indices.clone();
+	}
+
+	/**
+	 * Returns the non zero numbers, in the order of {@link #getIndices()}.
+	 */
+	public double[] getValues() {
+		return values.clone();
+	}
+
+	public double getNumber(int index) {
+		Utils.checkIndex(index, length - 1);
+		int k = Arrays.binarySearch(indices, index);
+		return k >= 0 ? values[k] : 0;
+	}
+
+	/**
+	 * Returns this vector as a dense array.
+	 *
+	 * @return a new array of {@link #length()} numbers
+	 */
+	public double[] toDense() {
+		double[] v = new double[length];
+		for (int k = 0; k < indices.length; k++)
+			v[indices[k]] = values[k];
+		return v;
+	}
+
+	private void checkLength(int otherLength) {
+		if (length != otherLength)
+			throw new IncompatibleLengthsException(length, otherLength);
+	}
+
+	/**
+	 * Returns the dot product of this vector and the given one, merging their
+	 * indices.
+	 *
+	 * @param v the other vector
+	 * @return the dot product of both vectors
+	 * @throws IncompatibleLengthsException if the vectors have different lengths
+	 */
+	public double dot(SparseVector v) {
+		checkLength(v.length);
+		int[] ia = indices, ib = v.indices;
+		double sum = 0;
+		for (int a = 0, b = 0; a < ia.length && b < ib.length;) {
+			if (ia[a] < ib[b])
+				a++;
+			else if (ia[a] > ib[b])
+				b++;
+			else
+				sum += values[a++] * v.values[b++];
+		}
+		return sum;
+	}
+
+	/**
+	 * Returns the dot product of this vector and the given dense one, reading only
+	 * the positions stored in this vector.
+	 *
+	 * @param v the dense vector
+	 * @return the dot product of both vectors
+	 * @throws IncompatibleLengthsException if the vectors have different lengths
+	 */
+	public double dot(double[] v) {
+		checkLength(v.length);
+		double sum = 0;
+		for (int k = 0; k < indices.length; k++)
+			sum += values[k] * v[indices[k]];
+		return sum;
+	}
+
+	/**
+	 * Returns {@code alpha * this + y}. Numbers that cancel out are not stored.
+	 *
+	 * @param alpha scalar multiplier of this vector
+	 * @param y     vector to add
+	 * @return a new vector holding {@code alpha * this + y}
+	 * @throws IncompatibleLengthsException if the vectors have different lengths
+	 */
+	public SparseVector axpy(double alpha, SparseVector y) {
+		checkLength(y.length);
+		int[] ia = indices, ib = y.indices;
+		int[] idx = new int[ia.length + ib.length];
+		double[] vals = new double[idx.length];
+		int a = 0, b = 0, d = 0;
+		while (a < ia.length || b < ib.length) {
+			int index;
+			double n;
+			if (b == ib.length || (a < ia.length && ia[a] < ib[b])) {
+				index = ia[a];
+				n = alpha * values[a++];
+			} else if (a == ia.length || ia[a] > ib[b]) {
+				index = ib[b];
+				n = y.values[b++];
+			} else {
+				index = ia[a];
+				n = alpha * values[a++] + y.values[b++];
+			}
+			if (n != 0) {
+				idx[d] = index;
+				vals[d++] = n;
+			}
+		}
+		return new SparseVector(length, idx, vals, d);
+	}
+
+	/**
+	 * Adds {@code alpha * this} to the given dense vector, in place:
+	 * {@code y = alpha * this + y}. Only the positions stored in this vector are
+	 * written.
+	 *
+	 * @param alpha scalar multiplier of this vector
+	 * @param y     dense vector updated with the result
+	 * @throws IncompatibleLengthsException if the vectors have different lengths
+	 */
+	public void axpy(double alpha, double[] y) {
+		checkLength(y.length);
+		for (int k = 0; k < indices.length; k++)
+			y[indices[k]] += alpha * values[k];
+	}
+
+	/**
+	 * Returns {@code alpha * this}.
+	 */
+	public SparseVector scale(double alpha) {
+		if (alpha == 0)
+			return new SparseVector(length, new int[0], new double[0], 0);
+		double[] vals = values.clone();
+		ArrayKernels.scale(alpha, vals, vals, 0, vals.length);
+		return new SparseVector(length, indices, vals, vals.length);
+	}
+
+	/**
+	 * Returns the Euclidean norm of this vector, computed as
+	 * {@link NumericArrays#norm(double[])} does over its non zero numbers.
+	 */
+	public double norm() {
+		return values.length == 0 ? 0 : NumericArrays.norm(values);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof SparseVector))
+			return false;
+		SparseVector v = (SparseVector) o;
+		return length == v.length && Arrays.equals(indices, v.indices) && Arrays.equals(values, v.values);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * (31 * length + Arrays.hashCode(indices)) + Arrays.hashCode(values);
+	}
+
+	/**
+	 * Returns the length and the non zero numbers of this vector, as in
+	 * {@code 5 {1=2.0, 4=-1.0}}.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(length).append(" {");
+		for (int k = 0; k < indices.length; k++) {
+			if (k > 0)
+				sb.append(", ");
+			sb.append(indices[k]).append('=').append(values[k]);
+		}
+		return sb.append('}').toString();
+	}
+
+}
@@ -0,0 +1,191 @@
+package algebra;
+
+/**
+ * Symmetric products engine used by {@link RealMatrix}: computes
+ * {@code A^T x A} and {@code A x A^T} for matrices stored as arrays of rows,
+ * without building the transpose.
+ * <p>
+ * Both results are symmetric, so only the upper triangle is computed and then
+ * mirrored into the lower one, which halves the multiply-adds of a full
+ * product.
+ * </p>
+ * <p>
+ * {@code A^T x A} is the sum of the outer products of the rows of {@code A}
+ * with themselves: every row is added, scaled by each of its numbers, into the
+ * upper triangle of the result. The result is updated by tiles of
+ * {@link #MB} rows and {@link #NB} columns, so the tile stays in cache while all
+ * the rows of {@code A} go through it.
+ * </p>
+ * <p>
+ * The number {@code (i, j)} of {@code A x A^T} is the dot product of rows
+ * {@code i} and {@code j}. Blocks of {@link #MB} rows are paired, and their dot
+ * products are accumulated over slices of {@link #KB} columns so the slices of
+ * both blocks stay in cache. Dot products are computed by {@code 4 x 4} tiles,
+ * which load every number once for four of them and keep sixteen independent
+ * sums going.
+ * </p>
+ */
+final class SyrkKernel {
+
+	private SyrkKernel() {
+	}
+
+	// rows of a tile of the result
+	static final int MB = 32;
+	// columns of a tile of the result of A^T x A
+	static final int NB = 512;
+	// columns of A read at a time by A x A^T
+	static final int KB = 256;
+
+	/**
+	 * Computes {@code c = a^T x a}, rounded by the given policy.
+	 *
+	 * @param a rows of the {@code m x n} matrix
+	 * @param c rows of the {@code n x n} result, filled with zeros
+	 */
+	static void transposeProduct(double[][] a, int m, int n, double[][] c, RoundingPolicy policy) {
+		if (policy == RoundingPolicy.SNAP_PER_OP) {
+			// every partial product is snapped, so the kernels can't be used
+			for (int i = 0; i < m; i++) {
+				double[] row = a[i];
+				for (int p = 0; p < n; p++)
+					for (int q = p; q < n; q++)
+						c[p][q] += policy.term(row[p], row[q]);
+			}
+		} else {
+			for (int pb = 0; pb < n; pb += MB) {
+				int pEnd = Math.min(pb + MB, n);
+				for (int qb = pb; qb < n; qb += NB) {
+					int qEnd = Math.min(qb + NB, n);
+					for (int i = 0; i < m; i++) {
+						double[] row = a[i];
+						for (int p = pb; p < pEnd; p++)
+							if (row[p] != 0)
+								ArrayKernels.axpy(row[p], row, c[p], Math.max(p, qb), qEnd);
+					}
+				}
+			}
+		}
+		mirror(c, n);
+		policy.round(c, n);
+	}
+
+	/**
+	 * Computes {@code c = a x a^T}, rounded by the given policy.
+	 *
+	 * @param a rows of the {@code m x n} matrix
+	 * @param c rows of the {@code m x m} result, filled with zeros
+	 */
+	static void productTranspose(double[][] a, int m, int n, double[][] c, RoundingPolicy policy) {
+		if (policy == RoundingPolicy.SNAP_PER_OP) {
+			for (int i = 0; i < m; i++) {
+				for (int j = i; j < m; j++) {
+					double sum = 0;
+					for (int k = 0; k < n; k++)
+						sum += policy.term(a[i][k], a[j][k]);
+					c[i][j] = sum;
+				}
+			}
+		} else {
+			for (int ib = 0; ib < m; ib += MB) {
+				int iEnd = Math.min(ib + MB, m);
+				for (int jb = ib; jb < m; jb += MB) {
+					int jEnd = Math.min(jb + MB, m);
+					for (int kb = 0; kb < n; kb += KB) {
+						int kEnd = Math.min(kb + KB, n);
+						int i = ib;
+						for (; i + 4 <= iEnd; i += 4) {
+							int j = Math.max(i, jb);
+							for (; j + 4 <= jEnd; j += 4)
+								dotTile(a, c, i, j, kb, kEnd, 1);
+							for (int r = i; r < i + 4; r++)
+								for (int q = j; q < jEnd; q++)
+									c[r][q] += ArrayKernels.dot(a[r], a[q], kb, kEnd);
+						}
+						for (; i < iEnd; i++)
+							for (int j = Math.max(i, jb); j < jEnd; j++)
+								c[i][j] += ArrayKernels.dot(a[i], a[j], kb, kEnd);
+					}
+				}
+			}
+		}
+		mirror(c, m);
+		policy.round(c, m);
+	}
+
+	/**
+	 * Adds to the {@code 4 x 4} tile of {@code c} at {@code (i, j)} the dot
+	 * products of rows {@code i} to {@code i + 3} and {@code j} to {@code j + 3}
+	 * of {@code a} over the columns {@code [from, to)}, times {@code alpha}.
+	 * {@code c} may be {@code a} if the tile is outside those columns. The whole
+	 * tile is written, even when it crosses the diagonal.
+	 */
+	static void dotTile(double[][] a, double[][] c, int i, int j, int from, int to, double alpha) {
+		dotTile(a, i, a, j, from, to, alpha, c, i, j);
+	}
+
+	/**
+	 * Adds to the {@code 4 x 4} tile of {@code c} at {@code (ci, cj)} the dot
+	 * products of rows {@code i} to {@code i + 3} of {@code a} and {@code j} to
+	 * {@code j + 3} of {@code b} over the columns {@code [from, to)}, times
+	 * {@code alpha}, in 16 independent accumulators.
+	 */
+	static void dotTile(double[][] a, int i, double[][] b, int j, int from, int to, double alpha, double[][] c,
+			int ci, int cj) {
+		double[] a0 = a[i], a1 = a[i + 1], a2 = a[i + 2], a3 = a[i + 3];
+		double[] b0 = b[j], b1 = b[j + 1], b2 = b[j + 2], b3 = b[j + 3];
+		double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+		double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+		double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+		double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+		for (int k = from; k < to; k++) {
+			double x0 = a0[k], x1 = a1[k], x2 = a2[k], x3 = a3[k];
+			double y0 = b0[k], y1 = b1[k], y2 = b2[k], y3 = b3[k];
+			c00 += x0 * y0;
+			c01 += x0 * y1;
+			c02 += x0 * y2;
+			c03 += x0 * y3;
+			c10 += x1 * y0;
+			c11 += x1 * y1;
+			c12 += x1 * y2;
+			c13 += x1 * y3;
+			c20 += x2 * y0;
+			c21 += x2 * y1;
+			c22 += x2 * y2;
+			c23 += x2 * y3;
+			c30 += x3 * y0;
+			c31 += x3 * y1;
+			c32 += x3 * y2;
+			c33 += x3 * y3;
+		}
+		double[] r0 = c[ci], r1 = c[ci + 1], r2 = c[ci + 2], r3 = c[ci + 3];
+		r0[cj] += alpha * c00;
+		r0[cj + 1] += alpha * c01;
+		r0[cj + 2] += alpha * c02;
+		r0[cj + 3] += alpha * c03;
+		r1[cj] += alpha * c10;
+		r1[cj + 1] += alpha * c11;
+		r1[cj + 2] += alpha * c12;
+		r1[cj + 3] += alpha * c13;
+		r2[cj] += alpha * c20;
+		r2[cj + 1] += alpha * c21;
+		r2[cj + 2] += alpha * c22;
+		r2[cj + 3] += alpha * c23;
+		r3[cj] += alpha * c30;
+		r3[cj + 1] += alpha * c31;
+		r3[cj + 2] += alpha * c32;
+		r3[cj + 3] += alpha * c33;
+	}
+
+	/**
+	 * Copies the upper triangle of {@code c} into the lower one.
+	 */
+	private static void mirror(double[][] c, int n) {
+		for (int i = 1; i < n; i++) {
+			double[] row = c[i];
+			for (int j = 0; j < i; j++)
+				row[j] = c[j][i];
+		}
+	}
+
+}
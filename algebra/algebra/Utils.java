@@ -33,13 +33,45 @@ public final class Utils {
 	static double UMBRAL_ZERO = 1e-12;
 	static double UMBRAL_TOLERANCE = 1e-9;
 
+	private static volatile RoundingPolicy defaultRoundingPolicy = RoundingPolicy.SNAP_AT_END;
+
+	/**
+	 * Sets the policy used by the operations on arrays, and on matrices without a
+	 * policy of their own. By default it is {@link RoundingPolicy#SNAP_AT_END}.
+	 *
+	 * @param policy the policy to use from now on
+	 * @throws NullPointerException if {@code policy} is null
+	 */
+	public static void setDefaultRoundingPolicy(RoundingPolicy policy) {
+		if (policy == null)
+			throw new NullPointerException();
+		defaultRoundingPolicy = policy;
+	}
+
+	public static RoundingPolicy getDefaultRoundingPolicy() {
+		return defaultRoundingPolicy;
+	}
+
+	/**
+	 * Every double of at least this magnitude is an integer already.
+	 */
+	static final double SNAP_LIMIT = 0x1p52;
+
+	/**
+	 * Returns {@code n} snapped to zero, or to the closest integer, if it is
+	 * within tolerance of it. Numbers of magnitude {@link #SNAP_LIMIT} or more,
+	 * which are integers already, and numbers that are not finite are returned
+	 * unchanged.
+	 */
 	public static double shouldRound(double n) {
 		double aux = Math.abs(n);
+		if (!(aux < SNAP_LIMIT))
+			return n;
 		if (aux <= UMBRAL_ZERO)
 			return 0;
-		aux = aux - (int) aux;
+		aux = aux - Math.floor(aux);
 		if (aux - UMBRAL_TOLERANCE <= 0 || aux + UMBRAL_TOLERANCE >= 1)
-			return Math.round(n);
+			return Math.rint(n);
 		return n;
 	}
 
@@ -0,0 +1,30 @@
+package exceptions;
+
+/**
+ * Thrown when an operation requiring a symmetric positive definite matrix is
+ * performed on a matrix that is not symmetric, or that has a pivot that is not
+ * positive.
+*/
+public class NonPositiveDefiniteMatrixException extends MatrixException {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = -2379501852240671328L;
+
+	public NonPositiveDefiniteMatrixException() {
+		super();
+	}
+
+	public NonPositiveDefiniteMatrixException(String msg) {
+		super(msg);
+	}
+
+	public NonPositiveDefiniteMatrixException(int index, double pivot) {
+		super(messageNonPositivePivot(index, pivot));
+	}
+
+	private static String messageNonPositivePivot(int index, double pivot) {
+		return "Pivot " + pivot + " found at row " + index;
+	}
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import java.util.Random;
+
+import algebra.RealMatrix;
+
+/**
+ * Seeded inputs for the benchmarks, so every fork and every run measures the
+ * same numbers.
+ */
+final class BenchmarkData {
+
+	static final long SEED = 42;
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Random matrix with numbers uniformly distributed in {@code [-1, 1)}, so it is
+	 * invertible with probability one.
+	 */
+	static RealMatrix matrix(int rows, int columns, long seed) {
+		return new RealMatrix(array2d(rows, columns, seed));
+	}
+
+	static double[][] array2d(int rows, int columns, long seed) {
+		Random random = new Random(seed);
+		double[][] data = new double[rows][columns];
+		for (double[] row : data)
+			for (int j = 0; j < columns; j++)
+				row[j] = 2 * random.nextDouble() - 1;
+		return data;
+	}
+
+	static double[] doubles(int length, long seed) {
+		Random random = new Random(seed);
+		double[] v = new double[length];
+		for (int i = 0; i < length; i++)
+			v[i] = 2 * random.nextDouble() - 1;
+		return v;
+	}
+
+	static float[] floats(int length, long seed) {
+		Random random = new Random(seed);
+		float[] v = new float[length];
+		for (int i = 0; i < length; i++)
+			v[i] = 2 * random.nextFloat() - 1;
+		return v;
+	}
+
+	static int[] ints(int length, long seed) {
+		Random random = new Random(seed);
+		int[] v = new int[length];
+		for (int i = 0; i < length; i++)
+			v[i] = random.nextInt(201) - 100;
+		return v;
+	}
+
+}
@@ -0,0 +1,60 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algebra.LinearAlgebra;
+import algebra.RealMatrix;
+
+/**
+ * Projection chain {@code tall x wide x tall x thin}, with a {@code size x k}
+ * tall matrix, its {@code k x size} wide counterpart ({@code k = size / 16})
+ * and a {@code k x 8} thin one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ChainBenchmarks {
+
+	@Param({ "256", "1024" })
+	int size;
+
+	RealMatrix tall;
+	RealMatrix wide;
+	RealMatrix thin;
+
+	@Setup
+	public void setUp() {
+		int k = Math.max(1, size / 16);
+		tall = BenchmarkData.matrix(size, k, BenchmarkData.SEED);
+		wide = BenchmarkData.matrix(k, size, BenchmarkData.SEED + 1);
+		thin = BenchmarkData.matrix(k, 8, BenchmarkData.SEED + 2);
+	}
+
+	@Benchmark
+	public RealMatrix leftToRight() {
+		RealMatrix m = LinearAlgebra.matrixMultiplication(tall, wide);
+		m = LinearAlgebra.matrixMultiplication(m, tall);
+		return LinearAlgebra.matrixMultiplication(m, thin);
+	}
+
+	@Benchmark
+	public RealMatrix chain() {
+		return LinearAlgebra.matrixChainMultiplication(tall, wide, tall, thin);
+	}
+
+}
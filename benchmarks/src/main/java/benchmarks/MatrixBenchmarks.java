@@ -0,0 +1,148 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algebra.CholeskyDecomposition;
+import algebra.LUDecomposition;
+import algebra.LinearAlgebra;
+import algebra.MatrixExpression;
+import algebra.MatrixOperations;
+import algebra.QRDecomposition;
+import algebra.RealMatrix;
+import algebra.SingularValueDecomposition;
+
+/**
+ * Square matrix operations that return a new matrix or a number, so the inputs
+ * stay the same across invocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MatrixBenchmarks {
+
+	@Param({ "8", "64", "256" })
+	int size;
+
+	RealMatrix m1;
+	RealMatrix m2;
+	RealMatrix m3;
+	// m1^T x m1 + size * I, symmetric positive definite
+	RealMatrix spd;
+
+	@Setup
+	public void setUp() {
+		m1 = BenchmarkData.matrix(size, size, BenchmarkData.SEED);
+		m2 = BenchmarkData.matrix(size, size, BenchmarkData.SEED + 1);
+		m3 = BenchmarkData.matrix(size, size, BenchmarkData.SEED + 2);
+		spd = m1.transposeProduct();
+		for (int i = 0; i < size; i++)
+			spd.setNumber(i, i, spd.getNumber(i, i) + size);
+	}
+
+	@Benchmark
+	public double determinant() {
+		return LinearAlgebra.matrixDeterminant(m1);
+	}
+
+	@Benchmark
+	public RealMatrix inverse() {
+		return m1.inverse();
+	}
+
+	@Benchmark
+	public LUDecomposition luSpd() {
+		return spd.luDecomposition();
+	}
+
+	@Benchmark
+	public CholeskyDecomposition choleskySpd() {
+		return spd.choleskyDecomposition();
+	}
+
+	@Benchmark
+	public QRDecomposition qr() {
+		return m1.qrDecomposition();
+	}
+
+	@Benchmark
+	public SingularValueDecomposition svd() {
+		return m1.singularValueDecomposition();
+	}
+
+	/**
+	 * Singular values only, the cost of a condition number.
+	 */
+	@Benchmark
+	public double conditionNumber() {
+		return LinearAlgebra.matrixConditionNumber(m1);
+	}
+
+	@Benchmark
+	public RealMatrix transpose() {
+		return m1.transpose();
+	}
+
+	@Benchmark
+	public RealMatrix add() {
+		return MatrixOperations.addMatrices(m1, m2);
+	}
+
+	@Benchmark
+	public RealMatrix subtract() {
+		return MatrixOperations.subtractMatrices(m1, m2);
+	}
+
+	@Benchmark
+	public RealMatrix scalarMultiply() {
+		return MatrixOperations.matrixScalarMultiplication(m1, Math.PI);
+	}
+
+	/**
+	 * {@code m1^T x m1} as a transpose and a full product.
+	 */
+	@Benchmark
+	public RealMatrix gramEager() {
+		return MatrixOperations.multiplyMatrices(m1.transpose(), m1);
+	}
+
+	/**
+	 * {@code m1^T x m1} computing one triangle, without the transpose.
+	 */
+	@Benchmark
+	public RealMatrix gramSymmetric() {
+		return LinearAlgebra.matrixTransposeProduct(m1);
+	}
+
+	/**
+	 * {@code m1 + m2 - m3 * pi}, one intermediate matrix per operation.
+	 */
+	@Benchmark
+	public RealMatrix chainEager() {
+		RealMatrix sum = MatrixOperations.addMatrices(m1, m2);
+		return MatrixOperations.subtractMatrices(sum, MatrixOperations.matrixScalarMultiplication(m3, Math.PI));
+	}
+
+	/**
+	 * {@code m1 + m2 - m3 * pi}, evaluated in a single pass.
+	 */
+	@Benchmark
+	public RealMatrix chainLazy() {
+		return MatrixExpression.of(m1).plus(m2).plusScaled(-Math.PI, m3).evaluate();
+	}
+
+}
@@ -0,0 +1,126 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algebra.DenseFloatMatrix;
+import algebra.LinearAlgebra;
+import algebra.RealMatrix;
+
+/**
+ * Matrix products {@code (m x k) * (k x n)} of several shapes built from
+ * {@link #size}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ProductBenchmarks {
+
+	public enum Shape {
+		/** {@code m = k = n = size} */
+		SQUARE,
+		/** {@code m = n = size}, {@code k = size / 8}: a thin inner dimension */
+		OUTER,
+		/** {@code m = n = size / 8}, {@code k = size}: a long inner dimension */
+		INNER,
+		/** {@code m = size}, {@code k = n = size / 8}: a tall left matrix */
+		TALL;
+
+		int[] dimensions(int size) {
+			int thin = Math.max(1, size / 8);
+			switch (this) {
+			case OUTER:
+				return new int[] { size, thin, size };
+			case INNER:
+				return new int[] { thin, size, thin };
+			case TALL:
+				return new int[] { size, thin, thin };
+			default:
+				return new int[] { size, size, size };
+			}
+		}
+	}
+
+	@Param({ "32", "128", "512" })
+	int size;
+
+	@Param({ "SQUARE", "OUTER", "INNER", "TALL" })
+	Shape shape;
+
+	RealMatrix left;
+	RealMatrix right;
+
+	double[] vector;
+	double[] transposedVector;
+
+	DenseFloatMatrix leftFloat;
+	DenseFloatMatrix rightFloat;
+
+	@Setup
+	public void setUp() {
+		int[] mkn = shape.dimensions(size);
+		left = BenchmarkData.matrix(mkn[0], mkn[1], BenchmarkData.SEED);
+		right = BenchmarkData.matrix(mkn[1], mkn[2], BenchmarkData.SEED + 1);
+		vector = BenchmarkData.doubles(mkn[1], BenchmarkData.SEED + 2);
+		transposedVector = BenchmarkData.doubles(mkn[0], BenchmarkData.SEED + 3);
+		leftFloat = new DenseFloatMatrix(left);
+		rightFloat = new DenseFloatMatrix(right);
+	}
+
+	@Benchmark
+	public RealMatrix multiply() {
+		return LinearAlgebra.matrixMultiplication(left, right);
+	}
+
+	@Benchmark
+	public RealMatrix multiplyParallel() {
+		return LinearAlgebra.matrixMultiplicationParallel(left, right);
+	}
+
+	/**
+	 * {@code left x vector}.
+	 */
+	@Benchmark
+	public double[] multiplyVector() {
+		return LinearAlgebra.matrixVectorMultiplication(left, vector);
+	}
+
+	@Benchmark
+	public double[] multiplyVectorParallel() {
+		return LinearAlgebra.matrixVectorMultiplicationParallel(left, vector);
+	}
+
+	/**
+	 * {@code left^T x transposedVector}.
+	 */
+	@Benchmark
+	public double[] multiplyTransposedVector() {
+		return LinearAlgebra.transposedMatrixVectorMultiplication(left, transposedVector);
+	}
+
+	/**
+	 * Same product in single precision; includes the copy of the left operand,
+	 * which {@link DenseFloatMatrix#multiply(DenseFloatMatrix)} overwrites.
+	 */
+	@Benchmark
+	public DenseFloatMatrix multiplyFloat() {
+		DenseFloatMatrix m = (DenseFloatMatrix) leftFloat.clone();
+		m.multiply(rightFloat);
+		return m;
+	}
+
+}
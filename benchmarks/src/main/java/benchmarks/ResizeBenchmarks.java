@@ -0,0 +1,74 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algebra.RealMatrix;
+
+/**
+ * Builds a {@code size x size} matrix one row or one column at a time, starting
+ * from an empty matrix with the default capacity, which measures the cost of
+ * growing the matrix together with the copies of the insertions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ResizeBenchmarks {
+
+	@Param({ "16", "128", "512" })
+	int size;
+
+	double[][] vectors;
+
+	@Setup
+	public void setUp() {
+		vectors = BenchmarkData.array2d(size, size, BenchmarkData.SEED);
+	}
+
+	@Benchmark
+	public RealMatrix appendRows() {
+		RealMatrix m = new RealMatrix(false);
+		for (double[] row : vectors)
+			m.addRow(m.rowSize(), row);
+		return m;
+	}
+
+	@Benchmark
+	public RealMatrix insertRowsAtTop() {
+		RealMatrix m = new RealMatrix(false);
+		for (double[] row : vectors)
+			m.addRow(0, row);
+		return m;
+	}
+
+	@Benchmark
+	public RealMatrix appendColumns() {
+		RealMatrix m = new RealMatrix(false);
+		for (double[] column : vectors)
+			m.addColumn(m.columnSize(), column);
+		return m;
+	}
+
+	@Benchmark
+	public RealMatrix insertColumnsAtLeft() {
+		RealMatrix m = new RealMatrix(false);
+		for (double[] column : vectors)
+			m.addColumn(0, column);
+		return m;
+	}
+
+}
@@ -0,0 +1,100 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import algebra.LinearAlgebra;
+import algebra.NumericArrays;
+
+/**
+ * Element-wise and reduction operations of {@link NumericArrays} and the vector
+ * methods of {@link LinearAlgebra}, for the primitive types with dedicated
+ * kernels.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class VectorBenchmarks {
+
+	@Param({ "16", "1024", "65536" })
+	int length;
+
+	double[] d1, d2;
+	float[] f1, f2;
+	int[] i1, i2;
+
+	@Setup
+	public void setUp() {
+		d1 = BenchmarkData.doubles(length, BenchmarkData.SEED);
+		d2 = BenchmarkData.doubles(length, BenchmarkData.SEED + 1);
+		f1 = BenchmarkData.floats(length, BenchmarkData.SEED);
+		f2 = BenchmarkData.floats(length, BenchmarkData.SEED + 1);
+		i1 = BenchmarkData.ints(length, BenchmarkData.SEED);
+		i2 = BenchmarkData.ints(length, BenchmarkData.SEED + 1);
+	}
+
+	@Benchmark
+	public double[] addDouble() {
+		return NumericArrays.arrayAddition(d1, d2);
+	}
+
+	@Benchmark
+	public float[] addFloat() {
+		return NumericArrays.arrayAddition(f1, f2);
+	}
+
+	@Benchmark
+	public int[] addInt() {
+		return NumericArrays.arrayAddition(i1, i2);
+	}
+
+	@Benchmark
+	public double[] subtractDouble() {
+		return NumericArrays.arraySubtraction(d1, d2);
+	}
+
+	@Benchmark
+	public double[] scaleDouble() {
+		return NumericArrays.arrayMultiplyBy(d1, Math.PI);
+	}
+
+	@Benchmark
+	public double sumDouble() {
+		return NumericArrays.sum(d1);
+	}
+
+	@Benchmark
+	public double dotDouble() {
+		return LinearAlgebra.vectorsDotProduct(d1, d2);
+	}
+
+	@Benchmark
+	public double dotFloat() {
+		return LinearAlgebra.vectorsDotProduct(f1, f2);
+	}
+
+	@Benchmark
+	public int dotInt() {
+		return LinearAlgebra.vectorsDotProduct(i1, i2);
+	}
+
+	@Benchmark
+	public double lengthDouble() {
+		return LinearAlgebra.vectorLength(d1);
+	}
+
+}
@@ -0,0 +1,158 @@
+package algebra;
+
+/**
+ * Java 21 layer of the multi-release jar, see the {@code ArrayKernels} of the
+ * base layer for the contract of every method.
+ * <p>
+ * The Vector API lives in the incubator module {@code jdk.incubator.vector},
+ * which is only resolved when the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}. {@link VectorArrayKernels} is only
+ * touched (and so only loaded) when the module is present; otherwise, or when
+ * the system property {@code algebra.vector} is {@code false}, the calls go to
+ * {@link ScalarArrayKernels} as in the base layer.
+ * </p>
+ */
+final class ArrayKernels {
+
+	private ArrayKernels() {
+	}
+
+	/**
+	 * Whether the operations run on the Vector API.
+	 */
+	static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+			&& Boolean.parseBoolean(System.getProperty("algebra.vector", "true"));
+
+	static void add(double[] x, double[] y, double[] dest, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.add(x, y, dest, from, to);
+		else
+			ScalarArrayKernels.add(x, y, dest, from, to);
+	}
+
+	static void add(float[] x, float[] y, float[] dest, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.add(x, y, dest, from, to);
+		else
+			ScalarArrayKernels.add(x, y, dest, from, to);
+	}
+
+	static void add(int[] x, int[] y, int[] dest, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.add(x, y, dest, from, to);
+		else
+			ScalarArrayKernels.add(x, y, dest, from, to);
+	}
+
+	static void subtract(double[] x, double[] y, double[] dest, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.subtract(x, y, dest, from, to);
+		else
+			ScalarArrayKernels.subtract(x, y, dest, from, to);
+	}
+
+	static void subtract(float[] x, float[] y, float[] dest, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.subtract(x, y, dest, from, to);
+		else
+			ScalarArrayKernels.subtract(x, y, dest, from, to);
+	}
+
+	static void subtract(int[] x, int[] y, int[] dest, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.subtract(x, y, dest, from, to);
+		else
+			ScalarArrayKernels.subtract(x, y, dest, from, to);
+	}
+
+	static void scale(double alpha, double[] x, double[] dest, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.scale(alpha, x, dest, from, to);
+		else
+			ScalarArrayKernels.scale(alpha, x, dest, from, to);
+	}
+
+	static void scale(float alpha, float[] x, float[] dest, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.scale(alpha, x, dest, from, to);
+		else
+			ScalarArrayKernels.scale(alpha, x, dest, from, to);
+	}
+
+	static void scale(int alpha, int[] x, int[] dest, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.scale(alpha, x, dest, from, to);
+		else
+			ScalarArrayKernels.scale(alpha, x, dest, from, to);
+	}
+
+	static void axpy(double alpha, double[] x, double[] y, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.axpy(alpha, x, y, from, to);
+		else
+			ScalarArrayKernels.axpy(alpha, x, y, from, to);
+	}
+
+	static void axpy(float alpha, float[] x, float[] y, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.axpy(alpha, x, y, from, to);
+		else
+			ScalarArrayKernels.axpy(alpha, x, y, from, to);
+	}
+
+	static void axpy(int alpha, int[] x, int[] y, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.axpy(alpha, x, y, from, to);
+		else
+			ScalarArrayKernels.axpy(alpha, x, y, from, to);
+	}
+
+	static double dot(double[] x, double[] y, int from, int to) {
+		return VECTORIZED ? VectorArrayKernels.dot(x, y, from, to) : ScalarArrayKernels.dot(x, y, from, to);
+	}
+
+	static double dot(float[] x, float[] y, int from, int to) {
+		return VECTORIZED ? VectorArrayKernels.dot(x, y, from, to) : ScalarArrayKernels.dot(x, y, from, to);
+	}
+
+	static int dot(int[] x, int[] y, int from, int to) {
+		return VECTORIZED ? VectorArrayKernels.dot(x, y, from, to) : ScalarArrayKernels.dot(x, y, from, to);
+	}
+
+	static double sum(double[] x, int from, int to) {
+		return VECTORIZED ? VectorArrayKernels.sum(x, from, to) : ScalarArrayKernels.sum(x, from, to);
+	}
+
+	static double sum(float[] x, int from, int to) {
+		return VECTORIZED ? VectorArrayKernels.sum(x, from, to) : ScalarArrayKernels.sum(x, from, to);
+	}
+
+	static double sum(int[] x, int from, int to) {
+		return VECTORIZED ? VectorArrayKernels.sum(x, from, to) : ScalarArrayKernels.sum(x, from, to);
+	}
+
+	static double sumOfSquares(double[] x, int from, int to) {
+		return VECTORIZED ? VectorArrayKernels.sumOfSquares(x, from, to) : ScalarArrayKernels.sumOfSquares(x, from, to);
+	}
+
+	static double sumOfSquares(float[] x, int from, int to) {
+		return VECTORIZED ? VectorArrayKernels.sumOfSquares(x, from, to) : ScalarArrayKernels.sumOfSquares(x, from, to);
+	}
+
+	static double sumOfSquares(int[] x, int from, int to) {
+		return VECTORIZED ? VectorArrayKernels.sumOfSquares(x, from, to) : ScalarArrayKernels.sumOfSquares(x, from, to);
+	}
+
+	static void axpby(double alpha, double[] x, double beta, double[] y, int from, int to) {
+		if (VECTORIZED)
+			VectorArrayKernels.axpby(alpha, x, beta, y, from, to);
+		else
+			ScalarArrayKernels.axpby(alpha, x, beta, y, from, to);
+	}
+
+	static double axpySumOfSquares(double alpha, double[] x, double[] y, int from, int to) {
+		return VECTORIZED ? VectorArrayKernels.axpySumOfSquares(alpha, x, y, from, to)
+				: ScalarArrayKernels.axpySumOfSquares(alpha, x, y, from, to);
+	}
+
+}
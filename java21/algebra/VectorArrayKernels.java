@@ -0,0 +1,336 @@
+package algebra;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementations of the {@link ArrayKernels} operations. Every loop
+ * runs over whole vectors of the preferred species of the platform, and the
+ * elements left, fewer than a vector, are processed by one more iteration under
+ * a mask of the lanes still in range.
+ * <p>
+ * The reductions of floats and ints widen every vector into doubles before
+ * adding it to the accumulator, as the scalar loops do, so the results only
+ * differ from them by the order of the additions.
+ * </p>
+ * <p>
+ * Only {@link ArrayKernels} may refer to this class, after checking that
+ * {@code jdk.incubator.vector} is present.
+ * </p>
+ */
+final class VectorArrayKernels {
+
+	private VectorArrayKernels() {
+	}
+
+	private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+	// number of double vectors a float or int vector widens into
+	private static final int FLOAT_PARTS = FLOATS.length() / DOUBLES.length();
+	private static final int INT_PARTS = INTS.length() / DOUBLES.length();
+
+	// add
+
+	static void add(double[] x, double[] y, double[] dest, int from, int to) {
+		int i = from;
+		for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length())
+			DoubleVector.fromArray(DOUBLES, x, i).add(DoubleVector.fromArray(DOUBLES, y, i)).intoArray(dest, i);
+		if (i < to) {
+			VectorMask<Double> m = DOUBLES.indexInRange(i, to);
+			DoubleVector.fromArray(DOUBLES, x, i, m).add(DoubleVector.fromArray(DOUBLES, y, i, m)).intoArray(dest, i, m);
+		}
+	}
+
+	static void add(float[] x, float[] y, float[] dest, int from, int to) {
+		int i = from;
+		for (int bound = from + FLOATS.loopBound(to - from); i < bound; i += FLOATS.length())
+			FloatVector.fromArray(FLOATS, x, i).add(FloatVector.fromArray(FLOATS, y, i)).intoArray(dest, i);
+		if (i < to) {
+			VectorMask<Float> m = FLOATS.indexInRange(i, to);
+			FloatVector.fromArray(FLOATS, x, i, m).add(FloatVector.fromArray(FLOATS, y, i, m)).intoArray(dest, i, m);
+		}
+	}
+
+	static void add(int[] x, int[] y, int[] dest, int from, int to) {
+		int i = from;
+		for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length())
+			IntVector.fromArray(INTS, x, i).add(IntVector.fromArray(INTS, y, i)).intoArray(dest, i);
+		if (i < to) {
+			VectorMask<Integer> m = INTS.indexInRange(i, to);
+			IntVector.fromArray(INTS, x, i, m).add(IntVector.fromArray(INTS, y, i, m)).intoArray(dest, i, m);
+		}
+	}
+
+	// subtract
+
+	static void subtract(double[] x, double[] y, double[] dest, int from, int to) {
+		int i = from;
+		for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length())
+			DoubleVector.fromArray(DOUBLES, x, i).sub(DoubleVector.fromArray(DOUBLES, y, i)).intoArray(dest, i);
+		if (i < to) {
+			VectorMask<Double> m = DOUBLES.indexInRange(i, to);
+			DoubleVector.fromArray(DOUBLES, x, i, m).sub(DoubleVector.fromArray(DOUBLES, y, i, m)).intoArray(dest, i, m);
+		}
+	}
+
+	static void subtract(float[] x, float[] y, float[] dest, int from, int to) {
+		int i = from;
+		for (int bound = from + FLOATS.loopBound(to - from); i < bound; i += FLOATS.length())
+			FloatVector.fromArray(FLOATS, x, i).sub(FloatVector.fromArray(FLOATS, y, i)).intoArray(dest, i);
+		if (i < to) {
+			VectorMask<Float> m = FLOATS.indexInRange(i, to);
+			FloatVector.fromArray(FLOATS, x, i, m).sub(FloatVector.fromArray(FLOATS, y, i, m)).intoArray(dest, i, m);
+		}
+	}
+
+	static void subtract(int[] x, int[] y, int[] dest, int from, int to) {
+		int i = from;
+		for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length())
+			IntVector.fromArray(INTS, x, i).sub(IntVector.fromArray(INTS, y, i)).intoArray(dest, i);
+		if (i < to) {
+			VectorMask<Integer> m = INTS.indexInRange(i, to);
+			IntVector.fromArray(INTS, x, i, m).sub(IntVector.fromArray(INTS, y, i, m)).intoArray(dest, i, m);
+		}
+	}
+
+	// scale
+
+	static void scale(double alpha, double[] x, double[] dest, int from, int to) {
+		int i = from;
+		for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length())
+			DoubleVector.fromArray(DOUBLES, x, i).mul(alpha).intoArray(dest, i);
+		if (i < to) {
+			VectorMask<Double> m = DOUBLES.indexInRange(i, to);
+			DoubleVector.fromArray(DOUBLES, x, i, m).mul(alpha).intoArray(dest, i, m);
+		}
+	}
+
+	static void scale(float alpha, float[] x, float[] dest, int from, int to) {
+		int i = from;
+		for (int bound = from + FLOATS.loopBound(to - from); i < bound; i += FLOATS.length())
+			FloatVector.fromArray(FLOATS, x, i).mul(alpha).intoArray(dest, i);
+		if (i < to) {
+			VectorMask<Float> m = FLOATS.indexInRange(i, to);
+			FloatVector.fromArray(FLOATS, x, i, m).mul(alpha).intoArray(dest, i, m);
+		}
+	}
+
+	static void scale(int alpha, int[] x, int[] dest, int from, int to) {
+		int i = from;
+		for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length())
+			IntVector.fromArray(INTS, x, i).mul(alpha).intoArray(dest, i);
+		if (i < to) {
+			VectorMask<Integer> m = INTS.indexInRange(i, to);
+			IntVector.fromArray(INTS, x, i, m).mul(alpha).intoArray(dest, i, m);
+		}
+	}
+
+	// axpy, the scalar loops round the product and the sum separately so no fma
+
+	static void axpy(double alpha, double[] x, double[] y, int from, int to) {
+		int i = from;
+		for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length())
+			DoubleVector.fromArray(DOUBLES, x, i).mul(alpha).add(DoubleVector.fromArray(DOUBLES, y, i)).intoArray(y, i);
+		if (i < to) {
+			VectorMask<Double> m = DOUBLES.indexInRange(i, to);
+			DoubleVector.fromArray(DOUBLES, x, i, m).mul(alpha).add(DoubleVector.fromArray(DOUBLES, y, i, m))
+					.intoArray(y, i, m);
+		}
+	}
+
+	static void axpy(float alpha, float[] x, float[] y, int from, int to) {
+		int i = from;
+		for (int bound = from + FLOATS.loopBound(to - from); i < bound; i += FLOATS.length())
+			FloatVector.fromArray(FLOATS, x, i).mul(alpha).add(FloatVector.fromArray(FLOATS, y, i)).intoArray(y, i);
+		if (i < to) {
+			VectorMask<Float> m = FLOATS.indexInRange(i, to);
+			FloatVector.fromArray(FLOATS, x, i, m).mul(alpha).add(FloatVector.fromArray(FLOATS, y, i, m))
+					.intoArray(y, i, m);
+		}
+	}
+
+	static void axpy(int alpha, int[] x, int[] y, int from, int to) {
+		int i = from;
+		for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length())
+			IntVector.fromArray(INTS, x, i).mul(alpha).add(IntVector.fromArray(INTS, y, i)).intoArray(y, i);
+		if (i < to) {
+			VectorMask<Integer> m = INTS.indexInRange(i, to);
+			IntVector.fromArray(INTS, x, i, m).mul(alpha).add(IntVector.fromArray(INTS, y, i, m)).intoArray(y, i, m);
+		}
+	}
+
+	// dot
+
+	static double dot(double[] x, double[] y, int from, int to) {
+		DoubleVector acc = DoubleVector.zero(DOUBLES);
+		int i = from;
+		for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length())
+			acc = DoubleVector.fromArray(DOUBLES, x, i).fma(DoubleVector.fromArray(DOUBLES, y, i), acc);
+		if (i < to) {
+			VectorMask<Double> m = DOUBLES.indexInRange(i, to);
+			acc = DoubleVector.fromArray(DOUBLES, x, i, m).fma(DoubleVector.fromArray(DOUBLES, y, i, m), acc);
+		}
+		return acc.reduceLanes(VectorOperators.ADD);
+	}
+
+	static double dot(float[] x, float[] y, int from, int to) {
+		DoubleVector acc = DoubleVector.zero(DOUBLES);
+		int i = from;
+		for (int bound = from + FLOATS.loopBound(to - from); i < bound; i += FLOATS.length())
+			acc = addWidened(acc, FloatVector.fromArray(FLOATS, x, i).mul(FloatVector.fromArray(FLOATS, y, i)));
+		if (i < to) {
+			VectorMask<Float> m = FLOATS.indexInRange(i, to);
+			acc = addWidened(acc, FloatVector.fromArray(FLOATS, x, i, m).mul(FloatVector.fromArray(FLOATS, y, i, m)));
+		}
+		return acc.reduceLanes(VectorOperators.ADD);
+	}
+
+	static int dot(int[] x, int[] y, int from, int to) {
+		IntVector acc = IntVector.zero(INTS);
+		int i = from;
+		for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length())
+			acc = IntVector.fromArray(INTS, x, i).mul(IntVector.fromArray(INTS, y, i)).add(acc);
+		if (i < to) {
+			VectorMask<Integer> m = INTS.indexInRange(i, to);
+			acc = IntVector.fromArray(INTS, x, i, m).mul(IntVector.fromArray(INTS, y, i, m)).add(acc);
+		}
+		return acc.reduceLanes(VectorOperators.ADD);
+	}
+
+	// sum
+
+	static double sum(double[] x, int from, int to) {
+		DoubleVector acc = DoubleVector.zero(DOUBLES);
+		int i = from;
+		for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length())
+			acc = acc.add(DoubleVector.fromArray(DOUBLES, x, i));
+		if (i < to)
+			acc = acc.add(DoubleVector.fromArray(DOUBLES, x, i, DOUBLES.indexInRange(i, to)));
+		return acc.reduceLanes(VectorOperators.ADD);
+	}
+
+	static double sum(float[] x, int from, int to) {
+		DoubleVector acc = DoubleVector.zero(DOUBLES);
+		int i = from;
+		for (int bound = from + FLOATS.loopBound(to - from); i < bound; i += FLOATS.length())
+			acc = addWidened(acc, FloatVector.fromArray(FLOATS, x, i));
+		if (i < to)
+			acc = addWidened(acc, FloatVector.fromArray(FLOATS, x, i, FLOATS.indexInRange(i, to)));
+		return acc.reduceLanes(VectorOperators.ADD);
+	}
+
+	static double sum(int[] x, int from, int to) {
+		DoubleVector acc = DoubleVector.zero(DOUBLES);
+		int i = from;
+		for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length())
+			acc = addWidened(acc, IntVector.fromArray(INTS, x, i));
+		if (i < to)
+			acc = addWidened(acc, IntVector.fromArray(INTS, x, i, INTS.indexInRange(i, to)));
+		return acc.reduceLanes(VectorOperators.ADD);
+	}
+
+	// sum of squares
+
+	static double sumOfSquares(double[] x, int from, int to) {
+		DoubleVector acc = DoubleVector.zero(DOUBLES);
+		int i = from;
+		for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+			DoubleVector v = DoubleVector.fromArray(DOUBLES, x, i);
+			acc = v.fma(v, acc);
+		}
+		if (i < to) {
+			DoubleVector v = DoubleVector.fromArray(DOUBLES, x, i, DOUBLES.indexInRange(i, to));
+			acc = v.fma(v, acc);
+		}
+		return acc.reduceLanes(VectorOperators.ADD);
+	}
+
+	static double sumOfSquares(float[] x, int from, int to) {
+		DoubleVector acc = DoubleVector.zero(DOUBLES);
+		int i = from;
+		for (int bound = from + FLOATS.loopBound(to - from); i < bound; i += FLOATS.length())
+			acc = addWidenedSquares(acc, FloatVector.fromArray(FLOATS, x, i));
+		if (i < to)
+			acc = addWidenedSquares(acc, FloatVector.fromArray(FLOATS, x, i, FLOATS.indexInRange(i, to)));
+		return acc.reduceLanes(VectorOperators.ADD);
+	}
+
+	static double sumOfSquares(int[] x, int from, int to) {
+		DoubleVector acc = DoubleVector.zero(DOUBLES);
+		int i = from;
+		for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length())
+			acc = addWidenedSquares(acc, IntVector.fromArray(INTS, x, i));
+		if (i < to)
+			acc = addWidenedSquares(acc, IntVector.fromArray(INTS, x, i, INTS.indexInRange(i, to)));
+		return acc.reduceLanes(VectorOperators.ADD);
+	}
+
+	// fused
+
+	static void axpby(double alpha, double[] x, double beta, double[] y, int from, int to) {
+		int i = from;
+		for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length())
+			DoubleVector.fromArray(DOUBLES, x, i).mul(alpha).add(DoubleVector.fromArray(DOUBLES, y, i).mul(beta))
+					.intoArray(y, i);
+		if (i < to) {
+			VectorMask<Double> m = DOUBLES.indexInRange(i, to);
+			DoubleVector.fromArray(DOUBLES, x, i, m).mul(alpha).add(DoubleVector.fromArray(DOUBLES, y, i, m).mul(beta))
+					.intoArray(y, i, m);
+		}
+	}
+
+	static double axpySumOfSquares(double alpha, double[] x, double[] y, int from, int to) {
+		DoubleVector acc = DoubleVector.zero(DOUBLES);
+		int i = from;
+		for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+			DoubleVector v = DoubleVector.fromArray(DOUBLES, x, i).mul(alpha).add(DoubleVector.fromArray(DOUBLES, y, i));
+			v.intoArray(y, i);
+			acc = v.fma(v, acc);
+		}
+		if (i < to) {
+			VectorMask<Double> m = DOUBLES.indexInRange(i, to);
+			DoubleVector v = DoubleVector.fromArray(DOUBLES, x, i, m).mul(alpha)
+					.add(DoubleVector.fromArray(DOUBLES, y, i, m));
+			v.intoArray(y, i, m);
+			acc = v.fma(v, acc);
+		}
+		return acc.reduceLanes(VectorOperators.ADD);
+	}
+
+	// widening
+
+	private static DoubleVector addWidened(DoubleVector acc, FloatVector v) {
+		for (int part = 0; part < FLOAT_PARTS; part++)
+			acc = acc.add((DoubleVector) v.convertShape(VectorOperators.F2D, DOUBLES, part));
+		return acc;
+	}
+
+	private static DoubleVector addWidened(DoubleVector acc, IntVector v) {
+		for (int part = 0; part < INT_PARTS; part++)
+			acc = acc.add((DoubleVector) v.convertShape(VectorOperators.I2D, DOUBLES, part));
+		return acc;
+	}
+
+	private static DoubleVector addWidenedSquares(DoubleVector acc, FloatVector v) {
+		for (int part = 0; part < FLOAT_PARTS; part++) {
+			DoubleVector w = (DoubleVector) v.convertShape(VectorOperators.F2D, DOUBLES, part);
+			acc = w.fma(w, acc);
+		}
+		return acc;
+	}
+
+	private static DoubleVector addWidenedSquares(DoubleVector acc, IntVector v) {
+		for (int part = 0; part < INT_PARTS; part++) {
+			DoubleVector w = (DoubleVector) v.convertShape(VectorOperators.I2D, DOUBLES, part);
+			acc = w.fma(w, acc);
+		}
+		return acc;
+	}
+
+}
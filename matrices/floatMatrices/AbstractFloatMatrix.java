@@ -0,0 +1,53 @@
+package floatMatrices;
+
+import java.util.Arrays;
+import algebra.Utils;
+
+public abstract class AbstractFloatMatrix implements FloatIterableMatrix {
+
+	public void addRow(float[] row) {
+		addRow(rowSize(), row);
+	}
+
+	public void addColumn(float[] column) {
+		addColumn(columnSize(), column);
+	}
+
+	public void addRow(int index, float[] row) {
+		Utils.checkIndex(index, rowSize());
+	}
+
+	public void addColumn(int index, float[] column) {
+		Utils.checkIndex(index, columnSize());
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof AbstractFloatMatrix))
+			return false;
+		AbstractFloatMatrix m = (AbstractFloatMatrix) o;
+		if (rowSize() != m.rowSize() || columnSize() != m.columnSize())
+			return false;
+		for (int i = 0; i < rowSize(); i++) {
+			if (!Arrays.equals(getRow(i), m.getRow(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int i = 0; i < rowSize(); i++) {
+			sb.append(Arrays.toString(getRow(i)));
+			if (i != rowSize() - 1) {
+				sb.append(", ");
+			}
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,36 @@
+package floatMatrices;
+
+import matrices.RegularMatrix;
+
+public abstract class AbstractRegularFloatMatrix extends AbstractFloatMatrix implements RegularMatrix {
+
+	@Override
+	public void addRow(int index, float[] row) {
+		super.addRow(index, row);
+		checkRowCompability(row.length);
+	}
+
+	public void addColumn(int index, float[] column) {
+		super.addColumn(index, column);
+		checkColumnCompability(column.length);
+	}
+
+	protected void checkRowCompability(int rowLength) {
+		if (!isEmpty() && !correctLengthRow(rowLength))
+			throw new IllegalArgumentException();
+	}
+
+	protected void checkColumnCompability(int columnLength) {
+		if (!isEmpty() && !correctLengthColumn(columnLength))
+			throw new IllegalArgumentException();
+	}
+
+	private boolean correctLengthRow(int rowLength) {
+		return rowLength == columnSize();
+	}
+
+	private boolean correctLengthColumn(int columnLength) {
+		return columnLength == rowSize();
+	}
+
+}
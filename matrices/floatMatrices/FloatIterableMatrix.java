@@ -0,0 +1,34 @@
+package floatMatrices;
+
+import matrices.IterableMatrix;
+import matrices.Index2d;
+
+public interface FloatIterableMatrix extends IterableMatrix, FloatMatrix {
+
+	Index2d indexOf(float number);
+
+	Index2d lastIndexOf(float number);
+
+	void addRow(float[] row);
+
+	void addRow(int index, float[] row);
+
+	void addColumn(float[] column);
+
+	void addColumn(int index, float[] column);
+
+	float[] getRow(int index);
+
+	float[] getColumn(int index);
+
+	float getNumber(int indexRow, int indexColumn);
+
+	float[] setRow(int index, float[] row);
+
+	float[] setColumn(int index, float[] column);
+
+	float[] removeRow(int index);
+
+	float[] removeColumn(int index);
+
+}
@@ -0,0 +1,11 @@
+package floatMatrices;
+
+import matrices.Matrix;
+
+public interface FloatMatrix extends Matrix {
+
+	void addRow(float[] row);
+
+	void addColumn(float[] column);
+
+}